@@ -3,13 +3,21 @@ package com.jobportal.jobportalapplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
 
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 public class JobPortalApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(JobPortalApplication.class, args);
+        SpringApplication application = new SpringApplication(JobPortalApplication.class);
+        // Rate limits and login throttling key on the client IP: take it from
+        // X-Forwarded-For when the request comes from a trusted (internal) proxy
+        application.setDefaultProperties(Map.of("server.forward-headers-strategy", "native"));
+        application.run(args);
     }
 
 }
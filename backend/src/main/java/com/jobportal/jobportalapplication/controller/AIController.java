@@ -1,6 +1,7 @@
 package com.jobportal.jobportalapplication.controller;
 
 import com.jobportal.jobportalapplication.dto.*;
+import com.jobportal.jobportalapplication.ratelimit.RateLimited;
 import com.jobportal.jobportalapplication.service.GroqAIService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +26,7 @@ public class AIController {
      * Used by candidates to analyze their resume
      */
     @PostMapping("/analyze-resume/{candidateId}")
+    @RateLimited(cost = 2)
     @PreAuthorize("hasRole('CANDIDATE')")
     public ResponseEntity<ResumeAnalysisResponse> analyzeAndStoreResume(
             @PathVariable Long candidateId,
@@ -56,6 +58,7 @@ public class AIController {
      * Calculate match score between candidate and job
      */
     @PostMapping("/match-score/{candidateId}/{jobId}")
+    @RateLimited(cost = 2)
     public ResponseEntity<AIJobMatchResponse> calculateMatchScore(
             @PathVariable Long candidateId,
             @PathVariable Long jobId) {
@@ -91,6 +94,7 @@ public class AIController {
      * Trigger AI analysis for all applicants of a job (batch)
      */
     @PostMapping("/analyze-applicants/{jobId}")
+    @RateLimited(cost = 10)
     @PreAuthorize("hasRole('EMPLOYER')")
     public ResponseEntity<ApiResponse> analyzeAllApplicants(@PathVariable Long jobId) {
         groqAIService.analyzeAllApplicantsForJob(jobId);
@@ -104,6 +108,7 @@ public class AIController {
      * Used by employers when posting new jobs
      */
     @PostMapping("/generate-job-description")
+    @RateLimited(cost = 2)
     @PreAuthorize("hasRole('EMPLOYER')")
     public ResponseEntity<AIJobDescriptionResponse> generateJobDescription(
             @Valid @RequestBody AIJobDescriptionRequest request) {
@@ -118,6 +123,7 @@ public class AIController {
      * Returns match score, matching skills, missing skills, and recommendations
      */
     @PostMapping("/analyze-job-match")
+    @RateLimited(cost = 3)
     @PreAuthorize("hasRole('CANDIDATE')")
     public ResponseEntity<AIMatchScoreResponse> analyzeJobMatch(
             @RequestBody Map<String, String> request) {
@@ -141,6 +147,7 @@ public class AIController {
      * Simple resume analysis (without storage)
      */
     @PostMapping("/analyze-resume")
+    @RateLimited(cost = 2)
     public ResponseEntity<AIResumeAnalysisResponse> analyzeResume(
             @Valid @RequestBody AIResumeAnalysisRequest request) {
         AIResumeAnalysisResponse response = groqAIService.analyzeResume(request);
@@ -151,6 +158,7 @@ public class AIController {
      * Simple match score calculation (without storage)
      */
     @PostMapping("/match-score")
+    @RateLimited(cost = 2)
     public ResponseEntity<AIMatchScoreResponse> calculateMatchScore(
             @Valid @RequestBody AIMatchScoreRequest request) {
         AIMatchScoreResponse response = groqAIService.calculateMatchScore(request);
@@ -161,6 +169,7 @@ public class AIController {
      * AI Chat assistant for job portal help
      */
     @PostMapping("/chat")
+    @RateLimited(cost = 1)
     public ResponseEntity<AIChatResponse> chat(
             @Valid @RequestBody AIChatRequest request) {
         AIChatResponse response = groqAIService.chat(request);
@@ -0,0 +1,40 @@
+package com.jobportal.jobportalapplication.controller;
+
+import com.jobportal.jobportalapplication.dto.ApiResponse;
+import com.jobportal.jobportalapplication.mail.MailDispatcher;
+import com.jobportal.jobportalapplication.outbox.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    /**
+     * Outbox queue depth (whole cluster) and this node's SMTP session and
+     * delivery counters.
+     */
+    @GetMapping("/mail/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMailStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("outbox", outboxService.queueDepth());
+        stats.put("smtp", mailDispatcher.stats());
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Mail statistics retrieved successfully", stats)
+        );
+    }
+}
@@ -3,13 +3,17 @@ package com.jobportal.jobportalapplication.controller;
 import com.jobportal.jobportalapplication.dto.ApiResponse;
 import com.jobportal.jobportalapplication.dto.AuthResponse;
 import com.jobportal.jobportalapplication.dto.LoginRequest;
+import com.jobportal.jobportalapplication.dto.RefreshTokenRequest;
 import com.jobportal.jobportalapplication.dto.RegisterRequest;
 import com.jobportal.jobportalapplication.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, allowCredentials = "true")
@@ -19,20 +23,30 @@ public class AuthController {
     private AuthService authService;
 
     @PostMapping("/register")
-    public ResponseEntity<ApiResponse<AuthResponse>> register(
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> register(
             @Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
-        return ResponseEntity.ok(
-                new ApiResponse<>(true, "User registered successfully", response)
-        );
+        return authService.register(request)
+                .thenApply(response -> ResponseEntity.ok(
+                        new ApiResponse<>(true, "User registered successfully", response)
+                ));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(
-            @Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        return authService.login(request, httpRequest.getRemoteAddr())
+                .thenApply(response -> ResponseEntity.ok(
+                        new ApiResponse<>(true, "Login successful", response)
+                ));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(
+            @Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
         return ResponseEntity.ok(
-                new ApiResponse<>(true, "Login successful", response)
+                new ApiResponse<>(true, "Token refreshed", response)
         );
     }
-}
\ No newline at end of file
+}
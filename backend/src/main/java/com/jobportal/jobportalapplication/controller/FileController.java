@@ -1,37 +1,46 @@
 package com.jobportal.jobportalapplication.controller;
 
 import com.jobportal.jobportalapplication.dto.ApiResponse;
-import com.jobportal.jobportalapplication.service.ResumeParserService;
+import com.jobportal.jobportalapplication.dto.ResumeIngestionResponse;
+import com.jobportal.jobportalapplication.security.UserDetailsImpl;
+import com.jobportal.jobportalapplication.service.FileDownloadService;
+import com.jobportal.jobportalapplication.service.FileStorageService;
+import com.jobportal.jobportalapplication.service.ImageDerivativeService;
+import com.jobportal.jobportalapplication.service.ResumeIngestionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileController {
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
 
     @Autowired
-    private ResumeParserService resumeParserService;
+    private ResumeIngestionService resumeIngestionService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
 
     /**
      * Upload a file (resume, profile image, etc.)
@@ -40,7 +49,8 @@ public class FileController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> uploadFile(
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "type", defaultValue = "resume") String type) {
+            @RequestParam(value = "type", defaultValue = "resume") String type,
+            Authentication authentication) {
 
         try {
             // Validate file
@@ -58,27 +68,25 @@ public class FileController {
                     .body(new ApiResponse(false, "Invalid file type for " + type));
             }
 
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, type);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String newFilename = UUID.randomUUID().toString() + "." + fileExtension;
-            Path filePath = uploadPath.resolve(newFilename);
-
-            // Save file
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            // Store once per distinct content; identical uploads share the same file
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            FileStorageService.StoredUpload stored = fileStorageService.store(
+                    file, type, fileExtension, userDetails.getId());
 
             // Return file URL
-            String fileUrl = "/api/files/download/" + type + "/" + newFilename;
+            String fileUrl = stored.fileUrl();
 
             Map<String, String> response = new HashMap<>();
             response.put("fileUrl", fileUrl);
             response.put("fileName", originalFilename);
             response.put("fileType", file.getContentType());
 
+            // Logos and photos get thumb/card/full derivatives up front
+            if (isImageType(type)) {
+                imageDerivativeService.ensureDerivatives(type, stored.filename());
+                response.put("thumbnailUrl", fileUrl + "?size=thumb");
+            }
+
             return ResponseEntity.ok(response);
 
         } catch (IOException e) {
@@ -89,53 +97,83 @@ public class FileController {
 
     /**
      * Download/view a file
+     * Supports conditional GET (ETag / Last-Modified) and single byte ranges;
+     * images also accept ?size=thumb|card|full for a scaled-down copy
      */
     @GetMapping("/download/{type}/{filename}")
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
             @PathVariable String type,
-            @PathVariable String filename) {
-
-        try {
-            Path filePath = Paths.get(uploadDir, type).resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (!resource.exists()) {
-                return ResponseEntity.notFound().build();
+            @PathVariable String filename,
+            @RequestParam(value = "size", required = false) String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        boolean publicCache = isImageType(type);
+
+        if (size != null) {
+            ImageDerivativeService.Size derivativeSize = ImageDerivativeService.Size.parse(size).orElse(null);
+            if (derivativeSize == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown size: " + size);
+                return;
             }
-
-            // Determine content type
-            String contentType = Files.probeContentType(filePath);
-            if (contentType == null) {
-                contentType = "application/octet-stream";
+            Optional<String> derivative = imageDerivativeService.derivativeFor(type, filename, derivativeSize);
+            if (derivative.isEmpty()) {
+                // Non-images, legacy files and derivatives still being generated: send the
+                // original, uncached here so the sized URL picks up the derivative later
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+                response.sendRedirect(request.getRequestURI());
+                return;
             }
+            filename = derivative.get();
+        }
 
-            return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                    "inline; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+        // Remote blob store: send the client straight to the bucket
+        Optional<URI> directUrl = fileStorageService.downloadUrl(filename);
+        if (directUrl.isPresent()) {
+            long maxAge = fileStorageService.downloadUrlTtl().toSeconds() / 2;
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAge);
+            response.sendRedirect(directUrl.get().toString());
+            return;
+        }
 
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
+        Optional<Path> filePath = fileStorageService.resolve(type, filename);
+        if (filePath.isPresent()) {
+            fileDownloadService.serve(filePath.get(), publicCache, request, response);
+            return;
+        }
+
+        // Remote blob without redirects enabled: proxy it
+        try (InputStream in = fileStorageService.open(type, filename)) {
+            fileDownloadService.serve(in, filename, publicCache, request, response);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 
     /**
      * Delete a file
+     * Only the uploader can delete an upload; files from before uploads had owners are admin-only
      */
     @DeleteMapping("/delete/{type}/{filename}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> deleteFile(
             @PathVariable String type,
-            @PathVariable String filename) {
+            @PathVariable String filename,
+            Authentication authentication) {
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
         try {
-            Path filePath = Paths.get(uploadDir, type).resolve(filename).normalize();
+            boolean deleted;
+            if (fileStorageService.isLegacy(filename)) {
+                deleted = isAdmin(authentication) && fileStorageService.deleteLegacy(type, filename);
+            } else {
+                // Drops the caller's reference to shared content; not owning it is a 404 like a missing file
+                deleted = fileStorageService.isOwner(filename, userDetails.getId())
+                        && fileStorageService.release(filename, userDetails.getId());
+            }
 
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
+            if (deleted) {
                 return ResponseEntity.ok(new ApiResponse(true, "File deleted successfully"));
             } else {
                 return ResponseEntity.notFound().build();
@@ -154,6 +192,15 @@ public class FileController {
         return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
     }
 
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private boolean isImageType(String type) {
+        return type.equalsIgnoreCase("image") || type.equalsIgnoreCase("profile");
+    }
+
     private boolean isValidFileType(String type, String extension) {
         return switch (type.toLowerCase()) {
             case "resume" -> extension.matches("pdf|doc|docx|txt");
@@ -164,13 +211,16 @@ public class FileController {
     }
 
     /**
-     * Upload resume and extract text for AI analysis
-     * Returns both the file URL and extracted text
+     * Upload resume and queue text extraction (and optional AI analysis)
+     * Returns immediately with a resume id; poll the status URL for the extracted text
      */
     @PostMapping("/upload-resume")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> uploadResumeWithExtraction(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "analyze", defaultValue = "false") boolean analyze,
+            Authentication authentication,
+            HttpServletRequest request) {
 
         try {
             // Validate file
@@ -179,47 +229,27 @@ public class FileController {
                     .body(new ApiResponse(false, "Please select a file to upload"));
             }
 
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFilename);
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            ResumeIngestionResponse response = resumeIngestionService.submit(
+                    file, analyze, userDetails.getId(), request.getRemoteAddr());
 
-            // Validate resume file type
-            if (!fileExtension.matches("pdf|doc|docx|txt")) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse(false, "Invalid file type. Please upload PDF, DOC, DOCX, or TXT"));
-            }
+            return ResponseEntity.accepted().body(response);
 
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, "resume");
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String newFilename = UUID.randomUUID().toString() + "." + fileExtension;
-            Path filePath = uploadPath.resolve(newFilename);
-
-            // Save file
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Extract text from resume
-            String extractedText = resumeParserService.extractText(file);
-
-            // Return file URL and extracted text
-            String fileUrl = "/api/files/download/resume/" + newFilename;
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("fileUrl", fileUrl);
-            response.put("fileName", originalFilename);
-            response.put("fileType", file.getContentType());
-            response.put("extractedText", extractedText);
-
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
+        } catch (IOException e) {
             return ResponseEntity.internalServerError()
                 .body(new ApiResponse(false, "Failed to process resume: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * Processing status of an uploaded resume, including the extracted text once completed
+     */
+    @GetMapping("/resume/{id}/status")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ResumeIngestionResponse> getResumeStatus(
+            @PathVariable Long id,
+            Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(resumeIngestionService.getStatus(id, userDetails.getId()));
+    }
+}
@@ -1,16 +1,21 @@
 package com.jobportal.jobportalapplication.controller;
 
 import com.jobportal.jobportalapplication.dto.ApiResponse;
+import com.jobportal.jobportalapplication.dto.MarkNotificationsReadRequest;
 import com.jobportal.jobportalapplication.entity.Notification;
 import com.jobportal.jobportalapplication.security.UserDetailsImpl;
 import com.jobportal.jobportalapplication.service.NotificationService;
+import com.jobportal.jobportalapplication.service.NotificationStreamService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +28,9 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     @GetMapping
     public ResponseEntity<?> getUserNotifications(
             Authentication authentication,
@@ -44,6 +52,16 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Server-sent events: "notification" for each new notification of the caller.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        return notificationStreamService.subscribe(userDetails.getId());
+    }
+
     @GetMapping("/unread")
     public ResponseEntity<?> getUnreadNotifications(Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -70,12 +88,24 @@ public class NotificationController {
     public ResponseEntity<?> markAsRead(
             @PathVariable Long id,
             Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-        notificationService.markAsRead(id);
+        notificationService.markAsRead(id, userDetails.getId());
 
         return ResponseEntity.ok(new ApiResponse(true, "Notification marked as read"));
     }
 
+    @PutMapping("/read")
+    public ResponseEntity<?> markManyAsRead(
+            @Valid @RequestBody MarkNotificationsReadRequest request,
+            Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        int updated = notificationService.markAsRead(request.getIds(), userDetails.getId());
+
+        return ResponseEntity.ok(new ApiResponse<>(true, "Notifications marked as read", Map.of("updated", updated)));
+    }
+
     @PutMapping("/read-all")
     public ResponseEntity<?> markAllAsRead(Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -90,7 +120,9 @@ public class NotificationController {
             @PathVariable Long id,
             Authentication authentication) {
 
-        notificationService.deleteNotification(id);
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+
+        notificationService.deleteNotification(id, userDetails.getId());
 
         return ResponseEntity.ok(new ApiResponse(true, "Notification deleted"));
     }
@@ -8,6 +8,7 @@ import com.jobportal.jobportalapplication.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -51,4 +52,15 @@ public class UserController {
                 new ApiResponse<>(true, "Password changed successfully")
         );
     }
+
+    @PutMapping("/{id}/active")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<UserResponse>> setActive(
+            @PathVariable Long id,
+            @RequestParam boolean active) {
+        UserResponse user = userService.setActive(id, active);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, active ? "User activated" : "User deactivated", user)
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.jobportal.jobportalapplication.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MarkNotificationsReadRequest {
+
+    @NotEmpty(message = "At least one notification id is required")
+    @Size(max = 1000, message = "At most 1000 notifications per request")
+    private List<Long> ids;
+}
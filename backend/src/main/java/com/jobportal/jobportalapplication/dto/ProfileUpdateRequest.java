@@ -1,5 +1,7 @@
 package com.jobportal.jobportalapplication.dto;
 
+import com.jobportal.jobportalapplication.entity.ApplicationAlertMode;
+import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 
 @Data
@@ -12,4 +14,8 @@ public class ProfileUpdateRequest {
     private String education;
     private String position;
     private Long companyId;
+    private ApplicationAlertMode applicationAlertMode;
+
+    @Pattern(regexp = "[a-zA-Z]{2,3}([-_][a-zA-Z0-9]{2,8}){0,2}", message = "Invalid locale")
+    private String locale;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.jobportal.jobportalapplication.dto;
+
+import com.jobportal.jobportalapplication.entity.ResumeIngestionStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ResumeIngestionResponse {
+    private Long resumeId;
+    private ResumeIngestionStatus status;
+    private String fileUrl;
+    private String fileName;
+    private String fileType;
+    private String statusUrl;
+    private String extractedText;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -1,5 +1,6 @@
 package com.jobportal.jobportalapplication.dto;
 
+import com.jobportal.jobportalapplication.entity.ApplicationAlertMode;
 import com.jobportal.jobportalapplication.entity.Role;
 import lombok.Data;
 
@@ -23,4 +24,5 @@ public class UserResponse {
     private String position;
     private Long companyId;
     private String companyName;
+    private ApplicationAlertMode applicationAlertMode;
 }
\ No newline at end of file
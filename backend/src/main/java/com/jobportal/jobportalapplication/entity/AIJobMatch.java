@@ -10,6 +10,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
+@NamedEntityGraph(name = "AIJobMatch.detail", attributeNodes = {
+        @NamedAttributeNode("job"),
+        @NamedAttributeNode(value = "candidate", subgraph = "candidate")
+}, subgraphs = @NamedSubgraph(name = "candidate", attributeNodes = @NamedAttributeNode("user")))
 @Table(name = "ai_job_matches", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"candidate_id", "job_id"})
 })
@@ -23,11 +27,11 @@ public class AIJobMatch {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "candidate_id", nullable = false)
     private Candidate candidate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "job_id", nullable = false)
     private Job job;
 
@@ -11,7 +11,24 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "applications")
+@NamedEntityGraph(name = "Application.detail", attributeNodes = {
+        @NamedAttributeNode(value = "job", subgraph = "job"),
+        @NamedAttributeNode(value = "candidate", subgraph = "candidate")
+}, subgraphs = {
+        @NamedSubgraph(name = "job", attributeNodes = {
+                @NamedAttributeNode("company"),
+                @NamedAttributeNode(value = "employer", subgraph = "employer")
+        }),
+        @NamedSubgraph(name = "employer", attributeNodes = @NamedAttributeNode("user")),
+        @NamedSubgraph(name = "candidate", attributeNodes = @NamedAttributeNode("user"))
+})
+@NamedEntityGraph(name = "Application.ranking", attributeNodes = {
+        @NamedAttributeNode(value = "candidate", subgraph = "candidate")
+}, subgraphs = @NamedSubgraph(name = "candidate", attributeNodes = @NamedAttributeNode("user")))
+@Table(name = "applications", indexes = {
+        // A job's applications after a given id (employer digests)
+        @Index(name = "idx_applications_job_id", columnList = "job_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,11 +39,11 @@ public class Application {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "job_id", nullable = false)
     private Job job;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "candidate_id", nullable = false)
     private Candidate candidate;
 
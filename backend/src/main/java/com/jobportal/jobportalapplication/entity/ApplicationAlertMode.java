@@ -0,0 +1,11 @@
+package com.jobportal.jobportalapplication.entity;
+
+/** How an employer is emailed about new applications. */
+public enum ApplicationAlertMode {
+    /** One email per application. */
+    IMMEDIATE,
+    /** One summary per hour. */
+    HOURLY,
+    /** One summary per day. */
+    DAILY
+}
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = "Employer.profile", attributeNodes = @NamedAttributeNode("company"))
 @Table(name = "employers")
 @Data
 @NoArgsConstructor
@@ -23,11 +24,11 @@ public class Employer {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
@@ -37,6 +38,20 @@ public class Employer {
 
     private String phone;
 
+    /** Null (existing rows) means IMMEDIATE. */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ApplicationAlertMode applicationAlertMode = ApplicationAlertMode.IMMEDIATE;
+
+    /** When the last application digest was taken; null when not in digest mode. */
+    private LocalDateTime lastDigestAt;
+
+    /**
+     * Highest application id covered by the last digest (or already alerted when
+     * digest mode was entered); null when not in digest mode.
+     */
+    private Long lastDigestedApplicationId;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
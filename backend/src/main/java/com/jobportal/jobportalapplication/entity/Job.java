@@ -14,6 +14,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = "Job.listing", attributeNodes = @NamedAttributeNode("company"))
+@NamedEntityGraph(name = "Job.detail", attributeNodes = {
+        @NamedAttributeNode("company"),
+        @NamedAttributeNode(value = "employer", subgraph = "employer")
+}, subgraphs = @NamedSubgraph(name = "employer", attributeNodes = @NamedAttributeNode("user")))
 @Table(name = "jobs")
 @Data
 @NoArgsConstructor
@@ -25,11 +30,11 @@ public class Job {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employer_id", nullable = false)
     private Employer employer;
 
@@ -1,5 +1,6 @@
 package com.jobportal.jobportalapplication.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,7 +11,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Unread lists/counts and newest-first pages per user
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at"),
+        // Full newest-first listing per user
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,4 +44,20 @@ public class Notification {
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    /**
+     * Notifications with the same key (e.g. applications to one job) coalesce into
+     * a single unread row for the user; null means never coalesce.
+     */
+    @Column(length = 200)
+    private String groupKey;
+
+    /** How many notifications this row stands for. */
+    @Column(nullable = false, columnDefinition = "integer default 1")
+    private Integer groupCount = 1;
+
+    /** Message for a coalesced row; {@code {count}} is replaced by the group count. */
+    @Transient
+    @JsonIgnore
+    private String groupMessage;
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.jobportal.jobportalapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A side effect (e.g. an email) recorded in the same transaction as the change
+ * that causes it and carried out afterwards by the outbox dispatcher. Deleted
+ * once handled; kept as FAILED after the last attempt.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+        @Index(name = "idx_outbox_messages_status_available", columnList = "status, available_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Selects the handler, e.g. "email". */
+    @Column(nullable = false, length = 50)
+    private String kind;
+
+    /** Handler-specific JSON. */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /** Not picked up before this time: retry backoff, or the lease of a claimed message. */
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,6 @@
+package com.jobportal.jobportalapplication.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,32 @@
+package com.jobportal.jobportalapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-shared rate-limit state: the bucket's theoretical arrival time in epoch
+ * millis (see RateLimitStore). Only used with app.ratelimit.store=postgres.
+ */
+@Entity
+@Table(name = "rate_limit_buckets", indexes = {
+        @Index(name = "idx_rate_limit_buckets_updated_at", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    @Id
+    @Column(length = 100)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private Long tat;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
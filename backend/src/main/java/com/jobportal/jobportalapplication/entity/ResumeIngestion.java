@@ -0,0 +1,65 @@
+package com.jobportal.jobportalapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "resume_ingestions", indexes = {
+    @Index(name = "idx_resume_ingestions_user", columnList = "user_id"),
+    @Index(name = "idx_resume_ingestions_status", columnList = "status, updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class ResumeIngestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String fileUrl;
+
+    private String fileName;
+
+    private String fileType;
+
+    @Column(nullable = false, length = 10)
+    private String extension;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ResumeIngestionStatus status = ResumeIngestionStatus.QUEUED;
+
+    // ANALYZE is a reserved word in Postgres
+    @Column(name = "analyze_requested", nullable = false)
+    private Boolean analyze = false;
+
+    @Column(columnDefinition = "TEXT")
+    private String extractedText;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    /** Times the pipeline was restarted after an instance died mid-flight. */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private Integer recoveries = 0;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+}
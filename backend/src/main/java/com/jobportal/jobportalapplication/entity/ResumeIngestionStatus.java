@@ -0,0 +1,10 @@
+package com.jobportal.jobportalapplication.entity;
+
+public enum ResumeIngestionStatus {
+    QUEUED,
+    EXTRACTING,
+    NORMALIZING,
+    ANALYZING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,36 @@
+package com.jobportal.jobportalapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per distinct uploaded content (SHA-256). refCount tracks how many
+ * uploads point at it; the bytes are removed when it drops to zero.
+ */
+@Entity
+@Table(name = "stored_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false, length = 10)
+    private String extension;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
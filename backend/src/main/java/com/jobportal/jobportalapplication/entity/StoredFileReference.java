@@ -0,0 +1,37 @@
+package com.jobportal.jobportalapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One upload of stored content by a user. Uploading the same bytes twice (say as
+ * a profile photo and as a company logo) gives two rows, so deleting one of them
+ * leaves the other working; {@link StoredFile#getRefCount()} counts these rows.
+ */
+@Entity
+@Table(name = "stored_file_references", indexes = {
+        @Index(name = "idx_stored_file_references_sha_owner", columnList = "sha256, owner_id"),
+        @Index(name = "idx_stored_file_references_owner", columnList = "owner_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFileReference {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
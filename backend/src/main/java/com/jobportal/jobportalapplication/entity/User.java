@@ -35,16 +35,17 @@ public class User {
     @Column(nullable = false)
     private Boolean isActive = true;
 
+    /** Language for emails as a BCP 47 tag (e.g. "de"); null means app.mail.default-locale. */
+    @Column(length = 20)
+    private String locale;
+
+    /** Tokens issued before this instant are rejected (password change, deactivation). */
+    private LocalDateTime tokensValidAfter;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @LastModifiedDate
     private LocalDateTime updatedAt;
-
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private Candidate candidate;
-
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private Employer employer;
 }
@@ -0,0 +1,11 @@
+package com.jobportal.jobportalapplication.event;
+
+/**
+ * Marker for application events that must reach every node, not just the one that
+ * published them. {@link ClusterEventBridge} relays them over Postgres NOTIFY and
+ * republishes them locally on the other nodes, so listeners are written exactly as
+ * for ordinary Spring events. Implementations must be Jackson-serializable and
+ * registered in {@link ClusterEventBridge}.
+ */
+public interface ClusterEvent {
+}
@@ -0,0 +1,188 @@
+package com.jobportal.jobportalapplication.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Relays {@link ClusterEvent}s between app nodes over Postgres LISTEN/NOTIFY.
+ *
+ * Local events are sent with pg_notify once their transaction commits; a daemon
+ * thread LISTENs on a dedicated connection (outside the Hikari pool) and
+ * republishes events from other nodes through the normal ApplicationEventPublisher.
+ * Delivery is best effort: notifications sent while a node is reconnecting are
+ * lost, so consumers keep a TTL as a backstop.
+ */
+@Component
+@Slf4j
+public class ClusterEventBridge {
+
+    private static final String CHANNEL = "app_events";
+
+    private static final Map<String, Class<? extends ClusterEvent>> TYPES = Map.of(
+            "UserAccountChanged", UserAccountChangedEvent.class,
+            "NotificationCreated", NotificationCreatedEvent.class,
+            "UnreadCountChanged", UnreadCountChangedEvent.class
+    );
+
+    private static final long RECONNECT_DELAY_MS = 5000;
+    private static final int POLL_TIMEOUT_MS = 5000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.cluster-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.datasource.url:}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Set while republishing a remote event so it is not sent back out. */
+    private final ThreadLocal<Boolean> relaying = new ThreadLocal<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @PostConstruct
+    void start() {
+        if (!enabled || !url.startsWith("jdbc:postgresql:")) {
+            log.info("Cluster events disabled; events stay on this node");
+            enabled = false;
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cluster-events");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(ClusterEvent event) {
+        if (!enabled || Boolean.TRUE.equals(relaying.get())) {
+            return;
+        }
+
+        String type = typeOf(event);
+        if (type == null) {
+            log.warn("Cluster event type {} is not registered", event.getClass().getSimpleName());
+            return;
+        }
+
+        try {
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("node", nodeId);
+            message.put("type", type);
+            message.put("data", event);
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null,
+                    CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            log.warn("Could not send cluster event {}: {}", type, e.getMessage());
+        }
+    }
+
+    // ==================== LISTENER ====================
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                log.info("Listening for cluster events on '{}'", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cluster event listener lost its connection, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            JsonNode message = objectMapper.readTree(payload);
+            if (nodeId.equals(message.path("node").asText())) {
+                return;
+            }
+            Class<? extends ClusterEvent> type = TYPES.get(message.path("type").asText());
+            if (type == null) {
+                return;
+            }
+
+            ClusterEvent event = objectMapper.treeToValue(message.get("data"), type);
+            relaying.set(true);
+            try {
+                eventPublisher.publishEvent(event);
+            } finally {
+                relaying.remove();
+            }
+        } catch (Exception e) {
+            log.warn("Dropping malformed cluster event: {}", e.getMessage());
+        }
+    }
+
+    private static String typeOf(ClusterEvent event) {
+        for (Map.Entry<String, Class<? extends ClusterEvent>> entry : TYPES.entrySet()) {
+            if (entry.getValue() == event.getClass()) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+}
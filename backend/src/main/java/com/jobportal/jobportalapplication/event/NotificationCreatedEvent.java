@@ -0,0 +1,46 @@
+package com.jobportal.jobportalapplication.event;
+
+import com.jobportal.jobportalapplication.entity.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification was stored for a user; pushed to that user's open streams on
+ * whichever node holds them. {@code merged} means it was coalesced into a row the
+ * user already had unread (same id, new count and message), so the unread count
+ * does not change.
+ */
+public record NotificationCreatedEvent(Long id, Long userId, String type, String message,
+                                       Long referenceId, LocalDateTime createdAt,
+                                       int groupCount, boolean merged) implements ClusterEvent {
+
+    public static NotificationCreatedEvent of(Notification notification) {
+        return of(notification, false);
+    }
+
+    public static NotificationCreatedEvent of(Notification notification, boolean merged) {
+        return new NotificationCreatedEvent(
+                notification.getId(),
+                notification.getUserId(),
+                notification.getType(),
+                notification.getMessage(),
+                notification.getReferenceId(),
+                notification.getCreatedAt(),
+                notification.getGroupCount() != null ? notification.getGroupCount() : 1,
+                merged);
+    }
+
+    /** The notification as the REST endpoints return it. */
+    public Notification toNotification() {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUserId(userId);
+        notification.setType(type);
+        notification.setMessage(message);
+        notification.setIsRead(false);
+        notification.setReferenceId(referenceId);
+        notification.setCreatedAt(createdAt);
+        notification.setGroupCount(groupCount);
+        return notification;
+    }
+}
@@ -0,0 +1,8 @@
+package com.jobportal.jobportalapplication.event;
+
+/**
+ * An outbox message was committed; wakes this node's dispatcher instead of
+ * waiting for its next poll. Other nodes find it by polling.
+ */
+public record OutboxMessageQueuedEvent(Long id, String kind) {
+}
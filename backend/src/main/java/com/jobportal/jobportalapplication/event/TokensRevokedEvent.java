@@ -0,0 +1,9 @@
+package com.jobportal.jobportalapplication.event;
+
+/**
+ * Tokens of {@code userId} issued before {@code cutoffEpochSecond} were revoked in
+ * the database. Applied to this node's in-memory cut-offs once that commits; other
+ * nodes pick the change up from their periodic sync.
+ */
+public record TokensRevokedEvent(Long userId, long cutoffEpochSecond) {
+}
@@ -0,0 +1,16 @@
+package com.jobportal.jobportalapplication.event;
+
+/**
+ * A user's unread notification count changed other than by a new notification:
+ * by {@code delta}, or to zero when {@code reset} is set.
+ */
+public record UnreadCountChangedEvent(Long userId, long delta, boolean reset) implements ClusterEvent {
+
+    public static UnreadCountChangedEvent by(Long userId, long delta) {
+        return new UnreadCountChangedEvent(userId, delta, false);
+    }
+
+    public static UnreadCountChangedEvent cleared(Long userId) {
+        return new UnreadCountChangedEvent(userId, 0, true);
+    }
+}
@@ -0,0 +1,15 @@
+package com.jobportal.jobportalapplication.event;
+
+/**
+ * A user's credentials, profile or status changed; cached copies of the user
+ * (e.g. UserDetails) must be dropped.
+ */
+public record UserAccountChangedEvent(Long userId, String email, Reason reason) implements ClusterEvent {
+
+    public enum Reason {
+        PASSWORD_CHANGED,
+        PROFILE_UPDATED,
+        DEACTIVATED,
+        ACTIVATED
+    }
+}
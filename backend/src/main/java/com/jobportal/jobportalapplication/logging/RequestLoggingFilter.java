@@ -0,0 +1,106 @@
+package com.jobportal.jobportalapplication.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Outermost filter: gives every request a correlation id (taken from
+ * {@code X-Request-Id} when the caller sends a sane one), exposes it in MDC and on
+ * the response, optionally samples the request for DEBUG logging, and writes one
+ * access-log line when the request completes.
+ *
+ * Appenders are asynchronous (see logback-spring.xml), so none of this blocks the
+ * request thread on console I/O.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String MDC_USER_ID = "userId";
+
+    private static final String REQUEST_ID_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".requestId";
+    private static final String START_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".start";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    /** Fraction of requests logged at DEBUG for our packages, regardless of the configured level. */
+    @Value("${app.logging.debug-sample-rate:0.0}")
+    private double debugSampleRate;
+
+    @Value("${app.logging.access-log:true}")
+    private boolean accessLog;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async handlers (e.g. login) finish on a later dispatch; log the request then
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String requestId = (String) request.getAttribute(REQUEST_ID_ATTRIBUTE);
+        Long start = (Long) request.getAttribute(START_ATTRIBUTE);
+        if (requestId == null) {
+            requestId = request.getHeader(REQUEST_ID_HEADER);
+            if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+                requestId = newRequestId();
+            }
+            start = System.nanoTime();
+            request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+            request.setAttribute(START_ATTRIBUTE, start);
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+        }
+
+        MDC.put(MDC_REQUEST_ID, requestId);
+
+        boolean sampled = debugSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < debugSampleRate;
+        if (sampled) {
+            MDC.put(SampledDebugTurboFilter.MDC_KEY, "1");
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (accessLog && !request.isAsyncStarted()) {
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                log.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("path", request.getRequestURI())
+                        .addKeyValue("status", response.getStatus())
+                        .addKeyValue("durationMs", elapsedMs)
+                        .log("{} {} {} {}ms", request.getMethod(), request.getRequestURI(),
+                                response.getStatus(), elapsedMs);
+            }
+            MDC.remove(MDC_REQUEST_ID);
+            MDC.remove(MDC_USER_ID);
+            MDC.remove(SampledDebugTurboFilter.MDC_KEY);
+        }
+    }
+
+    private static String newRequestId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong() | Long.MIN_VALUE)
+                + Long.toHexString(random.nextLong() | Long.MIN_VALUE).substring(0, 8);
+    }
+}
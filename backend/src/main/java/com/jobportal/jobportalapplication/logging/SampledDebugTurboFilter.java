@@ -0,0 +1,34 @@
+package com.jobportal.jobportalapplication.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets DEBUG events from our own packages through for requests that
+ * {@link RequestLoggingFilter} sampled, even when those loggers are at INFO.
+ * Every other event is left to the normal level check, so the cost for
+ * unsampled requests is one MDC lookup per DEBUG call.
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    static final String MDC_KEY = "debugSampled";
+
+    private String packagePrefix = "com.jobportal";
+
+    public void setPackagePrefix(String packagePrefix) {
+        this.packagePrefix = packagePrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+                              String format, Object[] params, Throwable t) {
+        if (level != Level.DEBUG || !logger.getName().startsWith(packagePrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(MDC_KEY) != null ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,161 @@
+package com.jobportal.jobportalapplication.mail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into a list of segments: literal text, placeholders and
+ * sections. Rendering is a walk over the segments appending into the caller's
+ * builder; no parsing, regex or intermediate strings.
+ *
+ * Placeholders are {@code {{name}}}; in an HTML template their values are
+ * HTML-escaped. {@code {{#name}}...{{/name}}} renders its body once per element if
+ * the value is a collection of maps (each element's entries added to the outer
+ * ones), once if it is any other non-null value other than {@code false}, and not
+ * at all otherwise. A section tag on a line of its own does not leave an empty
+ * line behind.
+ */
+final class CompiledTemplate {
+
+    private final Segment[] segments;
+
+    private CompiledTemplate(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * @throws IllegalArgumentException if sections are not properly nested
+     */
+    static CompiledTemplate compile(String source, boolean html) {
+        Deque<String> open = new ArrayDeque<>();
+        Deque<List<Segment>> bodies = new ArrayDeque<>();
+        bodies.push(new ArrayList<>());
+
+        int position = 0;
+        while (true) {
+            int start = source.indexOf("{{", position);
+            int end = start < 0 ? -1 : source.indexOf("}}", start + 2);
+            if (end < 0) {
+                addLiteral(bodies.peek(), source.substring(position));
+                break;
+            }
+            String tag = source.substring(start + 2, end).trim();
+            int literalEnd = start;
+            int next = end + 2;
+            if (tag.startsWith("#") || tag.startsWith("/")) {
+                // A section tag alone on its line takes the line with it
+                int lineStart = source.lastIndexOf('\n', start - 1) + 1;
+                int lineEnd = source.indexOf('\n', next);
+                if (lineStart >= position && source.substring(lineStart, start).isBlank()
+                        && source.substring(next, lineEnd < 0 ? source.length() : lineEnd).isBlank()) {
+                    literalEnd = lineStart;
+                    next = lineEnd < 0 ? source.length() : lineEnd + 1;
+                }
+            }
+            addLiteral(bodies.peek(), source.substring(position, literalEnd));
+            position = next;
+
+            if (tag.startsWith("#")) {
+                open.push(tag.substring(1).trim());
+                bodies.push(new ArrayList<>());
+            } else if (tag.startsWith("/")) {
+                String name = tag.substring(1).trim();
+                if (!name.equals(open.peek())) {
+                    throw new IllegalArgumentException("Unexpected {{/" + name + "}}");
+                }
+                open.pop();
+                Segment[] body = bodies.pop().toArray(Segment[]::new);
+                bodies.peek().add(new Section(name, body));
+            } else {
+                bodies.peek().add(new Placeholder(tag, html));
+            }
+        }
+        if (!open.isEmpty()) {
+            throw new IllegalArgumentException("Unclosed {{#" + open.peek() + "}}");
+        }
+        return new CompiledTemplate(bodies.pop().toArray(Segment[]::new));
+    }
+
+    /** Append the rendered template; missing values render as empty. */
+    void renderTo(StringBuilder out, Map<String, ?> model) {
+        render(segments, out, model);
+    }
+
+    private static void render(Segment[] segments, StringBuilder out, Map<String, ?> model) {
+        for (Segment segment : segments) {
+            segment.render(out, model);
+        }
+    }
+
+    private static void addLiteral(List<Segment> body, String text) {
+        if (!text.isEmpty()) {
+            body.add(new Literal(text));
+        }
+    }
+
+    private interface Segment {
+        void render(StringBuilder out, Map<String, ?> model);
+    }
+
+    private record Literal(String text) implements Segment {
+        @Override
+        public void render(StringBuilder out, Map<String, ?> model) {
+            out.append(text);
+        }
+    }
+
+    private record Placeholder(String name, boolean html) implements Segment {
+        @Override
+        public void render(StringBuilder out, Map<String, ?> model) {
+            Object value = model.get(name);
+            if (value == null) {
+                return;
+            }
+            if (html) {
+                appendEscaped(out, value.toString());
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    private record Section(String name, Segment[] body) implements Segment {
+        @Override
+        public void render(StringBuilder out, Map<String, ?> model) {
+            Object value = model.get(name);
+            if (value == null || Boolean.FALSE.equals(value)) {
+                return;
+            }
+            if (!(value instanceof Collection<?> items)) {
+                CompiledTemplate.render(body, out, model);
+                return;
+            }
+            for (Object item : items) {
+                Map<String, Object> scope = new HashMap<>(model);
+                if (item instanceof Map<?, ?> entries) {
+                    entries.forEach((key, entry) -> scope.put(String.valueOf(key), entry));
+                }
+                CompiledTemplate.render(body, out, scope);
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
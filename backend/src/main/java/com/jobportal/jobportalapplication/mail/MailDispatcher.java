@@ -0,0 +1,245 @@
+package com.jobportal.jobportalapplication.mail;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends mail over pooled SMTP connections.
+ *
+ * A batch is sent over one connection (one handshake, login and TLS setup for all
+ * of it); idle connections are kept for reuse until {@code session-idle-ms} and
+ * retired after {@code max-messages-per-session}. At most {@code max-sessions}
+ * connections are open at once; callers beyond that wait for a free one, which
+ * keeps us under the relay's per-client connection limit.
+ *
+ * Failures are reported per message to the caller (the outbox retries them).
+ * A rejected recipient fails only its message; a broken connection fails the
+ * rest of the batch.
+ *
+ * Falls back to {@link JavaMailSender#send(MimeMessage)} per message if the sender
+ * is not a {@link JavaMailSenderImpl}.
+ */
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${app.mail.max-sessions:4}")
+    private int maxSessions;
+
+    @Value("${app.mail.max-messages-per-session:100}")
+    private int maxMessagesPerSession;
+
+    @Value("${app.mail.session-idle-ms:30000}")
+    private long sessionIdleMs;
+
+    @Value("${app.mail.session-wait-ms:60000}")
+    private long sessionWaitMs;
+
+    private Semaphore sessions;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        sessions = new Semaphore(maxSessions, true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            transport.close();
+        }
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Send the messages, in order, over one pooled connection.
+     *
+     * @return the messages that could not be sent, with the reason; empty if all went out
+     */
+    public <K> Map<K, Exception> sendAll(Map<K, MimeMessage> messages) {
+        Map<K, Exception> failures = new LinkedHashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            messages.forEach((key, message) -> {
+                try {
+                    mailSender.send(message);
+                    sent.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failures.put(key, e);
+                    failed.incrementAndGet();
+                }
+            });
+            return failures;
+        }
+
+        try {
+            if (!sessions.tryAcquire(sessionWaitMs, TimeUnit.MILLISECONDS)) {
+                return failAll(messages.keySet(), new IllegalStateException("No free SMTP session"), failures);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failAll(messages.keySet(), e, failures);
+        }
+
+        PooledTransport transport = null;
+        try {
+            Iterator<Map.Entry<K, MimeMessage>> pending = messages.entrySet().iterator();
+            while (pending.hasNext()) {
+                if (transport == null) {
+                    try {
+                        transport = borrow(sender);
+                    } catch (MessagingException e) {
+                        // Cannot reach or log in to the relay: nothing in this batch can go out
+                        List<K> rest = new ArrayList<>();
+                        pending.forEachRemaining(entry -> rest.add(entry.getKey()));
+                        return failAll(rest, e, failures);
+                    }
+                }
+
+                Map.Entry<K, MimeMessage> entry = pending.next();
+                try {
+                    MimeMessage message = entry.getValue();
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    message.saveChanges();
+                    Address[] recipients = message.getAllRecipients();
+                    transport.transport.sendMessage(message, recipients);
+                    transport.messages++;
+                    sent.incrementAndGet();
+                } catch (SendFailedException e) {
+                    // Rejected recipient(s); the connection is still usable
+                    failures.put(entry.getKey(), e);
+                    failed.incrementAndGet();
+                } catch (MessagingException e) {
+                    failures.put(entry.getKey(), e);
+                    failed.incrementAndGet();
+                    // The conversation is in an unknown state; continue on a fresh connection
+                    transport.close();
+                    transport = null;
+                }
+
+                if (transport != null && transport.messages >= maxMessagesPerSession) {
+                    transport.close();
+                    transport = null;
+                }
+            }
+            return failures;
+        } finally {
+            if (transport != null) {
+                transport.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(transport);
+            }
+            sessions.release();
+        }
+    }
+
+    /** Most recently used idle connection that is still open, else a new one. */
+    private PooledTransport borrow(JavaMailSenderImpl sender) throws MessagingException {
+        long now = System.currentTimeMillis();
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            if (now - transport.lastUsed < sessionIdleMs && transport.transport.isConnected()) {
+                return transport;
+            }
+            transport.close();
+        }
+
+        Session session = sender.getSession();
+        Transport connection = session.getTransport(sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+        connection.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+        connectionsOpened.incrementAndGet();
+        return new PooledTransport(connection);
+    }
+
+    /** Close connections idle for longer than the relay is likely to keep them. */
+    @Scheduled(fixedDelayString = "${app.mail.session-idle-ms:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        PooledTransport transport;
+        // Oldest at the tail; stop at the first one still fresh
+        while ((transport = idle.peekLast()) != null && now - transport.lastUsed >= sessionIdleMs) {
+            if (idle.removeLastOccurrence(transport)) {
+                transport.close();
+            }
+        }
+    }
+
+    private <K> Map<K, Exception> failAll(Iterable<K> keys, Exception cause, Map<K, Exception> failures) {
+        for (K key : keys) {
+            failures.put(key, cause);
+            failed.incrementAndGet();
+        }
+        return failures;
+    }
+
+    // ==================== METRICS ====================
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sent", sent.get());
+        stats.put("failed", failed.get());
+        stats.put("connectionsOpened", connectionsOpened.get());
+        stats.put("sessionsActive", maxSessions - sessions.availablePermits());
+        stats.put("sessionsWaiting", sessions.getQueueLength());
+        stats.put("sessionsIdle", idle.size());
+        stats.put("maxSessions", maxSessions);
+        return stats;
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private int messages;
+        private long lastUsed = System.currentTimeMillis();
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Closing SMTP connection failed: {}", e.getMessage());
+            }
+        }
+    }
+}
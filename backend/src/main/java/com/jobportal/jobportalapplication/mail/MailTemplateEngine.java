@@ -0,0 +1,138 @@
+package com.jobportal.jobportalapplication.mail;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Email templates, compiled once at startup.
+ *
+ * Templates live in {@code classpath:mail-templates/} as
+ * {@code <name>[_<locale>].<part>} with parts {@code subject}, {@code txt} and
+ * (optionally) {@code html}, e.g. {@code application-status_de.txt}. A message is
+ * rendered in the most specific locale that has the template (de_AT, then de, then
+ * the default), each part falling back independently.
+ *
+ * Rendering appends into a per-thread builder that is reused across messages, so
+ * a bulk send allocates little beyond the resulting strings.
+ */
+@Component
+@Slf4j
+public class MailTemplateEngine {
+
+    private static final String LOCATION = "classpath:mail-templates/*";
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    /** A rendered message; {@code html} is null when the template has no HTML part. */
+    public record RenderedEmail(String subject, String text, String html) {
+    }
+
+    @Value("${app.mail.default-locale:en}")
+    private String defaultLocale;
+
+    /** "name|part|locale" (locale "" for the default) -> template. */
+    private final Map<String, CompiledTemplate> templates = new HashMap<>();
+
+    @PostConstruct
+    void load() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+            for (Resource resource : resources) {
+                String file = resource.getFilename();
+                int dot = file != null ? file.lastIndexOf('.') : -1;
+                if (dot < 0) {
+                    continue;
+                }
+                String part = file.substring(dot + 1);
+                if (!part.equals("subject") && !part.equals("txt") && !part.equals("html")) {
+                    continue;
+                }
+                String base = file.substring(0, dot);
+                int underscore = base.indexOf('_');
+                String name = underscore < 0 ? base : base.substring(0, underscore);
+                String locale = underscore < 0 ? "" : base.substring(underscore + 1);
+
+                String source = read(resource);
+                if (part.equals("subject")) {
+                    source = source.strip();
+                }
+                templates.put(key(name, part, locale), CompiledTemplate.compile(source, part.equals("html")));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load mail templates", e);
+        }
+        log.info("Compiled {} mail template parts", templates.size());
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no subject or text part for the template
+     */
+    public RenderedEmail render(String name, Locale locale, Map<String, ?> model) {
+        CompiledTemplate subject = resolve(name, "subject", locale);
+        CompiledTemplate text = resolve(name, "txt", locale);
+        if (subject == null || text == null) {
+            throw new IllegalArgumentException("Unknown mail template: " + name);
+        }
+        CompiledTemplate html = resolve(name, "html", locale);
+
+        return new RenderedEmail(
+                render(subject, model),
+                render(text, model),
+                html != null ? render(html, model) : null);
+    }
+
+    public Locale defaultLocale() {
+        return Locale.forLanguageTag(defaultLocale.replace('_', '-'));
+    }
+
+    private CompiledTemplate resolve(String name, String part, Locale locale) {
+        if (locale != null) {
+            if (!locale.getCountry().isEmpty()) {
+                CompiledTemplate template = templates.get(key(name, part, locale.getLanguage() + "_" + locale.getCountry()));
+                if (template != null) {
+                    return template;
+                }
+            }
+            CompiledTemplate template = templates.get(key(name, part, locale.getLanguage()));
+            if (template != null) {
+                return template;
+            }
+        }
+        return templates.get(key(name, part, ""));
+    }
+
+    private static String render(CompiledTemplate template, Map<String, ?> model) {
+        StringBuilder out = BUILDER.get();
+        out.setLength(0);
+        template.renderTo(out, model);
+        String rendered = out.toString();
+        if (out.capacity() > MAX_POOLED_CAPACITY) {
+            // Do not keep one oversized message's buffer around for the thread's lifetime
+            BUILDER.remove();
+        }
+        return rendered;
+    }
+
+    private static String key(String name, String part, String locale) {
+        return name + '|' + part + '|' + locale;
+    }
+
+    private static String read(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
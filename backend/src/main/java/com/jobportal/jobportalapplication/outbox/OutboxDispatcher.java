@@ -0,0 +1,234 @@
+package com.jobportal.jobportalapplication.outbox;
+
+import com.jobportal.jobportalapplication.entity.OutboxMessage;
+import com.jobportal.jobportalapplication.event.OutboxMessageQueuedEvent;
+import com.jobportal.jobportalapplication.repo.OutboxMessageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the outbox in the background.
+ *
+ * A dispatcher thread claims due messages in batches (leased, SKIP LOCKED, so any
+ * number of nodes can drain the same table) and hands them, grouped by kind, to
+ * their {@link OutboxHandler} on a small worker pool. Handled messages are deleted;
+ * failures are retried with exponential backoff and marked FAILED after the last
+ * attempt. The thread wakes right after a local commit and otherwise polls.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private List<OutboxHandler> handlerBeans;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.threads:4}")
+    private int threads;
+
+    @Value("${app.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.outbox.poll-ms:2000}")
+    private long pollMs;
+
+    @Value("${app.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.base-backoff-ms:5000}")
+    private long baseBackoffMs;
+
+    @Value("${app.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    private final Map<String, OutboxHandler> handlers = new HashMap<>();
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private ExecutorService workers;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        for (OutboxHandler handler : handlerBeans) {
+            handlers.put(handler.kind(), handler);
+        }
+        if (!enabled) {
+            return;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "outbox-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        running = true;
+        dispatcher = new Thread(this::run, "outbox-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (dispatcher == null) {
+            return;
+        }
+        // Claimed messages not finished by now are picked up again once their lease ends
+        dispatcher.interrupt();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueued(OutboxMessageQueuedEvent event) {
+        wakeUp.release();
+    }
+
+    // ==================== DISPATCH ====================
+
+    private void run() {
+        while (running) {
+            try {
+                int claimed = drainOnce();
+                if (claimed < batchSize) {
+                    // Idle (or a partial batch): sleep until a local commit or the next poll
+                    wakeUp.tryAcquire(pollMs, TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Outbox dispatch failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claim and handle one batch; returns how many messages were claimed. Messages
+     * are grouped by kind and split across the workers, so a handler gets them in
+     * chunks it can process together.
+     */
+    int drainOnce() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> messages = outboxMessageRepository.claim(now, now.plusSeconds(leaseSeconds), batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxMessage>> byKind = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            byKind.computeIfAbsent(message.getKind(), kind -> new ArrayList<>()).add(message);
+        }
+
+        List<Future<?>> inFlight = new ArrayList<>();
+        for (List<OutboxMessage> ofKind : byKind.values()) {
+            int chunkSize = (ofKind.size() + threads - 1) / threads;
+            for (int from = 0; from < ofKind.size(); from += chunkSize) {
+                List<OutboxMessage> chunk = ofKind.subList(from, Math.min(ofKind.size(), from + chunkSize));
+                inFlight.add(workers.submit(() -> handle(chunk)));
+            }
+        }
+        for (Future<?> future : inFlight) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.warn("Outbox worker failed: {}", e.getCause().getMessage());
+            }
+        }
+        return messages.size();
+    }
+
+    /** One chunk of messages of a single kind. */
+    private void handle(List<OutboxMessage> messages) {
+        String kind = messages.get(0).getKind();
+        OutboxHandler handler = handlers.get(kind);
+        if (handler == null) {
+            for (OutboxMessage message : messages) {
+                outboxMessageRepository.markFailed(message.getId(), "No handler for kind " + kind);
+            }
+            log.error("{} outbox messages have unknown kind {}", messages.size(), kind);
+            return;
+        }
+
+        Map<Long, Exception> failures;
+        try {
+            failures = handler.handleAll(messages);
+        } catch (RuntimeException e) {
+            failures = new HashMap<>();
+            for (OutboxMessage message : messages) {
+                failures.put(message.getId(), e);
+            }
+        }
+
+        List<Long> handled = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            Exception failure = failures.get(message.getId());
+            if (failure == null) {
+                handled.add(message.getId());
+            } else {
+                retryOrFail(message, failure);
+            }
+        }
+        if (!handled.isEmpty()) {
+            outboxMessageRepository.deleteByIdIn(handled);
+        }
+    }
+
+    private void retryOrFail(OutboxMessage message, Exception e) {
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+        if (message.getAttempts() >= maxAttempts) {
+            outboxMessageRepository.markFailed(message.getId(), error);
+            log.error("Outbox message {} ({}) failed after {} attempts: {}",
+                    message.getId(), message.getKind(), message.getAttempts(), error);
+        } else {
+            long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(20, message.getAttempts() - 1));
+            outboxMessageRepository.reschedule(message.getId(),
+                    LocalDateTime.now().plusNanos(backoff * 1_000_000), error);
+            log.warn("Outbox message {} ({}) failed, attempt {}/{}, retrying in {} ms: {}",
+                    message.getId(), message.getKind(), message.getAttempts(), maxAttempts, backoff, error);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+}
@@ -0,0 +1,38 @@
+package com.jobportal.jobportalapplication.outbox;
+
+import com.jobportal.jobportalapplication.entity.OutboxMessage;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carries out one kind of outbox message. Runs outside any transaction, possibly
+ * more than once for the same message (at-least-once), so it should tolerate
+ * repeats. Throwing schedules a retry.
+ */
+public interface OutboxHandler {
+
+    /** The {@link OutboxMessage#getKind() kind} handled. */
+    String kind();
+
+    void handle(String payload) throws Exception;
+
+    /**
+     * Handle several messages of this kind at once; override when a batch is
+     * cheaper than one at a time (e.g. one SMTP connection for many emails).
+     *
+     * @return the failed messages by id; the rest count as handled
+     */
+    default Map<Long, Exception> handleAll(List<OutboxMessage> messages) {
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            try {
+                handle(message.getPayload());
+            } catch (Exception e) {
+                failures.put(message.getId(), e);
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,68 @@
+package com.jobportal.jobportalapplication.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobportal.jobportalapplication.entity.OutboxMessage;
+import com.jobportal.jobportalapplication.entity.OutboxStatus;
+import com.jobportal.jobportalapplication.event.OutboxMessageQueuedEvent;
+import com.jobportal.jobportalapplication.repo.OutboxMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records side effects in the caller's transaction: they happen only if it
+ * commits, and never hold it open while they run.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional
+    public void enqueue(String kind, Object payload) {
+        OutboxMessage message = new OutboxMessage();
+        message.setKind(kind);
+        try {
+            message.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + kind, e);
+        }
+        message.setStatus(OutboxStatus.PENDING);
+        message.setAttempts(0);
+        LocalDateTime now = LocalDateTime.now();
+        message.setAvailableAt(now);
+        message.setCreatedAt(now);
+
+        message = outboxMessageRepository.save(message);
+        eventPublisher.publishEvent(new OutboxMessageQueuedEvent(message.getId(), kind));
+    }
+
+    /**
+     * Queue depth: messages due now, waiting (in retry backoff or claimed by a
+     * dispatcher) and given up on.
+     */
+    public Map<String, Long> queueDepth() {
+        long pending = outboxMessageRepository.countByStatus(OutboxStatus.PENDING);
+        long due = outboxMessageRepository.countByStatusAndAvailableAtLessThanEqual(
+                OutboxStatus.PENDING, LocalDateTime.now());
+
+        Map<String, Long> depth = new LinkedHashMap<>();
+        depth.put("due", due);
+        depth.put("waiting", pending - due);
+        depth.put("failed", outboxMessageRepository.countByStatus(OutboxStatus.FAILED));
+        return depth;
+    }
+}
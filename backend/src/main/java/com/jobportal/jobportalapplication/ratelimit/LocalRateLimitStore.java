@@ -0,0 +1,58 @@
+package com.jobportal.jobportalapplication.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-node buckets: one {@link AtomicLong} TAT per key, updated with a CAS loop.
+ * Keys idle for an hour are dropped (an idle bucket is full anyway).
+ */
+@Component
+@ConditionalOnProperty(name = "app.ratelimit.store", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, AtomicLong> buckets = Caffeine.newBuilder()
+            .maximumSize(200_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    private final Clock clock;
+
+    public LocalRateLimitStore() {
+        this(Clock.systemUTC());
+    }
+
+    LocalRateLimitStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, long incrementMs, long toleranceMs) {
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong());
+        while (true) {
+            long now = clock.millis();
+            long current = tat.get();
+            long next = Math.max(current, now) + incrementMs;
+            if (next - now > toleranceMs) {
+                return next - now - toleranceMs;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void refund(String key, long incrementMs) {
+        AtomicLong tat = buckets.getIfPresent(key);
+        if (tat != null) {
+            tat.addAndGet(-incrementMs);
+        }
+    }
+}
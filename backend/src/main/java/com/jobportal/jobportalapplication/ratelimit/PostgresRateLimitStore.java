@@ -0,0 +1,61 @@
+package com.jobportal.jobportalapplication.ratelimit;
+
+import com.jobportal.jobportalapplication.repo.RateLimitBucketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Buckets shared by all nodes in the rate_limit_buckets table, so a limit holds
+ * cluster-wide. Each check is a single upsert against the database clock. If the
+ * database is unavailable the check falls back to per-node buckets rather than
+ * rejecting or waving everything through.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ratelimit.store", havingValue = "postgres")
+@Slf4j
+public class PostgresRateLimitStore implements RateLimitStore {
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+
+    private final LocalRateLimitStore fallback = new LocalRateLimitStore();
+
+    @Override
+    public long tryAcquire(String key, long incrementMs, long toleranceMs) {
+        try {
+            if (!rateLimitBucketRepository.tryAcquire(key, incrementMs, toleranceMs).isEmpty()) {
+                return 0;
+            }
+            List<Long> backlog = rateLimitBucketRepository.findBacklog(key);
+            long ahead = backlog.isEmpty() ? 0 : backlog.get(0);
+            return Math.max(1, ahead + incrementMs - toleranceMs);
+        } catch (RuntimeException e) {
+            log.warn("Shared rate-limit check failed, using local buckets: {}", e.getMessage());
+            return fallback.tryAcquire(key, incrementMs, toleranceMs);
+        }
+    }
+
+    @Override
+    public void refund(String key, long incrementMs) {
+        try {
+            rateLimitBucketRepository.refund(key, incrementMs);
+        } catch (RuntimeException e) {
+            fallback.refund(key, incrementMs);
+        }
+    }
+
+    @Scheduled(cron = "${app.ratelimit.purge-cron:0 23 * * * *}")
+    public void purgeIdle() {
+        // A bucket idle for a day is full again; its row carries no information
+        int removed = rateLimitBucketRepository.deleteIdleSince(LocalDateTime.now().minusDays(1));
+        if (removed > 0) {
+            log.debug("Purged {} idle rate-limit buckets", removed);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.jobportal.jobportalapplication.ratelimit;
+
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import com.jobportal.jobportalapplication.security.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Enforces {@link RateLimited} budgets. Every annotated call takes its cost from
+ * two buckets, the caller's user id and client IP; if either is empty the call is
+ * rejected with 429 and Retry-After before the controller (and the upstream AI
+ * request) runs.
+ */
+@Component
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Value("${app.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.ratelimit.user.capacity:20}")
+    private long userCapacity;
+
+    @Value("${app.ratelimit.user.refill-per-minute:10}")
+    private long userRefillPerMinute;
+
+    @Value("${app.ratelimit.ip.capacity:60}")
+    private long ipCapacity;
+
+    @Value("${app.ratelimit.ip.refill-per-minute:30}")
+    private long ipRefillPerMinute;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RateLimited limit = method.getMethodAnnotation(RateLimited.class);
+        if (limit == null) {
+            return true;
+        }
+
+        // The client address: forwarded headers from trusted proxies are applied
+        // before this runs (server.forward-headers-strategy)
+        long wait = tryCharge(request.getRemoteAddr(), currentUserId(), limit.cost());
+        if (wait > 0) {
+            log.debug("Rate limited {} {} for {}ms", request.getMethod(), request.getRequestURI(), wait);
+            throw new TooManyRequestsException("Rate limit exceeded, please slow down", (wait + 999) / 1000);
+        }
+        return true;
+    }
+
+    /**
+     * Takes {@code cost} tokens for work that is only known to hit the AI after the
+     * request has been read (for example an opt-in analysis flag on an upload).
+     */
+    public void charge(String remoteAddr, Long userId, int cost) {
+        if (!enabled) {
+            return;
+        }
+        long wait = tryCharge(remoteAddr, userId, cost);
+        if (wait > 0) {
+            log.debug("Rate limited {} (user {}) for {}ms", remoteAddr, userId, wait);
+            throw new TooManyRequestsException("Rate limit exceeded, please slow down", (wait + 999) / 1000);
+        }
+    }
+
+    private long tryCharge(String remoteAddr, Long userId, int cost) {
+        String ipKey = "ip:" + remoteAddr;
+        long ipInterval = 60_000 / Math.max(1, ipRefillPerMinute);
+        long ipIncrement = cost * ipInterval;
+
+        long wait = rateLimitStore.tryAcquire(ipKey, ipIncrement, ipCapacity * ipInterval);
+        if (wait == 0 && userId != null) {
+            long userInterval = 60_000 / Math.max(1, userRefillPerMinute);
+            wait = rateLimitStore.tryAcquire("user:" + userId, cost * userInterval,
+                    userCapacity * userInterval);
+            if (wait > 0) {
+                rateLimitStore.refund(ipKey, ipIncrement);
+            }
+        }
+        return wait;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
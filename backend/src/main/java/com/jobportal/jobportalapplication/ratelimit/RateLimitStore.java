@@ -0,0 +1,24 @@
+package com.jobportal.jobportalapplication.ratelimit;
+
+/**
+ * Token-bucket state, kept in GCRA form: one "theoretical arrival time" (TAT) per
+ * key, in epoch millis. Taking {@code n} tokens advances the TAT by
+ * {@code n * interval}; the call is allowed while the TAT stays within
+ * {@code capacity * interval} of now. That is the same as a bucket of
+ * {@code capacity} tokens refilled one per interval, but a single number per key.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Advance {@code key}'s TAT by {@code incrementMs} if it stays within
+     * {@code toleranceMs} of now.
+     *
+     * @return 0 if allowed, otherwise the milliseconds until it would be
+     */
+    long tryAcquire(String key, long incrementMs, long toleranceMs);
+
+    /**
+     * Give back tokens taken by an allowed call that was rejected on another key.
+     */
+    void refund(String key, long incrementMs);
+}
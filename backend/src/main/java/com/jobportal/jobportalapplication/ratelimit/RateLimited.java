@@ -0,0 +1,18 @@
+package com.jobportal.jobportalapplication.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller method under the per-user and per-IP request budget
+ * enforced by {@link RateLimitInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /** Tokens one call takes from the caller's buckets (heavier calls cost more). */
+    int cost() default 1;
+}
@@ -1,6 +1,7 @@
 package com.jobportal.jobportalapplication.repo;
 
 import com.jobportal.jobportalapplication.entity.AIJobMatch;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +13,7 @@ import java.util.Optional;
 @Repository
 public interface AIJobMatchRepository extends JpaRepository<AIJobMatch, Long> {
 
+    @EntityGraph("AIJobMatch.detail")
     Optional<AIJobMatch> findByCandidateIdAndJobId(Long candidateId, Long jobId);
 
     boolean existsByCandidateIdAndJobId(Long candidateId, Long jobId);
@@ -4,10 +4,15 @@ import com.jobportal.jobportalapplication.entity.Application;
 import com.jobportal.jobportalapplication.entity.ApplicationStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,4 +24,79 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     Long countByStatus(ApplicationStatus status);
     Long countByAppliedDateAfter(LocalDateTime date);
     Long countByJobId(Long jobId);
+
+    /** Application count per job; jobs without applications are absent. */
+    interface JobCount {
+        Long getJobId();
+        Long getApplications();
+    }
+
+    @Query("SELECT a.job.id AS jobId, COUNT(a) AS applications FROM Application a " +
+            "WHERE a.job.id IN :jobIds GROUP BY a.job.id")
+    List<JobCount> countByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+    /** With job, company, employer and candidate, for access checks and emails. */
+    @EntityGraph("Application.detail")
+    Optional<Application> findDetailById(Long id);
+
+    /** With candidate and user, for ranking a job's applicants. */
+    @EntityGraph("Application.ranking")
+    List<Application> findRankingByJobId(Long jobId);
+
+    /** An application with the job, company and candidate fields listings show. */
+    interface ApplicationSummary {
+        Long getId();
+        Long getJobId();
+        String getJobTitle();
+        Long getCompanyId();
+        String getCompanyName();
+        Long getCandidateId();
+        String getCandidateName();
+        String getCandidateEmail();
+        String getCoverLetter();
+        ApplicationStatus getStatus();
+        LocalDateTime getAppliedDate();
+        LocalDateTime getUpdatedAt();
+    }
+
+    // Listings select just the summary columns in one joined query (plus the count),
+    // instead of loading each application's job, company, candidate and user.
+    String SUMMARY_SELECT = "SELECT a.id AS id, j.id AS jobId, j.title AS jobTitle, co.id AS companyId, " +
+            "co.name AS companyName, c.id AS candidateId, c.fullName AS candidateName, u.email AS candidateEmail, " +
+            "a.coverLetter AS coverLetter, a.status AS status, a.appliedDate AS appliedDate, a.updatedAt AS updatedAt " +
+            "FROM Application a JOIN a.job j JOIN j.company co JOIN a.candidate c JOIN c.user u ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE c.id = :candidateId",
+            countQuery = "SELECT COUNT(a) FROM Application a WHERE a.candidate.id = :candidateId")
+    Page<ApplicationSummary> findSummariesByCandidateId(@Param("candidateId") Long candidateId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE j.id = :jobId",
+            countQuery = "SELECT COUNT(a) FROM Application a WHERE a.job.id = :jobId")
+    Page<ApplicationSummary> findSummariesByJobId(@Param("jobId") Long jobId, Pageable pageable);
+
+    /** Applications per job of one employer with an id above a watermark. */
+    interface JobApplicationCount {
+        Long getJobId();
+        String getJobTitle();
+        Long getApplications();
+        LocalDateTime getLastAppliedAt();
+        Long getLastApplicationId();
+    }
+
+    @Query("SELECT j.id AS jobId, j.title AS jobTitle, COUNT(a) AS applications, " +
+            "MAX(a.appliedDate) AS lastAppliedAt, MAX(a.id) AS lastApplicationId " +
+            "FROM Application a JOIN a.job j " +
+            "WHERE j.employer.id = :employerId AND a.id > :afterId AND a.id <= :upToId " +
+            "GROUP BY j.id, j.title ORDER BY COUNT(a) DESC, j.title")
+    List<JobApplicationCount> summarizeNewApplications(@Param("employerId") Long employerId,
+                                                       @Param("afterId") Long afterId,
+                                                       @Param("upToId") Long upToId);
+
+    /** Highest application id of one employer's jobs, 0 if none. */
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM Application a WHERE a.job.employer.id = :employerId")
+    Long findLastApplicationId(@Param("employerId") Long employerId);
+
+    /** Highest application id among applications made before {@code cutoff}, 0 if none. */
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM Application a WHERE a.appliedDate < :cutoff")
+    Long findLastApplicationIdBefore(@Param("cutoff") LocalDateTime cutoff);
 }
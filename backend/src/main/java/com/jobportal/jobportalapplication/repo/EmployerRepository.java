@@ -1,12 +1,33 @@
 package com.jobportal.jobportalapplication.repo;
 
+import com.jobportal.jobportalapplication.entity.ApplicationAlertMode;
 import com.jobportal.jobportalapplication.entity.Employer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EmployerRepository extends JpaRepository<Employer, Long> {
     Optional<Employer> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT e.id FROM Employer e WHERE e.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    /** With company, for profile responses. */
+    @EntityGraph("Employer.profile")
+    Optional<Employer> findProfileByUserId(Long userId);
+
+    @Query("SELECT e.id FROM Employer e WHERE e.applicationAlertMode = :mode")
+    List<Long> findIdsByApplicationAlertMode(@Param("mode") ApplicationAlertMode mode);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Employer e WHERE e.id = :id")
+    Optional<Employer> findForUpdate(@Param("id") Long id);
+}
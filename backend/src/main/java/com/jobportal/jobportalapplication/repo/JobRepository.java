@@ -4,6 +4,8 @@ import com.jobportal.jobportalapplication.entity.Job;
 import com.jobportal.jobportalapplication.entity.JobStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -11,16 +13,30 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificationExecutor<Job> {
+    @EntityGraph("Job.listing")
     Page<Job> findByEmployerId(Long employerId, Pageable pageable);
     Page<Job> findByCompanyId(Long companyId, Pageable pageable);
     Long countByStatus(JobStatus status);
     Long countByPostedDateAfter(LocalDateTime date);
 
+    @Override
+    @EntityGraph("Job.listing")
+    Page<Job> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph("Job.listing")
+    Page<Job> findAll(Specification<Job> spec, Pageable pageable);
+
+    /** With company and employer, for the job page and ownership checks. */
+    @EntityGraph("Job.detail")
+    Optional<Job> findDetailById(Long id);
+
     @Query("SELECT j.company.name, COUNT(j) FROM Job j " +
             "GROUP BY j.company.id, j.company.name " +
             "ORDER BY COUNT(j) DESC")
     List<Object[]> findTopCompaniesByJobCount(Pageable pageable);
-}
\ No newline at end of file
+}
@@ -4,7 +4,11 @@ import com.jobportal.jobportalapplication.entity.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,5 +17,26 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
     Long countByUserIdAndIsReadFalse(Long userId);
-    void deleteByUserId(Long userId);
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT n.userId, COUNT(n) FROM Notification n WHERE n.userId IN :userIds AND n.isRead = false GROUP BY n.userId")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") List<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.id IN :ids AND n.isRead = false")
+    int markAsRead(@Param("userId") Long userId, @Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId);
+
+    /** Delete one of the user's notifications; returns its read flag, empty if there was none. */
+    @Transactional
+    @Query(value = "DELETE FROM notifications WHERE id = :id AND user_id = :userId RETURNING is_read",
+            nativeQuery = true)
+    List<Boolean> deleteReturningReadFlag(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
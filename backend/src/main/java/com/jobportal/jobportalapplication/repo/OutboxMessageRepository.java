@@ -0,0 +1,56 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.OutboxMessage;
+import com.jobportal.jobportalapplication.entity.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Claim up to {@code limit} due messages by leasing them until {@code leaseUntil}.
+     * SKIP LOCKED lets several nodes claim concurrently without waiting on or
+     * double-claiming each other's rows; a lease that runs out (node died mid-send)
+     * makes the message due again.
+     */
+    @Transactional
+    @Query(value = "UPDATE outbox_messages SET available_at = :leaseUntil, attempts = attempts + 1 " +
+            "WHERE id IN (SELECT id FROM outbox_messages " +
+            "WHERE status = 'PENDING' AND available_at <= :now " +
+            "ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *",
+            nativeQuery = true)
+    List<OutboxMessage> claim(@Param("now") LocalDateTime now,
+                              @Param("leaseUntil") LocalDateTime leaseUntil,
+                              @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.availableAt = :availableAt, m.lastError = :error WHERE m.id = :id")
+    int reschedule(@Param("id") Long id,
+                   @Param("availableAt") LocalDateTime availableAt,
+                   @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxMessage m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    long countByStatus(OutboxStatus status);
+
+    long countByStatusAndAvailableAtLessThanEqual(OutboxStatus status, LocalDateTime time);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxMessage m SET m.status = com.jobportal.jobportalapplication.entity.OutboxStatus.FAILED, " +
+            "m.lastError = :error WHERE m.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+}
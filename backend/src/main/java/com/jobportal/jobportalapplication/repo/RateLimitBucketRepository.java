@@ -0,0 +1,52 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /**
+     * One round trip, row-locked by the upsert: advance the TAT by {@code increment}
+     * if the result stays within {@code tolerance} of the database clock. Returns
+     * the new TAT when allowed, nothing when not. Times are epoch millis.
+     */
+    @Transactional
+    @Query(value = "WITH clock AS (SELECT (EXTRACT(EPOCH FROM clock_timestamp()) * 1000)::bigint AS now_ms) " +
+            "INSERT INTO rate_limit_buckets (bucket_key, tat, updated_at) " +
+            "SELECT :key, now_ms + :increment, now() FROM clock WHERE :increment <= :tolerance " +
+            "ON CONFLICT (bucket_key) DO UPDATE " +
+            "SET tat = GREATEST(rate_limit_buckets.tat, EXCLUDED.tat - :increment) + :increment, updated_at = now() " +
+            "WHERE GREATEST(rate_limit_buckets.tat, EXCLUDED.tat - :increment) + :increment " +
+            "- (EXCLUDED.tat - :increment) <= :tolerance " +
+            "RETURNING tat",
+            nativeQuery = true)
+    List<Long> tryAcquire(@Param("key") String key,
+                          @Param("increment") long increment,
+                          @Param("tolerance") long tolerance);
+
+    /** Milliseconds between the bucket's TAT and the database clock. */
+    @Query(value = "SELECT tat - (EXTRACT(EPOCH FROM clock_timestamp()) * 1000)::bigint " +
+            "FROM rate_limit_buckets WHERE bucket_key = :key",
+            nativeQuery = true)
+    List<Long> findBacklog(@Param("key") String key);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE rate_limit_buckets SET tat = tat - :increment WHERE bucket_key = :key",
+            nativeQuery = true)
+    void refund(@Param("key") String key, @Param("increment") long increment);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RateLimitBucket b WHERE b.updatedAt < :cutoff")
+    int deleteIdleSince(@Param("cutoff") LocalDateTime cutoff);
+}
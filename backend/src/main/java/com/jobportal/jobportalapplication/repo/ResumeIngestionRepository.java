@@ -0,0 +1,60 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.ResumeIngestion;
+import com.jobportal.jobportalapplication.entity.ResumeIngestionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResumeIngestionRepository extends JpaRepository<ResumeIngestion, Long> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResumeIngestion r SET r.status = :status, r.updatedAt = :now WHERE r.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") ResumeIngestionStatus status,
+                     @Param("now") LocalDateTime now);
+
+    /** In-flight rows nobody has touched since {@code cutoff}: their worker died with its instance. */
+    @Query("SELECT r FROM ResumeIngestion r WHERE r.status IN :statuses AND r.updatedAt < :cutoff " +
+           "AND r.recoveries < :maxRecoveries ORDER BY r.updatedAt")
+    List<ResumeIngestion> findStale(@Param("statuses") Collection<ResumeIngestionStatus> statuses,
+                                    @Param("cutoff") LocalDateTime cutoff,
+                                    @Param("maxRecoveries") int maxRecoveries,
+                                    Pageable pageable);
+
+    /**
+     * Puts a stale row back to QUEUED; the staleness re-check makes sure only one
+     * instance restarts it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResumeIngestion r SET r.status = :queued, r.recoveries = r.recoveries + 1, r.updatedAt = :now " +
+           "WHERE r.id = :id AND r.status IN :statuses AND r.updatedAt < :cutoff")
+    int requeueIfStale(@Param("id") Long id,
+                       @Param("statuses") Collection<ResumeIngestionStatus> statuses,
+                       @Param("cutoff") LocalDateTime cutoff,
+                       @Param("queued") ResumeIngestionStatus queued,
+                       @Param("now") LocalDateTime now);
+
+    /** Gives up on stale rows that were already restarted too often. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResumeIngestion r SET r.status = :failed, r.errorMessage = :message, r.updatedAt = :now " +
+           "WHERE r.status IN :statuses AND r.updatedAt < :cutoff AND r.recoveries >= :maxRecoveries")
+    int failStale(@Param("statuses") Collection<ResumeIngestionStatus> statuses,
+                  @Param("cutoff") LocalDateTime cutoff,
+                  @Param("maxRecoveries") int maxRecoveries,
+                  @Param("failed") ResumeIngestionStatus failed,
+                  @Param("message") String message,
+                  @Param("now") LocalDateTime now);
+}
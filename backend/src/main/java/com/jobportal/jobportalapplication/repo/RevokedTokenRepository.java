@@ -0,0 +1,37 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Insert unless already revoked; returns 1 if this call revoked the token.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO revoked_tokens (jti, user_id, expires_at, revoked_at) " +
+            "VALUES (:jti, :userId, :expiresAt, :now) ON CONFLICT (jti) DO NOTHING",
+            nativeQuery = true)
+    int revoke(@Param("jti") String jti,
+               @Param("userId") Long userId,
+               @Param("expiresAt") LocalDateTime expiresAt,
+               @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.jti, t.expiresAt FROM RevokedToken t WHERE t.revokedAt >= :since AND t.expiresAt > :now")
+    List<Object[]> findRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
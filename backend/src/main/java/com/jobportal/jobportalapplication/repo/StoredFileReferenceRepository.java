@@ -0,0 +1,22 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.StoredFileReference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoredFileReferenceRepository extends JpaRepository<StoredFileReference, Long> {
+
+    boolean existsBySha256AndOwnerId(String sha256, Long ownerId);
+
+    /** Drops one of the owner's uploads of the content (the latest); 0 if they have none left. */
+    @Modifying
+    @Query(value = "DELETE FROM stored_file_references WHERE id = (" +
+            "SELECT id FROM stored_file_references WHERE sha256 = :sha256 AND owner_id = :ownerId " +
+            "ORDER BY id DESC LIMIT 1)",
+            nativeQuery = true)
+    int deleteOneBySha256AndOwnerId(@Param("sha256") String sha256, @Param("ownerId") Long ownerId);
+}
@@ -0,0 +1,42 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.StoredFile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * Record one more upload of the content by {@code ownerId}, creating the row on
+     * first upload. Every upload is its own reference, so the same owner using the
+     * same bytes in two places needs two releases before the bytes go. Returns the
+     * extension the content is stored under, which is the first upload's.
+     */
+    @Transactional
+    @Query(value = "WITH ref AS (" +
+            "INSERT INTO stored_file_references (sha256, owner_id, created_at) VALUES (:sha256, :ownerId, :now) " +
+            "RETURNING sha256) " +
+            "INSERT INTO stored_files (sha256, extension, size, ref_count, created_at) " +
+            "SELECT :sha256, :extension, :size, 1, :now FROM ref " +
+            "ON CONFLICT (sha256) DO UPDATE SET ref_count = stored_files.ref_count + 1 " +
+            "RETURNING extension",
+            nativeQuery = true)
+    String acquire(@Param("sha256") String sha256,
+                   @Param("extension") String extension,
+                   @Param("size") long size,
+                   @Param("ownerId") Long ownerId,
+                   @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM StoredFile f WHERE f.sha256 = :sha256")
+    Optional<StoredFile> findForUpdate(@Param("sha256") String sha256);
+}
@@ -3,9 +3,14 @@ package com.jobportal.jobportalapplication.repo;
 import com.jobportal.jobportalapplication.entity.Role;
 import com.jobportal.jobportalapplication.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +20,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Long countByRole(Role role);
     Long countByIsActive(Boolean isActive);
     Long countByCreatedAtAfter(LocalDateTime date);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.tokensValidAfter = :cutoff WHERE u.id = :userId " +
+            "AND (u.tokensValidAfter IS NULL OR u.tokensValidAfter < :cutoff)")
+    void updateTokensValidAfter(@Param("userId") Long userId, @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT u.id, u.tokensValidAfter FROM User u WHERE u.tokensValidAfter >= :since")
+    List<Object[]> findTokenCutoffsSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -4,20 +4,32 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.jobportal.jobportalapplication.logging.RequestLoggingFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
+/**
+ * Authenticates requests from the bearer token's claims. Only tokens issued before
+ * the id/role claims existed fall back to loading the user.
+ */
 @Component
+@Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
@@ -30,60 +42,58 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        System.out.println("=== JWT FILTER START ===");
-        System.out.println("Request URI: " + request.getRequestURI());
-        System.out.println("Method: " + request.getMethod());
+        String jwt = getJwtFromRequest(request);
 
-        try {
-            String jwt = getJwtFromRequest(request);
-            System.out.println("JWT Token extracted: " + (jwt != null ? "YES (length: " + jwt.length() + ")" : "NO"));
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<JwtTokenProvider.VerifiedToken> token = tokenProvider.verify(jwt)
+                    .filter(verified -> !verified.isRefreshToken());
 
-            if (jwt != null) {
-                System.out.println("Validating token...");
-                boolean isValid = tokenProvider.validateToken(jwt);
-                System.out.println("Token valid: " + isValid);
+            if (token.isPresent()) {
+                authenticate(token.get(), request);
+            } else {
+                log.debug("Rejected bearer token for {} {}", request.getMethod(), request.getRequestURI());
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
 
-                if (isValid) {
-                    String email = tokenProvider.getUsernameFromToken(jwt);
-                    System.out.println("Email from token: " + email);
+    private void authenticate(JwtTokenProvider.VerifiedToken token, HttpServletRequest request) {
+        UserDetails userDetails;
+        if (token.userId() != null && token.role() != null) {
+            userDetails = UserDetailsImpl.build(token.userId(), token.email(), token.role());
+        } else {
+            try {
+                userDetails = userDetailsService.loadUserByUsername(token.email());
+            } catch (UsernameNotFoundException e) {
+                log.debug("Token subject no longer exists: {}", token.email());
+                return;
+            }
+            if (!userDetails.isEnabled()) {
+                return;
+            }
+        }
 
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                    System.out.println("UserDetails loaded: " + userDetails.getUsername());
-                    System.out.println("Authorities: " + userDetails.getAuthorities());
+        // The verified claims ride along as credentials (e.g. for the token's issue time)
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails, token, userDetails.getAuthorities());
 
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
+        authentication.setDetails(detailsSource.buildDetails(request));
 
-                    authentication.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    System.out.println("Authentication set in SecurityContext");
-                } else {
-                    System.out.println("Token validation failed");
-                }
-            } else {
-                System.out.println("No JWT token found in request");
-            }
-        } catch (Exception e) {
-            System.err.println("JWT Filter Exception: " + e.getMessage());
-            e.printStackTrace();
+        if (userDetails instanceof UserDetailsImpl principal) {
+            MDC.put(RequestLoggingFilter.MDC_USER_ID, String.valueOf(principal.getId()));
         }
-
-        System.out.println("=== JWT FILTER END ===\n");
-        filterChain.doFilter(request, response);
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        System.out.println("Authorization Header: " + (bearerToken != null ? bearerToken.substring(0, Math.min(30, bearerToken.length())) + "..." : "NULL"));
 
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            String token = bearerToken.substring(7);
-            System.out.println("Extracted token (first 20 chars): " + token.substring(0, Math.min(20, token.length())) + "...");
-            return token;
+            return bearerToken.substring(7);
         }
         return null;
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,44 @@
 package com.jobportal.jobportalapplication.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jobportal.jobportalapplication.entity.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * Tokens carry the user id, role and token type as claims, so a request can be
+ * authenticated from the token alone. The signing key and parser are built once;
+ * verified tokens are cached (bounded, short TTL) so a busy client's token is only
+ * signature-checked once per TTL. Revocation is checked on every call against
+ * {@link TokenRevocationService}, which is an in-memory lookup.
+ */
 @Component
+@Slf4j
 public class JwtTokenProvider {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TYPE = "typ";
+
+    static final String TYPE_ACCESS = "access";
+    static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -21,62 +48,131 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Claims of a token whose signature and expiry have been checked. {@code userId},
+     * {@code role} and {@code tokenId} are null for tokens issued before they were
+     * added as claims.
+     */
+    public record VerifiedToken(Long userId, String email, Role role, String type,
+                                String tokenId, long issuedAtSeconds, long expiresAtMillis) {
+
+        public boolean isRefreshToken() {
+            return TYPE_REFRESH.equals(type);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return generateToken((UserDetailsImpl) authentication.getPrincipal());
+    }
 
-        return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+    public String generateToken(UserDetailsImpl userPrincipal) {
+        return buildToken(userPrincipal, TYPE_ACCESS, jwtExpirationMs);
     }
 
     public String generateRefreshToken(Authentication authentication) {
-        UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+        return generateRefreshToken((UserDetailsImpl) authentication.getPrincipal());
+    }
+
+    public String generateRefreshToken(UserDetailsImpl userPrincipal) {
+        return buildToken(userPrincipal, TYPE_REFRESH, refreshExpirationMs);
+    }
+
+    private String buildToken(UserDetailsImpl userPrincipal, String type, long lifetimeMs) {
+        long now = System.currentTimeMillis();
 
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + refreshExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, roleOf(userPrincipal))
+                .claim(CLAIM_TYPE, type)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + lifetimeMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Verify a token: signature and expiry (cached), then revocation (always).
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            verified = parse(token);
+            if (verified == null) {
+                return Optional.empty();
+            }
+            verifiedTokens.put(token, verified);
+        }
+
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            verifiedTokens.invalidate(token);
+            return Optional.empty();
+        }
+        if (verified.userId() != null
+                && tokenRevocationService.isRevoked(verified.userId(), verified.issuedAtSeconds())) {
+            return Optional.empty();
+        }
+        return Optional.of(verified);
     }
 
-    public boolean validateToken(String token) {
+    private VerifiedToken parse(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-
-            System.out.println("JWT signature valid");
-            return true;
-        } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            Claims claims = parser.parseClaimsJws(token).getBody();
+
+            Number userId = claims.get(CLAIM_USER_ID, Number.class);
+            String role = claims.get(CLAIM_ROLE, String.class);
+            String type = claims.get(CLAIM_TYPE, String.class);
+            Date issuedAt = claims.getIssuedAt();
+
+            return new VerifiedToken(
+                    userId != null ? userId.longValue() : null,
+                    claims.getSubject(),
+                    role != null ? Role.valueOf(role) : null,
+                    type != null ? type : TYPE_ACCESS,
+                    claims.getId(),
+                    issuedAt != null ? issuedAt.getTime() / 1000 : 0,
+                    claims.getExpiration().getTime());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("JWT validation error: " + e.getMessage());
-            e.printStackTrace();
+            log.debug("JWT token is expired: {}", e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static String roleOf(UserDetailsImpl userPrincipal) {
+        for (GrantedAuthority authority : userPrincipal.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name.startsWith("ROLE_")) {
+                return name.substring(5);
+            }
         }
-        return false;
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,273 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Throttles failed logins per client IP and per email.
+ *
+ * Each key has a sliding-window counter packed into one long: the current and
+ * previous window's counts, weighted by how far into the current window we are.
+ * Emails are counted exactly, in a bounded map whose entries expire once their
+ * failures no longer count, so a stuffing run over many emails can never throttle
+ * an account it did not target. IPs are counted in a fixed number of striped slots
+ * updated by CAS (a key hashes to a slot; colliding keys share it, which only errs
+ * towards throttling and only ever hits other stuffing sources).
+ *
+ * After a few free failures every further failure pushes the key's next allowed
+ * attempt out by an exponentially growing delay; at the hard limit the key is
+ * blocked for the rest of the window. Attempts inside a delay are rejected before
+ * any password hashing, so a credential-stuffing burst costs one array lookup per
+ * request instead of a BCrypt round.
+ */
+@Component
+@Slf4j
+public class LoginAttemptLimiter {
+
+    private static final long COUNT_MASK = 0xFFFF;
+    private static final long WINDOW_MASK = 0xFFFF_FFFFL;
+
+    @Value("${app.auth.login-limit.enabled:true}")
+    private boolean enabled;
+
+    /** Slots for IP counters. */
+    @Value("${app.auth.login-limit.stripes:16384}")
+    private int stripes;
+
+    /** Emails with recent failures that are tracked at once; the least active beyond that are dropped. */
+    @Value("${app.auth.login-limit.email.max-keys:100000}")
+    private long emailMaxKeys;
+
+    @Value("${app.auth.login-limit.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${app.auth.login-limit.base-delay-ms:1000}")
+    private long baseDelayMs;
+
+    @Value("${app.auth.login-limit.max-delay-ms:60000}")
+    private long maxDelayMs;
+
+    @Value("${app.auth.login-limit.email.free-failures:3}")
+    private int emailFreeFailures;
+
+    @Value("${app.auth.login-limit.email.max-failures:10}")
+    private int emailMaxFailures;
+
+    @Value("${app.auth.login-limit.ip.free-failures:20}")
+    private int ipFreeFailures;
+
+    @Value("${app.auth.login-limit.ip.max-failures:100}")
+    private int ipMaxFailures;
+
+    private final Clock clock;
+
+    private ExactCounters byEmail;
+    private StripedCounters byIp;
+
+    public LoginAttemptLimiter() {
+        this(Clock.systemUTC());
+    }
+
+    LoginAttemptLimiter(Clock clock) {
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void init() {
+        int size = Integer.highestOneBit(Math.max(64, stripes - 1) << 1);
+        byEmail = new ExactCounters("email", emailMaxKeys, emailFreeFailures, emailMaxFailures);
+        byIp = new StripedCounters("ip", size, ThreadLocalRandom.current().nextInt(), ipFreeFailures, ipMaxFailures);
+    }
+
+    /**
+     * @throws TooManyRequestsException if either key is currently delayed or blocked
+     */
+    public void checkAllowed(String ip, String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        long wait = Math.max(byIp.waitMillis(ip, now), byEmail.waitMillis(normalize(email), now));
+        if (wait > 0) {
+            throw new TooManyRequestsException(
+                    "Too many failed login attempts, please try again later", (wait + 999) / 1000);
+        }
+    }
+
+    public void recordFailure(String ip, String email) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        byIp.recordFailure(ip, now);
+        byEmail.recordFailure(normalize(email), now);
+    }
+
+    /**
+     * A correct password clears the email's failures. The IP's are kept: one valid
+     * account does not make the rest of a stuffing run from that address legitimate.
+     */
+    public void recordSuccess(String email) {
+        if (enabled) {
+            byEmail.reset(normalize(email));
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long windowMillis() {
+        return windowSeconds * 1000;
+    }
+
+    /**
+     * One kind of key. Counts are packed as {@code [window:32][previous:16][current:16]};
+     * alongside them each key has the epoch millis before which attempts are rejected.
+     */
+    private abstract class Counters {
+
+        private final String kind;
+        private final int freeFailures;
+        private final int maxFailures;
+
+        Counters(String kind, int freeFailures, int maxFailures) {
+            this.kind = kind;
+            this.freeFailures = freeFailures;
+            this.maxFailures = maxFailures;
+        }
+
+        abstract long waitMillis(String key, long now);
+
+        abstract void recordFailure(String key, long now);
+
+        /** {@code current} counts with one more failure at {@code now}. */
+        long increment(long current, long now) {
+            long window = now / windowMillis();
+            long previous = 0;
+            long count = 0;
+            long storedWindow = current >>> 32;
+            if (storedWindow == (window & WINDOW_MASK)) {
+                previous = (current >>> 16) & COUNT_MASK;
+                count = current & COUNT_MASK;
+            } else if (storedWindow == ((window - 1) & WINDOW_MASK)) {
+                previous = current & COUNT_MASK;
+            }
+            count = Math.min(COUNT_MASK, count + 1);
+            return ((window & WINDOW_MASK) << 32) | (previous << 16) | count;
+        }
+
+        /** Epoch millis before which the next attempt is rejected, or 0 while failures are free. */
+        long nextAllowed(long packed, long now) {
+            double elapsed = (double) (now % windowMillis()) / windowMillis();
+            double failures = ((packed >>> 16) & COUNT_MASK) * (1 - elapsed) + (packed & COUNT_MASK);
+
+            long delay;
+            if (failures >= maxFailures) {
+                delay = windowMillis() - now % windowMillis();
+                if (failures < maxFailures + 1) {
+                    log.warn("Login attempts blocked for an {} key after {} failures", kind, maxFailures);
+                }
+            } else if (failures > freeFailures) {
+                int steps = (int) Math.min(30, failures - freeFailures - 1);
+                delay = Math.min(maxDelayMs, baseDelayMs << steps);
+            } else {
+                return 0;
+            }
+            return now + delay;
+        }
+    }
+
+    /** Exact per-key counters, for emails. */
+    private final class ExactCounters extends Counters {
+
+        private record Entry(long counts, long nextAllowed) {
+        }
+
+        private final Cache<String, Entry> entries;
+
+        ExactCounters(String kind, long maxKeys, int freeFailures, int maxFailures) {
+            super(kind, freeFailures, maxFailures);
+            // Failures weigh in for the window they happen in and the one after
+            this.entries = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterWrite(Duration.ofMillis(2 * windowMillis()))
+                    .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                    .build();
+        }
+
+        @Override
+        long waitMillis(String key, long now) {
+            Entry entry = entries.getIfPresent(key);
+            return entry == null ? 0 : Math.max(0, entry.nextAllowed() - now);
+        }
+
+        @Override
+        void recordFailure(String key, long now) {
+            entries.asMap().compute(key, (k, entry) -> {
+                long packed = increment(entry == null ? 0 : entry.counts(), now);
+                long until = nextAllowed(packed, now);
+                return new Entry(packed, Math.max(until, entry == null ? 0 : entry.nextAllowed()));
+            });
+        }
+
+        void reset(String key) {
+            entries.invalidate(key);
+        }
+    }
+
+    /** Fixed striped slots, for IPs: no allocation per key however many addresses an attack uses. */
+    private final class StripedCounters extends Counters {
+
+        private final int mask;
+        private final int seed;
+        private final AtomicLongArray counts;
+        private final AtomicLongArray nextAllowed;
+
+        StripedCounters(String kind, int size, int seed, int freeFailures, int maxFailures) {
+            super(kind, freeFailures, maxFailures);
+            this.mask = size - 1;
+            this.seed = seed;
+            this.counts = new AtomicLongArray(size);
+            this.nextAllowed = new AtomicLongArray(size);
+        }
+
+        @Override
+        long waitMillis(String key, long now) {
+            return Math.max(0, nextAllowed.get(slot(key)) - now);
+        }
+
+        @Override
+        void recordFailure(String key, long now) {
+            int slot = slot(key);
+            long packed = counts.updateAndGet(slot, current -> increment(current, now));
+            long until = nextAllowed(packed, now);
+            if (until > 0) {
+                nextAllowed.accumulateAndGet(slot, until, Math::max);
+            }
+        }
+
+        private int slot(String key) {
+            int h = seed;
+            for (int i = 0; i < key.length(); i++) {
+                h = (h ^ key.charAt(i)) * 0x01000193;
+            }
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            return h & mask;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded pool for BCrypt work (login, registration, password changes).
+ *
+ * Callers hand the whole hashing step over and return the future to Spring MVC,
+ * which releases the servlet thread until it completes. A login burst therefore
+ * occupies at most {@code threads} CPUs and {@code queue-capacity} waiting requests;
+ * beyond that requests are turned away with 429 instead of taking Tomcat threads
+ * from the rest of the API.
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    @Value("${app.auth.hashing.threads:2}")
+    private int threads;
+
+    @Value("${app.auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run {@code task} on the hashing pool, carrying the caller's MDC along.
+     *
+     * @throws TooManyRequestsException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    return task.get();
+                } finally {
+                    MDC.clear();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing pool saturated ({} queued)", executor.getQueue().size());
+            throw new TooManyRequestsException("Server is busy, please try again shortly", 1);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.repo.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids (jti), e.g. refresh tokens that have been rotated.
+ *
+ * The revoked_tokens table is the source of truth. In memory each id is added to
+ * a Bloom filter for the time bucket its token expires in, so a check touches one
+ * small bit array and only goes to the database on a (rare) positive. Buckets are
+ * dropped once every token in them has expired, which keeps memory bounded by the
+ * refresh-token lifetime rather than by history. Other nodes' revocations are
+ * picked up by a periodic incremental sync.
+ */
+@Component
+@Slf4j
+public class RevokedTokenStore {
+
+    /** Re-read a little before the last sync to cover clock skew between nodes. */
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.bucket-hours:24}")
+    private long bucketHours;
+
+    @Value("${jwt.revocation.bloom.expected-per-bucket:100000}")
+    private int expectedPerBucket;
+
+    @Value("${jwt.revocation.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /** Bucket index (expiry / bucket length) -> ids of tokens expiring in it. */
+    private final Map<Long, BloomFilter> buckets = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    void load() {
+        sync();
+    }
+
+    /**
+     * Whether the token was revoked. Negative answers come from memory; a positive
+     * is confirmed against the table to rule out a Bloom false positive.
+     */
+    public boolean isRevoked(String jti, long expiresAtMillis) {
+        BloomFilter filter = buckets.get(bucketOf(expiresAtMillis));
+        if (filter == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Revoke a token id. Returns false if it was already revoked (here or on
+     * another node), which makes this usable as a one-time claim.
+     */
+    public boolean revoke(String jti, Long userId, long expiresAtMillis) {
+        int inserted = revokedTokenRepository.revoke(jti, userId, toLocal(expiresAtMillis), LocalDateTime.now());
+        remember(jti, expiresAtMillis);
+        return inserted == 1;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:15000}",
+            initialDelayString = "${jwt.revocation.sync-ms:15000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync != null
+                ? lastSync.minusSeconds(SYNC_OVERLAP_SECONDS)
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+
+        try {
+            List<Object[]> rows = revokedTokenRepository.findRevokedSince(since, now);
+            for (Object[] row : rows) {
+                remember((String) row[0], toEpochMillis((LocalDateTime) row[1]));
+            }
+            lastSync = now;
+        } catch (RuntimeException e) {
+            log.warn("Revoked token sync failed: {}", e.getMessage());
+            return;
+        }
+
+        long current = bucketOf(System.currentTimeMillis());
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 17 * * * *}")
+    public void purgeExpired() {
+        int removed = revokedTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired revoked-token rows", removed);
+        }
+    }
+
+    private void remember(String jti, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        buckets.computeIfAbsent(bucketOf(expiresAtMillis),
+                        bucket -> new BloomFilter(expectedPerBucket, falsePositiveRate))
+                .add(jti);
+    }
+
+    private long bucketOf(long epochMillis) {
+        return epochMillis / (bucketHours * 3_600_000);
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Fixed-size Bloom filter over a lock-free bit array; k probes by double hashing.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashes;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (m + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void add(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                bits.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value, 0x9E3779B97F4A7C15L);
+            long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value, long seed) {
+            long h = seed;
+            for (int i = 0; i < value.length(); i++) {
+                h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
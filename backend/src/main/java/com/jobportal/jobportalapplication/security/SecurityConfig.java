@@ -38,7 +38,8 @@ public class SecurityConfig {
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService);
+        // Credentials are checked against the database, never a cached copy
+        authProvider.setUserDetailsService(userDetailsService::loadUserForAuthentication);
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
@@ -0,0 +1,114 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.event.TokensRevokedEvent;
+import com.jobportal.jobportalapplication.repo.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user token revocation without a database read per request.
+ *
+ * Revoking sets users.tokens_valid_after; tokens issued before that instant are
+ * rejected. The cut-offs are mirrored in memory and re-synced from the table on a
+ * short interval, so revocations on another node take effect within one interval
+ * and the auth path only does a map lookup.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    /** Re-read a little before the last sync to cover clock skew between nodes. */
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /** Longest-lived token type; older cut-offs cannot matter any more. */
+    @Value("${jwt.refresh-expiration}")
+    private long maxTokenLifetimeMs;
+
+    /** userId -> epoch second; tokens with an earlier iat are revoked. */
+    private final Map<Long, Long> validAfter = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    void load() {
+        sync();
+    }
+
+    /**
+     * Reject every token of {@code userId} issued before {@code cutoffEpochSecond}.
+     * Inside a transaction the cut-off takes effect on commit, so a rolled-back
+     * revocation (say, a failed password change) does not lock the user out here.
+     */
+    public void revokeTokensIssuedBefore(Long userId, long cutoffEpochSecond) {
+        LocalDateTime cutoff = LocalDateTime.ofInstant(Instant.ofEpochSecond(cutoffEpochSecond), ZoneId.systemDefault());
+        userRepository.updateTokensValidAfter(userId, cutoff);
+        eventPublisher.publishEvent(new TokensRevokedEvent(userId, cutoffEpochSecond));
+    }
+
+    /**
+     * Reject every token of {@code userId} issued so far.
+     */
+    public void revokeAllTokens(Long userId) {
+        // iat has second precision; round up so a token issued this second is covered too
+        revokeTokensIssuedBefore(userId, Instant.now().getEpochSecond() + 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        validAfter.merge(event.userId(), event.cutoffEpochSecond(), Math::max);
+        log.info("Revoked tokens of user {} issued before {}", event.userId(),
+                Instant.ofEpochSecond(event.cutoffEpochSecond()));
+    }
+
+    public boolean isRevoked(Long userId, long issuedAtSeconds) {
+        Long cutoff = validAfter.get(userId);
+        return cutoff != null && issuedAtSeconds < cutoff;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:15000}",
+            initialDelayString = "${jwt.revocation.sync-ms:15000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.minusNanos(maxTokenLifetimeMs * 1_000_000);
+        LocalDateTime since = lastSync != null
+                ? lastSync.minusSeconds(SYNC_OVERLAP_SECONDS)
+                : horizon;
+
+        try {
+            List<Object[]> rows = userRepository.findTokenCutoffsSince(since);
+            for (Object[] row : rows) {
+                validAfter.merge((Long) row[0], toEpochSecond((LocalDateTime) row[1]), Math::max);
+            }
+            lastSync = now;
+        } catch (RuntimeException e) {
+            log.warn("Token revocation sync failed: {}", e.getMessage());
+            return;
+        }
+
+        long oldest = toEpochSecond(horizon);
+        validAfter.values().removeIf(cutoff -> cutoff < oldest);
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
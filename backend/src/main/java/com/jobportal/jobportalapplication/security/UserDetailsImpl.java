@@ -1,6 +1,7 @@
 package com.jobportal.jobportalapplication.security;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jobportal.jobportalapplication.entity.Role;
 import com.jobportal.jobportalapplication.entity.User;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,7 +10,9 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -23,19 +26,34 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
-    public static UserDetailsImpl build(User user) {
-        List<GrantedAuthority> authorities = List.of(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
+    private boolean active;
+
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
 
+    public static UserDetailsImpl build(User user) {
         return new UserDetailsImpl(
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities
+                AUTHORITIES.get(user.getRole()),
+                !Boolean.FALSE.equals(user.getIsActive())
         );
     }
 
+    /**
+     * Principal built from verified token claims; carries no password. Deactivated
+     * users' tokens are revoked, so a verified token implies an active account.
+     */
+    public static UserDetailsImpl build(Long id, String email, Role role) {
+        return new UserDetailsImpl(id, email, null, AUTHORITIES.get(role), true);
+    }
+
     @Override
     public String getUsername() {
         return email;
@@ -58,6 +76,6 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return active;
     }
 }
\ No newline at end of file
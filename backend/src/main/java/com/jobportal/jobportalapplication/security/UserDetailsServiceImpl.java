@@ -1,28 +1,125 @@
 package com.jobportal.jobportalapplication.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.event.UserAccountChangedEvent;
 import com.jobportal.jobportalapplication.repo.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+
+/**
+ * Loads users for login and for principals that need the full user.
+ *
+ * Results are cached (bounded, TTL) by email and by id. Entries are dropped on
+ * {@link UserAccountChangedEvent}, which is relayed to every node, so a password
+ * change or deactivation is seen cluster-wide right after commit; the TTL only
+ * matters if an event is lost. Password checks never use the cache (see
+ * {@link #loadUserForAuthentication}), so even then an old password or a
+ * deactivated account cannot log in.
+ */
 @Service
+@Slf4j
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${app.user-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<String, UserDetailsImpl> byEmail;
+    private Cache<Long, UserDetailsImpl> byId;
+
+    @PostConstruct
+    void init() {
+        byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
+        UserDetailsImpl cached = byEmail.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        "User not found with email: " + email));
+
+        return cache(UserDetailsImpl.build(user));
+    }
+
+    /**
+     * The user as stored right now, for checking credentials at login. Always reads
+     * the database and refreshes the cached copy with the result.
+     */
+    @Transactional(readOnly = true)
+    public UserDetailsImpl loadUserForAuthentication(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "User not found with email: " + email));
 
-        return UserDetailsImpl.build(user);
+        return cache(UserDetailsImpl.build(user));
+    }
+
+    @Transactional(readOnly = true)
+    public UserDetailsImpl loadUserById(Long id) {
+        UserDetailsImpl cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        "User not found with id: " + id));
+
+        return cache(UserDetailsImpl.build(user));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        evict(event.userId(), event.email());
+        log.debug("Evicted cached user {} ({})", event.userId(), event.reason());
+    }
+
+    public void evict(Long userId, String email) {
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+        if (userId != null) {
+            UserDetailsImpl removed = byId.asMap().remove(userId);
+            if (removed != null) {
+                byEmail.invalidate(removed.getEmail());
+            }
+        }
+    }
+
+    private UserDetailsImpl cache(UserDetailsImpl userDetails) {
+        byEmail.put(userDetails.getEmail(), userDetails);
+        byId.put(userDetails.getId(), userDetails);
+        return userDetails;
     }
-}
\ No newline at end of file
+}
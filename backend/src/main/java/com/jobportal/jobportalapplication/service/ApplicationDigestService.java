@@ -0,0 +1,159 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.entity.ApplicationAlertMode;
+import com.jobportal.jobportalapplication.entity.Employer;
+import com.jobportal.jobportalapplication.exception.ResourceNotFoundException;
+import com.jobportal.jobportalapplication.repo.ApplicationRepository;
+import com.jobportal.jobportalapplication.repo.ApplicationRepository.JobApplicationCount;
+import com.jobportal.jobportalapplication.repo.EmployerRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * New-application digests for employers who chose {@link ApplicationAlertMode#HOURLY}
+ * or {@link ApplicationAlertMode#DAILY} instead of one email per application.
+ *
+ * Nothing is queued per application: each run takes, per employer, the
+ * applications with ids above its watermark ({@code Employer.lastDigestedApplicationId})
+ * and sends one summary built from a single grouped query (applications per job).
+ * The watermark is advanced in the same transaction that records the email in
+ * the outbox, under a row lock, so an application is summarised exactly once even
+ * with several nodes running the schedule.
+ *
+ * Ids are handed out at insert, so a slow transaction can commit an id below one
+ * that is already visible. Each run therefore stops at the highest id applied
+ * more than {@code app.mail.digest.settle-seconds} ago; anything below that has
+ * committed by then, and later ids are picked up by the next run.
+ */
+@Service
+@Slf4j
+public class ApplicationDigestService {
+
+    @Autowired
+    private EmployerRepository employerRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.mail.digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mail.digest.settle-seconds:60}")
+    private long settleSeconds;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.mail.digest.hourly-cron:0 0 * * * *}")
+    public void sendHourlyDigests() {
+        sendDigests(ApplicationAlertMode.HOURLY, Duration.ofHours(1));
+    }
+
+    @Scheduled(cron = "${app.mail.digest.daily-cron:0 0 8 * * *}")
+    public void sendDailyDigests() {
+        sendDigests(ApplicationAlertMode.DAILY, Duration.ofDays(1));
+    }
+
+    private void sendDigests(ApplicationAlertMode mode, Duration period) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime until = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        long upToId = applicationRepository.findLastApplicationIdBefore(until.minusSeconds(settleSeconds));
+        List<Long> employerIds = employerRepository.findIdsByApplicationAlertMode(mode);
+        int sent = 0;
+        for (Long employerId : employerIds) {
+            try {
+                Boolean queued = transactionTemplate.execute(status -> employerRepository.findForUpdate(employerId)
+                        .filter(employer -> employer.getApplicationAlertMode() == mode)
+                        .map(employer -> digest(employer, upToId, until, period))
+                        .orElse(false));
+                if (Boolean.TRUE.equals(queued)) {
+                    sent++;
+                }
+            } catch (RuntimeException e) {
+                // Watermark stays put; the next run covers these applications
+                log.error("Application digest for employer {} failed: {}", employerId, e.getMessage());
+            }
+        }
+        if (sent > 0) {
+            log.info("Queued {} {} application digests", sent, mode.name().toLowerCase());
+        }
+    }
+
+    /**
+     * Change an employer's alert mode. Leaving digest mode sends what has
+     * accumulated since the last digest; entering it starts after the newest
+     * application, so applications already alerted individually are not repeated.
+     */
+    @Transactional
+    public void changeAlertMode(Long employerId, ApplicationAlertMode mode) {
+        Employer employer = employerRepository.findForUpdate(employerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Employer profile not found"));
+        ApplicationAlertMode current = employer.getApplicationAlertMode() != null
+                ? employer.getApplicationAlertMode() : ApplicationAlertMode.IMMEDIATE;
+        if (current == mode) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (current != ApplicationAlertMode.IMMEDIATE) {
+            digest(employer, Long.MAX_VALUE, now, Duration.ZERO);
+        }
+        employer.setApplicationAlertMode(mode);
+        if (mode == ApplicationAlertMode.IMMEDIATE) {
+            employer.setLastDigestAt(null);
+            employer.setLastDigestedApplicationId(null);
+        } else {
+            employer.setLastDigestAt(now);
+            employer.setLastDigestedApplicationId(applicationRepository.findLastApplicationId(employerId));
+        }
+        employerRepository.save(employer);
+    }
+
+    /** @return whether an email was queued; the watermark moves past the summarised applications */
+    private boolean digest(Employer employer, long upToId, LocalDateTime until, Duration period) {
+        Long afterId = employer.getLastDigestedApplicationId();
+        if (afterId == null) {
+            // In digest mode without a watermark: start from here rather than resend history
+            employer.setLastDigestedApplicationId(Math.min(upToId,
+                    applicationRepository.findLastApplicationId(employer.getId())));
+            employer.setLastDigestAt(until);
+            employerRepository.save(employer);
+            return false;
+        }
+        List<JobApplicationCount> jobs = applicationRepository.summarizeNewApplications(employer.getId(), afterId, upToId);
+        if (jobs.isEmpty()) {
+            return false;
+        }
+        LocalDateTime since = employer.getLastDigestAt() != null ? employer.getLastDigestAt() : until.minus(period);
+        emailService.sendApplicationDigest(employer, since, until, jobs);
+        employer.setLastDigestedApplicationId(jobs.stream()
+                .mapToLong(JobApplicationCount::getLastApplicationId)
+                .max().orElse(afterId));
+        employer.setLastDigestAt(until);
+        employerRepository.save(employer);
+        return true;
+    }
+}
@@ -9,6 +9,7 @@ import com.jobportal.jobportalapplication.entity.Job;
 import com.jobportal.jobportalapplication.exception.BadRequestException;
 import com.jobportal.jobportalapplication.exception.ResourceNotFoundException;
 import com.jobportal.jobportalapplication.repo.ApplicationRepository;
+import com.jobportal.jobportalapplication.repo.ApplicationRepository.ApplicationSummary;
 import com.jobportal.jobportalapplication.repo.CandidateRepository;
 import com.jobportal.jobportalapplication.repo.JobRepository;
 import com.jobportal.jobportalapplication.security.UserDetailsImpl;
@@ -45,7 +46,7 @@ public class ApplicationService {
         Candidate candidate = candidateRepository.findByUserId(userDetails.getId())
                 .orElseThrow(() -> new BadRequestException("Candidate profile not found"));
 
-        Job job = jobRepository.findById(request.getJobId())
+        Job job = jobRepository.findDetailById(request.getJobId())
                 .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
 
         // Check if already applied
@@ -83,14 +84,14 @@ public class ApplicationService {
         Candidate candidate = candidateRepository.findByUserId(userDetails.getId())
                 .orElseThrow(() -> new BadRequestException("Candidate profile not found"));
 
-        return applicationRepository.findByCandidateId(candidate.getId(), pageable)
+        return applicationRepository.findSummariesByCandidateId(candidate.getId(), pageable)
                 .map(this::mapToResponse);
     }
 
     public Page<ApplicationResponse> getJobApplications(Long jobId,
                                                         Authentication authentication,
                                                         Pageable pageable) {
-        Job job = jobRepository.findById(jobId)
+        Job job = jobRepository.findDetailById(jobId)
                 .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
 
         // Verify employer owns this job
@@ -99,12 +100,12 @@ public class ApplicationService {
             throw new BadRequestException("You don't have access to these applications");
         }
 
-        return applicationRepository.findByJobId(jobId, pageable)
+        return applicationRepository.findSummariesByJobId(jobId, pageable)
                 .map(this::mapToResponse);
     }
 
     public ApplicationResponse getApplicationById(Long id, Authentication authentication) {
-        Application application = applicationRepository.findById(id)
+        Application application = applicationRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Application not found"));
 
         // Check access permission
@@ -125,7 +126,7 @@ public class ApplicationService {
     public ApplicationResponse updateApplicationStatus(Long id,
                                                        ApplicationStatus status,
                                                        Authentication authentication) {
-        Application application = applicationRepository.findById(id)
+        Application application = applicationRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Application not found"));
 
         // Verify employer owns this job
@@ -164,4 +165,21 @@ public class ApplicationService {
         response.setUpdatedAt(application.getUpdatedAt());
         return response;
     }
-}
\ No newline at end of file
+
+    private ApplicationResponse mapToResponse(ApplicationSummary summary) {
+        ApplicationResponse response = new ApplicationResponse();
+        response.setId(summary.getId());
+        response.setJobId(summary.getJobId());
+        response.setJobTitle(summary.getJobTitle());
+        response.setCompanyId(summary.getCompanyId());
+        response.setCompanyName(summary.getCompanyName());
+        response.setCandidateId(summary.getCandidateId());
+        response.setCandidateName(summary.getCandidateName());
+        response.setCandidateEmail(summary.getCandidateEmail());
+        response.setCoverLetter(summary.getCoverLetter());
+        response.setStatus(summary.getStatus());
+        response.setAppliedDate(summary.getAppliedDate());
+        response.setUpdatedAt(summary.getUpdatedAt());
+        return response;
+    }
+}
@@ -2,6 +2,7 @@ package com.jobportal.jobportalapplication.service;
 
 import com.jobportal.jobportalapplication.dto.AuthResponse;
 import com.jobportal.jobportalapplication.dto.LoginRequest;
+import com.jobportal.jobportalapplication.dto.RefreshTokenRequest;
 import com.jobportal.jobportalapplication.dto.RegisterRequest;
 import com.jobportal.jobportalapplication.dto.UserResponse;
 import com.jobportal.jobportalapplication.entity.Candidate;
@@ -9,22 +10,34 @@ import com.jobportal.jobportalapplication.entity.Employer;
 import com.jobportal.jobportalapplication.entity.Role;
 import com.jobportal.jobportalapplication.entity.User;
 import com.jobportal.jobportalapplication.exception.BadRequestException;
+import com.jobportal.jobportalapplication.exception.UnauthorizedException;
 import com.jobportal.jobportalapplication.repo.CandidateRepository;
 import com.jobportal.jobportalapplication.repo.CompanyRepository;
 import com.jobportal.jobportalapplication.repo.EmployerRepository;
 import com.jobportal.jobportalapplication.repo.UserRepository;
 import com.jobportal.jobportalapplication.security.JwtTokenProvider;
+import com.jobportal.jobportalapplication.security.LoginAttemptLimiter;
+import com.jobportal.jobportalapplication.security.PasswordHashingExecutor;
+import com.jobportal.jobportalapplication.security.RevokedTokenStore;
+import com.jobportal.jobportalapplication.security.TokenRevocationService;
+import com.jobportal.jobportalapplication.security.UserDetailsServiceImpl;
+import lombok.extern.slf4j.Slf4j;
 import com.jobportal.jobportalapplication.security.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@Slf4j
 public class AuthService {
 
     @Autowired
@@ -48,17 +61,51 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
-        // Check if email already exists
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RevokedTokenStore revokedTokenStore;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    /**
+     * Hashes the password once on the hashing pool, then creates the account and
+     * issues tokens for it directly; there is no second BCrypt check via the
+     * authentication manager.
+     */
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
+        // Check if email already exists (cheap, before spending a hash on it)
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email already in use");
         }
 
+        return passwordHashingExecutor.submit(() -> {
+            String encodedPassword = passwordEncoder.encode(request.getPassword());
+            try {
+                return transactionTemplate.execute(status -> createAccount(request, encodedPassword));
+            } catch (DataIntegrityViolationException e) {
+                // Lost a race with a concurrent registration of the same email
+                throw new BadRequestException("Email already in use");
+            }
+        });
+    }
+
+    private AuthResponse createAccount(RegisterRequest request, String encodedPassword) {
         // Create user
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(encodedPassword);
         user.setRole(request.getRole());
         user.setIsActive(true);
 
@@ -86,44 +133,82 @@ public class AuthService {
             employerRepository.save(employer);
         }
 
-        // Authenticate and generate token
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
-        String token = tokenProvider.generateToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(authentication);
+        // Issue tokens for the account just created
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        String token = tokenProvider.generateToken(userDetails);
+        String refreshToken = tokenProvider.generateRefreshToken(userDetails);
 
         UserResponse userResponse = mapToUserResponse(user);
 
         return new AuthResponse(token, refreshToken, userResponse);
     }
 
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+    /**
+     * Throttled per client IP and email; the BCrypt check runs on the hashing pool
+     * so the returned future completes off the servlet thread.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request, String clientIp) {
+        loginAttemptLimiter.checkAllowed(clientIp, request.getEmail());
+
+        return passwordHashingExecutor.submit(() -> {
+            Authentication authentication;
+            try {
+                authentication = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(
+                                request.getEmail(),
+                                request.getPassword()
+                        )
+                );
+            } catch (BadCredentialsException e) {
+                loginAttemptLimiter.recordFailure(clientIp, request.getEmail());
+                throw e;
+            }
+            loginAttemptLimiter.recordSuccess(request.getEmail());
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+            String token = tokenProvider.generateToken(authentication);
+            String refreshToken = tokenProvider.generateRefreshToken(authentication);
 
-        String token = tokenProvider.generateToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(authentication);
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            User user = userRepository.findById(userDetails.getId())
+                    .orElseThrow(() -> new BadRequestException("User not found"));
 
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User user = userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new BadRequestException("User not found"));
+            UserResponse userResponse = mapToUserResponse(user);
 
-        UserResponse userResponse = mapToUserResponse(user);
+            return new AuthResponse(token, refreshToken, userResponse);
+        });
+    }
 
-        return new AuthResponse(token, refreshToken, userResponse);
+    /**
+     * Exchange a refresh token for a new access/refresh pair. Each refresh token
+     * works once: it is revoked as part of the exchange, and presenting it again is
+     * treated as theft, ending every session of the user. No password hashing.
+     */
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        JwtTokenProvider.VerifiedToken token = tokenProvider.verify(request.getRefreshToken())
+                .filter(JwtTokenProvider.VerifiedToken::isRefreshToken)
+                .filter(verified -> verified.userId() != null && verified.tokenId() != null)
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+
+        boolean claimed = !revokedTokenStore.isRevoked(token.tokenId(), token.expiresAtMillis())
+                && revokedTokenStore.revoke(token.tokenId(), token.userId(), token.expiresAtMillis());
+        if (!claimed) {
+            log.warn("Refresh token reuse for user {}; revoking all of their tokens", token.userId());
+            tokenRevocationService.revokeAllTokens(token.userId());
+            throw new UnauthorizedException("Refresh token has already been used");
+        }
+
+        UserDetailsImpl userDetails = userDetailsService.loadUserById(token.userId());
+        if (!userDetails.isEnabled()) {
+            throw new DisabledException("Account is deactivated");
+        }
+
+        String accessToken = tokenProvider.generateToken(userDetails);
+        String refreshToken = tokenProvider.generateRefreshToken(userDetails);
+
+        User user = userRepository.findById(userDetails.getId())
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired refresh token"));
+
+        return new AuthResponse(accessToken, refreshToken, mapToUserResponse(user));
     }
 
     private UserResponse mapToUserResponse(User user) {
@@ -133,11 +218,14 @@ public class AuthService {
         response.setRole(user.getRole());
         response.setIsActive(user.getIsActive());
 
-        if (user.getRole() == Role.CANDIDATE && user.getCandidate() != null) {
-            response.setProfileId(user.getCandidate().getId());
-            response.setFullName(user.getCandidate().getFullName());
-        } else if (user.getRole() == Role.EMPLOYER && user.getEmployer() != null) {
-            response.setProfileId(user.getEmployer().getId());
+        if (user.getRole() == Role.CANDIDATE) {
+            candidateRepository.findByUserId(user.getId()).ifPresent(candidate -> {
+                response.setProfileId(candidate.getId());
+                response.setFullName(candidate.getFullName());
+            });
+        } else if (user.getRole() == Role.EMPLOYER) {
+            employerRepository.findByUserId(user.getId())
+                    .ifPresent(employer -> response.setProfileId(employer.getId()));
         }
 
         return response;
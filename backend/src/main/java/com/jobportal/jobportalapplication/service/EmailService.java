@@ -1,103 +1,226 @@
 package com.jobportal.jobportalapplication.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jobportal.jobportalapplication.entity.Application;
+import com.jobportal.jobportalapplication.entity.ApplicationAlertMode;
+import com.jobportal.jobportalapplication.entity.Employer;
+import com.jobportal.jobportalapplication.entity.OutboxMessage;
+import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.mail.MailDispatcher;
+import com.jobportal.jobportalapplication.mail.MailTemplateEngine;
+import com.jobportal.jobportalapplication.outbox.OutboxHandler;
+import com.jobportal.jobportalapplication.outbox.OutboxService;
+import com.jobportal.jobportalapplication.repo.ApplicationRepository.JobApplicationCount;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Application emails. The send methods render the message from its template
+ * ({@link MailTemplateEngine}, in the recipient's locale) and record it in
+ * the outbox as part of the caller's transaction; the SMTP round-trip happens
+ * later on the outbox dispatcher ({@link #handleAll}), in batches over pooled
+ * connections.
+ */
 @Service
 @Slf4j
-public class EmailService {
+public class EmailService implements OutboxHandler {
+
+    public static final String OUTBOX_KIND = "email";
 
     @Autowired
-    private JavaMailSender mailSender;
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MailTemplateEngine mailTemplateEngine;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Value("${app.mail.from}")
     private String fromEmail;
 
     public void sendApplicationConfirmation(Application application) {
+        EmailMessage email;
         try {
-            String to = application.getCandidate().getUser().getEmail();
-            String subject = "Application Submitted - " + application.getJob().getTitle();
-            String body = String.format(
-                    "Dear %s,\n\n" +
-                            "Your application for %s at %s has been submitted successfully.\n\n" +
-                            "Application ID: %d\n" +
-                            "Applied on: %s\n\n" +
-                            "We will review your application and get back to you soon.\n\n" +
-                            "Best regards,\n" +
-                            "Job Portal Team",
-                    application.getCandidate().getFullName(),
-                    application.getJob().getTitle(),
-                    application.getJob().getCompany().getName(),
-                    application.getId(),
-                    application.getAppliedDate()
-            );
-
-            sendEmail(to, subject, body);
+            User recipient = application.getCandidate().getUser();
+            Locale locale = localeOf(recipient);
+            Map<String, Object> model = new HashMap<>();
+            model.put("candidateName", application.getCandidate().getFullName());
+            model.put("jobTitle", application.getJob().getTitle());
+            model.put("companyName", application.getJob().getCompany().getName());
+            model.put("applicationId", application.getId());
+            model.put("appliedDate", format(application.getAppliedDate(), locale));
+
+            email = compose("application-confirmation", recipient, locale, model);
         } catch (Exception e) {
-            log.error("Failed to send application confirmation email", e);
+            log.error("Failed to queue application confirmation email", e);
+            return;
         }
+        outboxService.enqueue(OUTBOX_KIND, email);
     }
 
     public void sendApplicationStatusUpdate(Application application) {
+        EmailMessage email;
         try {
-            String to = application.getCandidate().getUser().getEmail();
-            String subject = "Application Status Update - " + application.getJob().getTitle();
-            String body = String.format(
-                    "Dear %s,\n\n" +
-                            "Your application status has been updated.\n\n" +
-                            "Job: %s\n" +
-                            "Company: %s\n" +
-                            "New Status: %s\n\n" +
-                            "Best regards,\n" +
-                            "Job Portal Team",
-                    application.getCandidate().getFullName(),
-                    application.getJob().getTitle(),
-                    application.getJob().getCompany().getName(),
-                    application.getStatus()
-            );
-
-            sendEmail(to, subject, body);
+            User recipient = application.getCandidate().getUser();
+            Map<String, Object> model = new HashMap<>();
+            model.put("candidateName", application.getCandidate().getFullName());
+            model.put("jobTitle", application.getJob().getTitle());
+            model.put("companyName", application.getJob().getCompany().getName());
+            model.put("status", application.getStatus());
+
+            email = compose("application-status", recipient, localeOf(recipient), model);
         } catch (Exception e) {
-            log.error("Failed to send status update email", e);
+            log.error("Failed to queue status update email", e);
+            return;
         }
+        outboxService.enqueue(OUTBOX_KIND, email);
     }
 
+    /** Skipped for employers in digest mode; see {@link ApplicationDigestService}. */
     public void sendNewApplicationAlert(Application application) {
+        Employer employer = application.getJob().getEmployer();
+        ApplicationAlertMode mode = employer.getApplicationAlertMode();
+        if (mode != null && mode != ApplicationAlertMode.IMMEDIATE) {
+            return;
+        }
+        EmailMessage email;
         try {
-            String to = application.getJob().getEmployer().getUser().getEmail();
-            String subject = "New Application Received - " + application.getJob().getTitle();
-            String body = String.format(
-                    "Dear Employer,\n\n" +
-                            "You have received a new application for %s.\n\n" +
-                            "Candidate: %s\n" +
-                            "Applied on: %s\n\n" +
-                            "Please log in to review the application.\n\n" +
-                            "Best regards,\n" +
-                            "Job Portal Team",
-                    application.getJob().getTitle(),
-                    application.getCandidate().getFullName(),
-                    application.getAppliedDate()
-            );
-
-            sendEmail(to, subject, body);
+            User recipient = employer.getUser();
+            Locale locale = localeOf(recipient);
+            Map<String, Object> model = new HashMap<>();
+            model.put("jobTitle", application.getJob().getTitle());
+            model.put("candidateName", application.getCandidate().getFullName());
+            model.put("appliedDate", format(application.getAppliedDate(), locale));
+
+            email = compose("new-application", recipient, locale, model);
         } catch (Exception e) {
-            log.error("Failed to send new application alert", e);
+            log.error("Failed to queue new application alert", e);
+            return;
         }
+        outboxService.enqueue(OUTBOX_KIND, email);
     }
 
-    private void sendEmail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
+    /** One summary of the applications an employer received in [since, until). */
+    public void sendApplicationDigest(Employer employer, LocalDateTime since, LocalDateTime until,
+                                      List<JobApplicationCount> jobs) {
+        EmailMessage email;
+        try {
+            User recipient = employer.getUser();
+            Locale locale = localeOf(recipient);
+            List<Map<String, Object>> rows = new ArrayList<>(jobs.size());
+            long total = 0;
+            for (JobApplicationCount job : jobs) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("jobTitle", job.getJobTitle());
+                row.put("applications", job.getApplications());
+                row.put("lastAppliedDate", format(job.getLastAppliedAt(), locale));
+                rows.add(row);
+                total += job.getApplications();
+            }
+            Map<String, Object> model = new HashMap<>();
+            model.put("totalApplications", total);
+            model.put("since", format(since, locale));
+            model.put("until", format(until, locale));
+            model.put("jobs", rows);
 
-        mailSender.send(message);
-        log.info("Email sent to: {}", to);
+            email = compose("application-digest", recipient, locale, model);
+        } catch (Exception e) {
+            log.error("Failed to queue application digest", e);
+            return;
+        }
+        outboxService.enqueue(OUTBOX_KIND, email);
+    }
+
+    private EmailMessage compose(String template, User recipient, Locale locale, Map<String, Object> model) {
+        MailTemplateEngine.RenderedEmail rendered = mailTemplateEngine.render(template, locale, model);
+        return new EmailMessage(recipient.getEmail(), rendered.subject(), rendered.text(), rendered.html());
+    }
+
+    private Locale localeOf(User user) {
+        return user.getLocale() != null
+                ? Locale.forLanguageTag(user.getLocale().replace('_', '-'))
+                : mailTemplateEngine.defaultLocale();
+    }
+
+    private static String format(LocalDateTime time, Locale locale) {
+        return time == null ? null
+                : DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM).withLocale(locale).format(time);
+    }
+
+    // ==================== DELIVERY ====================
+
+    /** A composed email, as stored in the outbox; {@code html} is optional. */
+    public record EmailMessage(String to, String subject, String body, String html) {
+    }
+
+    @Override
+    public String kind() {
+        return OUTBOX_KIND;
+    }
+
+    /** Sends an outbox email; failures propagate so the dispatcher retries. */
+    @Override
+    public void handle(String payload) throws Exception {
+        MimeMessage message = toMimeMessage(objectMapper.readValue(payload, EmailMessage.class));
+        Exception failure = mailDispatcher.sendAll(Map.of(0L, message)).get(0L);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Sends a batch of outbox emails over one pooled SMTP connection. */
+    @Override
+    public Map<Long, Exception> handleAll(List<OutboxMessage> messages) {
+        Map<Long, Exception> failures = new LinkedHashMap<>();
+        Map<Long, MimeMessage> batch = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            try {
+                batch.put(message.getId(), toMimeMessage(objectMapper.readValue(message.getPayload(), EmailMessage.class)));
+            } catch (Exception e) {
+                failures.put(message.getId(), e);
+            }
+        }
+        failures.putAll(mailDispatcher.sendAll(batch));
+        log.info("Sent {} of {} emails", messages.size() - failures.size(), messages.size());
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(EmailMessage email) throws MessagingException {
+        MimeMessage message = mailDispatcher.createMimeMessage();
+        boolean multipart = email.html() != null;
+        // MIXED_RELATED (Spring's default) leaves room for attachments and inline images;
+        // setText(text, html) nests the two bodies in a multipart/alternative inside it
+        int mode = multipart ? MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED : MimeMessageHelper.MULTIPART_MODE_NO;
+        MimeMessageHelper helper = new MimeMessageHelper(message, mode, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        if (multipart) {
+            // Clients show the HTML part, or the text part if they can't
+            helper.setText(email.body(), email.html());
+        } else {
+            helper.setText(email.body());
+        }
+        return message;
     }
-}
\ No newline at end of file
+}
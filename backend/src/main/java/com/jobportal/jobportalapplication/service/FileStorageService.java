@@ -0,0 +1,320 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.entity.StoredFile;
+import com.jobportal.jobportalapplication.repo.StoredFileReferenceRepository;
+import com.jobportal.jobportalapplication.repo.StoredFileRepository;
+import com.jobportal.jobportalapplication.storage.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed, deduplicated upload storage.
+ *
+ * Uploads are hashed (SHA-256) while being streamed to a temp file and then
+ * stored once in the {@link BlobStore} under {@code ab/cd/<hash>.<ext>}; identical
+ * bytes share a single blob whose stored_files.ref_count counts the users
+ * uploads referencing it (one stored_file_references row each). Public URLs keep the {@code /download/<type>/<name>} shape,
+ * with {@code <name> = <hash>.<ext>}. Files written before this scheme
+ * (UUID names under {@code <upload-dir>/<type>/}) are still resolved locally.
+ */
+@Service
+@Slf4j
+public class FileStorageService {
+
+    /** {@code <hash>.<ext>} for originals, {@code <hash>-<variant>.<ext>} for derived files. */
+    private static final Pattern CONTENT_NAME = Pattern.compile("([0-9a-f]{64})(-[a-z]{1,10})?\\.([a-z0-9]{1,10})");
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private StoredFileReferenceRepository storedFileReferenceRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.storage.redirect-downloads:true}")
+    private boolean redirectDownloads;
+
+    @Value("${app.storage.download-url-ttl-minutes:60}")
+    private long downloadUrlTtlMinutes;
+
+    public record StoredUpload(String sha256, String extension, long size, String filename, String fileUrl) {
+    }
+
+    /**
+     * A stored file on local disk for the duration of a read; remote blobs are
+     * downloaded to a temp file that is removed on close.
+     */
+    public record LocalCopy(Path path, boolean temporary) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            if (temporary) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    public StoredUpload store(MultipartFile file, String type, String extension, Long ownerId) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, type, extension, ownerId);
+        }
+    }
+
+    /**
+     * Store the content and record {@code ownerId}'s reference to it; every call adds
+     * a reference, to be dropped by one {@link #release}. Content that is already
+     * stored keeps its first extension, so the returned filename may not end in
+     * {@code extension}.
+     */
+    public StoredUpload store(InputStream in, String type, String extension, Long ownerId) throws IOException {
+        if (extension == null || !extension.matches("[a-z0-9]{1,10}")) {
+            extension = "bin";
+        }
+
+        Path temp = createTempFile("upload-", ".part");
+
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                size = Files.copy(digestIn, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            String requestedExtension = extension;
+
+            // The reference and the blob commit together: the upsert locks the row, so a
+            // concurrent release() of the last reference waits until the blob is in place,
+            // and a failed put rolls the reference back instead of leaking it.
+            String storedExtension;
+            try {
+                storedExtension = transactionTemplate.execute(status -> {
+                    // Same bytes under another extension share the first one's blob and name
+                    String ext = storedFileRepository.acquire(hash, requestedExtension, size, ownerId,
+                            LocalDateTime.now());
+                    try {
+                        String key = blobKey(hash + "." + ext);
+                        if (!blobStore.exists(key)) {
+                            blobStore.put(key, temp, contentTypeFor(ext));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return ext;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            String filename = hash + "." + storedExtension;
+            return new StoredUpload(hash, storedExtension, size, filename,
+                    "/api/files/download/" + type + "/" + filename);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Resolve a public {@code <type>/<filename>} pair to a file on this server's disk.
+     * Empty if the name is invalid, escapes the upload directory, or the content
+     * lives in a remote blob store.
+     */
+    public Optional<Path> resolve(String type, String filename) {
+        Matcher matcher = CONTENT_NAME.matcher(filename);
+        if (matcher.matches()) {
+            return blobStore.localPath(blobKey(filename));
+        }
+        return legacyPath(type, filename);
+    }
+
+    /**
+     * Direct (presigned) URL for a stored upload when the blob store can serve it
+     * without going through the app. Empty for local and legacy files.
+     */
+    public Optional<URI> downloadUrl(String filename) {
+        Matcher matcher = CONTENT_NAME.matcher(filename);
+        if (!redirectDownloads || !matcher.matches()) {
+            return Optional.empty();
+        }
+        return blobStore.downloadUrl(blobKey(filename), downloadUrlTtl());
+    }
+
+    public Duration downloadUrlTtl() {
+        return Duration.ofMinutes(downloadUrlTtlMinutes);
+    }
+
+    /**
+     * Open a stored upload for streaming, wherever it lives.
+     *
+     * @throws NoSuchFileException if there is no such file
+     */
+    public InputStream open(String type, String filename) throws IOException {
+        Matcher matcher = CONTENT_NAME.matcher(filename);
+        if (matcher.matches()) {
+            return blobStore.get(blobKey(filename));
+        }
+        Path legacy = legacyPath(type, filename).orElseThrow(() -> new NoSuchFileException(filename));
+        return Files.newInputStream(legacy);
+    }
+
+    public boolean exists(String type, String filename) throws IOException {
+        if (CONTENT_NAME.matcher(filename).matches()) {
+            return blobStore.exists(blobKey(filename));
+        }
+        Optional<Path> legacy = legacyPath(type, filename);
+        return legacy.isPresent() && Files.isRegularFile(legacy.get());
+    }
+
+    /**
+     * Store a file derived from an upload (e.g. a thumbnail) next to its original.
+     * Derived files are not reference counted; they go when the original does.
+     */
+    public void storeDerivative(String filename, Path source) throws IOException {
+        Matcher matcher = CONTENT_NAME.matcher(filename);
+        if (!matcher.matches() || matcher.group(2) == null) {
+            throw new IllegalArgumentException("Not a derived file name: " + filename);
+        }
+        blobStore.put(blobKey(filename), source, contentTypeFor(matcher.group(3)));
+    }
+
+    /**
+     * Make a stored upload available as a local file, e.g. for parsers that need
+     * random access. Close the result when done.
+     */
+    public LocalCopy fetch(String type, String filename) throws IOException {
+        Optional<Path> local = resolve(type, filename);
+        if (local.isPresent()) {
+            return new LocalCopy(local.get(), false);
+        }
+
+        Path temp = createTempFile("fetch-", "-" + filename);
+        try (InputStream in = open(type, filename)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new LocalCopy(temp, true);
+    }
+
+    /** Whether {@code ownerId} holds a reference to the upload stored under {@code filename}. */
+    public boolean isOwner(String filename, Long ownerId) {
+        Matcher matcher = CONTENT_NAME.matcher(filename);
+        return matcher.matches() && matcher.group(2) == null
+                && storedFileReferenceRepository.existsBySha256AndOwnerId(matcher.group(1), ownerId);
+    }
+
+    /** Whether {@code filename} names a file stored before uploads were content addressed. */
+    public boolean isLegacy(String filename) {
+        return !CONTENT_NAME.matcher(filename).matches();
+    }
+
+    /**
+     * Drop one of {@code ownerId}'s references to a stored upload, deleting the bytes
+     * when none remain. Returns false if the owner holds no reference left, so extra
+     * releases are harmless.
+     */
+    @Transactional
+    public boolean release(String filename, Long ownerId) throws IOException {
+        Matcher matcher = CONTENT_NAME.matcher(filename);
+        if (!matcher.matches() || matcher.group(2) != null) {
+            // Derived files are removed together with their original
+            return false;
+        }
+
+        String hash = matcher.group(1);
+        if (storedFileReferenceRepository.deleteOneBySha256AndOwnerId(hash, ownerId) == 0) {
+            return false;
+        }
+        StoredFile stored = storedFileRepository.findForUpdate(hash).orElse(null);
+        if (stored == null) {
+            return true;
+        }
+
+        if (stored.getRefCount() > 1) {
+            stored.setRefCount(stored.getRefCount() - 1);
+            storedFileRepository.save(stored);
+            return true;
+        }
+
+        // Deleted while holding the row lock so a concurrent store() of the same
+        // content waits and re-places the blob afterwards.
+        blobStore.delete(blobKey(hash + "." + stored.getExtension()));
+        if (!matcher.group(3).equals(stored.getExtension())) {
+            // Put under the requested extension before stored extensions were reused
+            blobStore.delete(blobKey(filename));
+        }
+        for (String derivative : ImageDerivativeService.derivativeFilenames(hash, stored.getExtension())) {
+            blobStore.delete(blobKey(derivative));
+        }
+        storedFileRepository.delete(stored);
+        log.debug("Removed unreferenced upload {}", hash);
+        return true;
+    }
+
+    /** Delete a file stored before uploads were content addressed. Such files have no recorded owner. */
+    public boolean deleteLegacy(String type, String filename) throws IOException {
+        Optional<Path> legacy = isLegacy(filename) ? legacyPath(type, filename) : Optional.empty();
+        return legacy.isPresent() && Files.deleteIfExists(legacy.get());
+    }
+
+    private Optional<Path> legacyPath(String type, String filename) {
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path legacy = root.resolve(type).resolve(filename).normalize();
+        return legacy.startsWith(root) && !legacy.startsWith(root.resolve("store"))
+                ? Optional.of(legacy) : Optional.empty();
+    }
+
+    private Path createTempFile(String prefix, String suffix) throws IOException {
+        Path tempDir = Paths.get(uploadDir, "store", "tmp").toAbsolutePath();
+        Files.createDirectories(tempDir);
+        return Files.createTempFile(tempDir, prefix, suffix);
+    }
+
+    /** {@code ab/cd/<filename>} for a content name starting with hash {@code abcd...}. */
+    private static String blobKey(String filename) {
+        return filename.substring(0, 2) + "/" + filename.substring(2, 4) + "/" + filename;
+    }
+
+    private static String contentTypeFor(String extension) {
+        return MediaTypeFactory.getMediaType("file." + extension)
+                .map(Object::toString)
+                .orElse("application/octet-stream");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -32,7 +32,9 @@ public class GroqAIService {
     @Value("${app.ai.groq.model:llama-3.3-70b-versatile}")
     private String model;
 
-    private final String baseUrl = "https://api.groq.com/openai/v1";
+    @Value("${app.ai.groq.base-url:https://api.groq.com/openai/v1}")
+    private String baseUrl;
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -306,8 +308,7 @@ public class GroqAIService {
 
     @Transactional
     public void analyzeAllApplicantsForJob(Long jobId) {
-        List<Application> applications = applicationRepository.findByJobId(jobId,
-                org.springframework.data.domain.Pageable.unpaged()).getContent();
+        List<Application> applications = applicationRepository.findRankingByJobId(jobId);
 
         for (Application application : applications) {
             try {
@@ -322,8 +323,7 @@ public class GroqAIService {
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found"));
 
-        List<Application> applications = applicationRepository.findByJobId(jobId,
-                org.springframework.data.domain.Pageable.unpaged()).getContent();
+        List<Application> applications = applicationRepository.findRankingByJobId(jobId);
 
         List<RankedCandidateResponse> rankedCandidates = new ArrayList<>();
 
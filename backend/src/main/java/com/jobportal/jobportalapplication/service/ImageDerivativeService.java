@@ -0,0 +1,353 @@
+package com.jobportal.jobportalapplication.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fixed-size derivatives of uploaded images (company logos, profile photos).
+ *
+ * Each image is decoded once, subsampled on read when it is much larger than the
+ * biggest derivative, and scaled down step by step into FULL, CARD and THUMB.
+ * Derivatives are generated when the image is uploaded, stored next to the
+ * original as {@code <hash>-<size>.jpg} ({@code .png} when the image has
+ * transparency) and served with {@code ?size=thumb|card|full}. A request for an
+ * image uploaded before this existed never waits for decoding: the original is
+ * served while a background task generates the derivatives.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeService {
+
+    public enum Size {
+        FULL(1200), CARD(400), THUMB(128);
+
+        private final int maxDimension;
+
+        Size(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public static Optional<Size> parse(String value) {
+            for (Size size : values()) {
+                if (size.name().equalsIgnoreCase(value)) {
+                    return Optional.of(size);
+                }
+            }
+            return Optional.empty();
+        }
+
+        String suffix() {
+            return "-" + name().toLowerCase();
+        }
+    }
+
+    private static final Pattern ORIGINAL = Pattern.compile("([0-9a-f]{64})\\.(jpg|jpeg|png|gif|webp)");
+    private static final List<String> FORMATS = List.of("jpg", "png");
+    private static final int MAX_KNOWN = 10_000;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    /** Decompression-bomb guard: images above this many pixels are not decoded. */
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${app.images.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.images.backfill-queue-capacity:100}")
+    private int backfillQueueCapacity;
+
+    /** Derivative names known to exist, so repeat requests skip the blob store lookup. */
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+
+    /** Hashes of originals queued for a background backfill. */
+    private final Set<String> backfilling = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor backfill;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        backfill = new ThreadPoolExecutor(
+                1, 1,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(backfillQueueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "image-backfill-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        backfill.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        backfill.shutdownNow();
+    }
+
+    /**
+     * Every name a derivative of this original may be stored under (for cleanup).
+     */
+    public static List<String> derivativeFilenames(String hash, String extension) {
+        if (!ORIGINAL.matcher(hash + "." + extension).matches()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (Size size : Size.values()) {
+            for (String format : FORMATS) {
+                names.add(hash + size.suffix() + "." + format);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Filename of the requested derivative if it has been generated. Empty when
+     * {@code filename} is not a stored image or its derivatives do not exist yet,
+     * in which case the original should be served; missing derivatives are then
+     * generated in the background.
+     */
+    public Optional<String> derivativeFor(String type, String filename, Size size) {
+        Matcher matcher = ORIGINAL.matcher(filename);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String hash = matcher.group(1);
+
+        Optional<String> existing = find(hash, size);
+        if (existing.isEmpty() && backfilling.add(hash)) {
+            try {
+                backfill.execute(() -> {
+                    try {
+                        ensureDerivatives(type, filename);
+                    } finally {
+                        backfilling.remove(hash);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Queue full: a later request will try again
+                backfilling.remove(hash);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Generate derivatives for a fresh upload unless identical content already has
+     * them. Failures are logged; the original upload stays usable.
+     */
+    public void ensureDerivatives(String type, String filename) {
+        Matcher matcher = ORIGINAL.matcher(filename);
+        if (!matcher.matches()) {
+            return;
+        }
+        String thumb = matcher.group(1) + Size.THUMB.suffix();
+        try {
+            for (String format : FORMATS) {
+                if (fileStorageService.exists(type, thumb + "." + format)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not look up derivatives for {}: {}", filename, e.getMessage());
+        }
+        generate(type, filename);
+    }
+
+    /**
+     * Decode an uploaded image once and store all derivatives. Returns the stored
+     * name per size, or empty if the file is not a decodable image.
+     */
+    public Optional<Map<Size, String>> generate(String type, String filename) {
+        Matcher matcher = ORIGINAL.matcher(filename);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String hash = matcher.group(1);
+
+        BufferedImage image;
+        try (FileStorageService.LocalCopy copy = fileStorageService.fetch(type, filename)) {
+            image = decode(copy.path(), Size.FULL.maxDimension);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not decode image {}: {}", filename, e.getMessage());
+            return Optional.empty();
+        }
+        if (image == null) {
+            return Optional.empty();
+        }
+
+        boolean alpha = image.getColorModel().hasAlpha();
+        String format = alpha ? "png" : "jpg";
+        Map<Size, String> names = new EnumMap<>(Size.class);
+
+        try {
+            // Sizes are ordered largest first, so each one is scaled from the previous
+            BufferedImage current = image;
+            for (Size size : Size.values()) {
+                current = scale(current, size.maxDimension, alpha);
+                String name = hash + size.suffix() + "." + format;
+                Path temp = Files.createTempFile("derivative-", "." + format);
+                try {
+                    write(current, format, temp);
+                    fileStorageService.storeDerivative(name, temp);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                remember(name);
+                names.put(size, name);
+            }
+        } catch (IOException e) {
+            log.warn("Could not store derivatives for {}: {}", filename, e.getMessage());
+            return Optional.empty();
+        }
+        return Optional.of(names);
+    }
+
+    private Optional<String> find(String hash, Size size) {
+        for (String format : FORMATS) {
+            String name = hash + size.suffix() + "." + format;
+            if (known.contains(name)) {
+                return Optional.of(name);
+            }
+        }
+        for (String format : FORMATS) {
+            String name = hash + size.suffix() + "." + format;
+            try {
+                if (fileStorageService.exists("image", name)) {
+                    remember(name);
+                    return Optional.of(name);
+                }
+            } catch (IOException e) {
+                log.warn("Could not look up derivative {}: {}", name, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void remember(String name) {
+        if (known.size() >= MAX_KNOWN) {
+            known.clear();
+        }
+        known.add(name);
+    }
+
+    // ==================== IMAGE IO ====================
+
+    /**
+     * Decode the first frame, reading only every n-th pixel when the image is more
+     * than twice the size we need; null if no reader understands the file.
+     */
+    private BufferedImage decode(Path file, int maxDimension) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image is too large (" + width + "x" + height + ")");
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (maxDimension * 2));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Fit within {@code maxDimension}, halving at most once per pass so bilinear
+     * filtering keeps small text in logos readable. Never upscales.
+     */
+    private static BufferedImage scale(BufferedImage source, int maxDimension, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, maxDimension / (double) Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(currentWidth / 2, targetWidth);
+            currentHeight = Math.max(currentHeight / 2, targetHeight);
+
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                if (!alpha) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return current;
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        if ("png".equals(format)) {
+            if (!ImageIO.write(image, "png", target.toFile())) {
+                throw new IOException("No PNG writer available");
+            }
+            return;
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -22,6 +22,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Service
 public class JobService {
 
@@ -38,7 +42,7 @@ public class JobService {
     private ApplicationRepository applicationRepository;
 
     public Page<JobResponse> getAllJobs(Pageable pageable) {
-        return jobRepository.findAll(pageable).map(this::mapToResponse);
+        return mapPage(jobRepository.findAll(pageable));
     }
 
     public Page<JobResponse> searchJobs(String keyword, String location,
@@ -85,11 +89,11 @@ public class JobService {
                 cb.equal(root.get("status"), JobStatus.OPEN)
         );
 
-        return jobRepository.findAll(spec, pageable).map(this::mapToResponse);
+        return mapPage(jobRepository.findAll(spec, pageable));
     }
 
     public JobResponse getJobById(Long id) {
-        Job job = jobRepository.findById(id)
+        Job job = jobRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
         return mapToResponse(job);
     }
@@ -123,7 +127,7 @@ public class JobService {
 
     @Transactional
     public JobResponse updateJob(Long id, JobRequest request, Authentication authentication) {
-        Job job = jobRepository.findById(id)
+        Job job = jobRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
 
         // Check if user is the job owner
@@ -153,7 +157,7 @@ public class JobService {
 
     @Transactional
     public void deleteJob(Long id, Authentication authentication) {
-        Job job = jobRepository.findById(id)
+        Job job = jobRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Job not found"));
 
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
@@ -170,11 +174,26 @@ public class JobService {
         Employer employer = employerRepository.findByUserId(userDetails.getId())
                 .orElseThrow(() -> new BadRequestException("Employer profile not found"));
 
-        return jobRepository.findByEmployerId(employer.getId(), pageable)
-                .map(this::mapToResponse);
+        return mapPage(jobRepository.findByEmployerId(employer.getId(), pageable));
+    }
+
+    // Listings count applications for the whole page in one grouped query
+    private Page<JobResponse> mapPage(Page<Job> jobs) {
+        if (jobs.isEmpty()) {
+            return jobs.map(job -> mapToResponse(job, 0));
+        }
+        List<Long> jobIds = jobs.map(Job::getId).getContent();
+        Map<Long, Long> counts = applicationRepository.countByJobIds(jobIds).stream()
+                .collect(Collectors.toMap(ApplicationRepository.JobCount::getJobId,
+                        ApplicationRepository.JobCount::getApplications));
+        return jobs.map(job -> mapToResponse(job, counts.getOrDefault(job.getId(), 0L).intValue()));
     }
 
     private JobResponse mapToResponse(Job job) {
+        return mapToResponse(job, applicationRepository.countByJobId(job.getId()).intValue());
+    }
+
+    private JobResponse mapToResponse(Job job, int applicationsCount) {
         JobResponse response = new JobResponse();
         response.setId(job.getId());
         response.setTitle(job.getTitle());
@@ -194,9 +213,7 @@ public class JobService {
             response.setCompany(CompanyService.mapToResponse(job.getCompany()));
         }
 
-        response.setApplicationsCount(
-                applicationRepository.countByJobId(job.getId()).intValue()
-        );
+        response.setApplicationsCount(applicationsCount);
 
         return response;
     }
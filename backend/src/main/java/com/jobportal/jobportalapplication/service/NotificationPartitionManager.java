@@ -0,0 +1,210 @@
+package com.jobportal.jobportalapplication.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the notifications table range-partitioned by month of created_at.
+ *
+ * The table is converted once by the reviewed migration in
+ * {@code db/partition-notifications.sql}; until then this does nothing. Partitions
+ * are created a few months ahead, moving any rows for that month out of the
+ * DEFAULT partition first. A daily job drops partitions past the read retention
+ * whose rows have all been read, and, only if {@code retention.max-months} is set,
+ * any partition past it. Dropping a partition is a metadata operation, so old
+ * notifications go away without large DELETEs, and per-user listings only ever
+ * scan the retained months.
+ *
+ * Partition changes run under a cluster-wide advisory lock, so several nodes can
+ * start at once.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class NotificationPartitionManager {
+
+    private static final String TABLE = "notifications";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /** Arbitrary key for pg_advisory_xact_lock; shared by every node. */
+    private static final long LOCK_KEY = 0x4E4F544946L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.notifications.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.partitioning.months-ahead:2}")
+    private int monthsAhead;
+
+    /** All-read partitions older than this many months are dropped; 0 keeps them. */
+    @Value("${app.notifications.retention.read-months:3}")
+    private int readRetentionMonths;
+
+    /** Partitions older than this many months are dropped even with unread rows; 0 (default) never does. */
+    @Value("${app.notifications.retention.max-months:0}")
+    private int maxRetentionMonths;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!enabled) {
+            return;
+        }
+        try {
+            locked(() -> {
+                if (isPartitioned()) {
+                    createPartitions(YearMonth.now());
+                } else {
+                    log.warn("{} is not partitioned; run db/partition-notifications.sql to convert it", TABLE);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Notifications still work on the current partitions; retried by the daily job
+            log.error("Could not set up notification partitions: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        locked(() -> {
+            if (!isPartitioned()) {
+                return;
+            }
+            createPartitions(YearMonth.now());
+            dropExpiredPartitions(YearMonth.now());
+        });
+    }
+
+    // ==================== PARTITIONS ====================
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                        + "WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace)",
+                Boolean.class, TABLE));
+    }
+
+    /** The current month's partition and {@code months-ahead} after it. */
+    private void createPartitions(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    /**
+     * Create a month's partition. Postgres refuses to create a partition whose range
+     * has rows in the DEFAULT partition, so such rows are moved into a new table
+     * that is then attached as the partition.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (tableExists(partition)) {
+            return;
+        }
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        String range = " FOR VALUES FROM (" + from + ") TO (" + to + ")";
+
+        if (!tableExists(DEFAULT_PARTITION) || !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+                        + " WHERE created_at >= " + from + " AND created_at < " + to + ")", Boolean.class))) {
+            jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF " + TABLE + range);
+            return;
+        }
+
+        jdbcTemplate.execute("CREATE TABLE " + partition
+                + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE created_at >= " + from + " AND created_at < " + to + " RETURNING *) "
+                + "INSERT INTO " + partition + " SELECT * FROM moved");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition + range);
+        log.info("Created notification partition {} with {} rows from {}", partition, moved, DEFAULT_PARTITION);
+    }
+
+    private void dropExpiredPartitions(YearMonth current) {
+        if (readRetentionMonths <= 0 && maxRetentionMonths <= 0) {
+            return;
+        }
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace",
+                String.class, TABLE);
+
+        for (String partition : partitions) {
+            YearMonth month = monthOf(partition);
+            if (month == null) {
+                continue;
+            }
+            boolean drop;
+            if (maxRetentionMonths > 0 && month.isBefore(current.minusMonths(maxRetentionMonths))) {
+                drop = true;
+            } else if (readRetentionMonths > 0 && month.isBefore(current.minusMonths(readRetentionMonths))) {
+                drop = !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE is_read = false)", Boolean.class));
+            } else {
+                drop = false;
+            }
+            if (!drop) {
+                continue;
+            }
+            // Dropped unread rows (max-months only) are picked up by the unread counter's periodic reconcile
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Dropped notification partition {}", partition);
+        }
+    }
+
+    private boolean tableExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE relname = ? "
+                        + "AND relnamespace = current_schema()::regnamespace)",
+                Boolean.class, name));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void locked(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            work.run();
+        });
+    }
+}
@@ -2,8 +2,11 @@ package com.jobportal.jobportalapplication.service;
 
 import com.jobportal.jobportalapplication.entity.Application;
 import com.jobportal.jobportalapplication.entity.Notification;
+import com.jobportal.jobportalapplication.event.UnreadCountChangedEvent;
+import com.jobportal.jobportalapplication.exception.ResourceNotFoundException;
 import com.jobportal.jobportalapplication.repo.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,6 +20,15 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Autowired
+    private NotificationWriteBuffer notificationWriteBuffer;
+
     @Transactional
     public void notifyNewApplication(Long employerId, Application application) {
         Notification notification = new Notification();
@@ -29,8 +41,14 @@ public class NotificationService {
         ));
         notification.setReferenceId(application.getId());
         notification.setIsRead(false);
+        // A burst of applications to one job shows as a single unread notification
+        notification.setGroupKey("NEW_APPLICATION:job:" + application.getJob().getId());
+        notification.setGroupMessage(String.format(
+                "{count} new applications received for %s",
+                application.getJob().getTitle()
+        ));
 
-        notificationRepository.save(notification);
+        save(notification);
     }
 
     @Transactional
@@ -46,7 +64,15 @@ public class NotificationService {
         notification.setReferenceId(application.getId());
         notification.setIsRead(false);
 
-        notificationRepository.save(notification);
+        save(notification);
+    }
+
+    /**
+     * Hand off to the write-behind buffer: stored in a batch once the caller's
+     * transaction commits, then pushed to the user's open streams (on any node).
+     */
+    private void save(Notification notification) {
+        notificationWriteBuffer.add(notification);
     }
 
     public Page<Notification> getUserNotifications(Long userId, Pageable pageable) {
@@ -58,14 +84,57 @@ public class NotificationService {
     }
 
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadNotificationCounter.get(userId);
+    }
+
+    @Transactional
+    public void markAsRead(Long notificationId, Long userId) {
+        int updated = notificationRepository.markAsRead(userId, List.of(notificationId));
+        if (updated == 0 && !notificationRepository.existsByIdAndUserId(notificationId, userId)) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+        publishUnreadDelta(userId, -updated);
     }
 
+    /**
+     * Mark several of the user's notifications read in one statement; ids that are
+     * not the user's or already read are skipped. Returns the number changed.
+     */
     @Transactional
-    public void markAsRead(Long notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found"));
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+    public int markAsRead(List<Long> notificationIds, Long userId) {
+        int updated = notificationRepository.markAsRead(userId, notificationIds);
+        publishUnreadDelta(userId, -updated);
+        return updated;
+    }
+
+    @Transactional
+    public void markAllAsRead(Long userId) {
+        if (notificationRepository.markAllAsRead(userId) > 0) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.cleared(userId));
+        }
+    }
+
+    @Transactional
+    public void deleteNotification(Long notificationId, Long userId) {
+        List<Boolean> deleted = notificationRepository.deleteReturningReadFlag(notificationId, userId);
+        if (deleted.isEmpty()) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+        if (!Boolean.TRUE.equals(deleted.get(0))) {
+            publishUnreadDelta(userId, -1);
+        }
+    }
+
+    @Transactional
+    public void clearAllNotifications(Long userId) {
+        if (notificationRepository.deleteAllByUserId(userId) > 0) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.cleared(userId));
+        }
+    }
+
+    private void publishUnreadDelta(Long userId, long delta) {
+        if (delta != 0) {
+            eventPublisher.publishEvent(UnreadCountChangedEvent.by(userId, delta));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.entity.Notification;
+import com.jobportal.jobportalapplication.event.NotificationCreatedEvent;
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes new notifications to users over server-sent events.
+ *
+ * Open streams are kept per user on the node that accepted them. A stored
+ * notification is announced with {@link NotificationCreatedEvent} after commit;
+ * the cluster event bridge relays it to the other nodes, so every node delivers to
+ * the streams it holds. Writes happen on a small fan-out pool, so a slow client
+ * never blocks the committing request or the bridge's listener thread.
+ *
+ * When the fan-out queue is full a push is dropped rather than blocking the
+ * caller. Drops are counted and logged, and a stream that lost a notification is
+ * sent a "resync" event with the next heartbeat so the client reloads its list.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService {
+
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.notifications.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${app.notifications.stream.fanout-threads:4}")
+    private int fanoutThreads;
+
+    @Value("${app.notifications.stream.fanout-queue-capacity:10000}")
+    private int fanoutQueueCapacity;
+
+    private final Map<Long, List<SseEmitter>> streams = new ConcurrentHashMap<>();
+
+    /** Streams that missed a push because the fan-out queue was full. */
+    private final Set<SseEmitter> needResync = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong droppedPushes = new AtomicLong();
+
+    private ThreadPoolExecutor fanout;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        fanout = new ThreadPoolExecutor(
+                fanoutThreads, fanoutThreads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fanoutQueueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "notification-fanout-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (task, executor) -> dropped((Push) task));
+        fanout.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fanout.shutdownNow();
+        streams.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    /**
+     * Open a stream for {@code userId}. Clients reconnect when it times out and
+     * reload the unread list, so nothing sent while disconnected is missed.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = createEmitter();
+        boolean[] added = new boolean[1];
+        streams.compute(userId, (id, emitters) -> {
+            if (emitters == null) {
+                emitters = new CopyOnWriteArrayList<>();
+            }
+            if (emitters.size() < maxPerUser) {
+                added[0] = emitters.add(emitter);
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (!added[0]) {
+            throw new TooManyRequestsException("Too many open notification streams", 30);
+        }
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        try {
+            emitter.send(SseEmitter.event().name("ready").data(""));
+        } catch (IOException e) {
+            remove(userId, emitter);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        List<SseEmitter> emitters = streams.get(event.userId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        Notification notification = event.toNotification();
+        // A coalesced notification replaces the client's existing entry instead of adding one
+        String name = event.merged() ? "notification-updated" : "notification";
+        for (SseEmitter emitter : emitters) {
+            fanout.execute(new Push(event.userId(), emitter,
+                    SseEmitter.event().name(name).id(String.valueOf(event.id())).data(notification), true));
+        }
+    }
+
+    /** Comment lines keep idle connections open through proxies and reveal dead ones. */
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long dropped = droppedPushes.getAndSet(0);
+        if (dropped > 0) {
+            log.warn("Notification fan-out queue full: dropped {} pushes since the last heartbeat, "
+                    + "{} streams will be told to resync", dropped, needResync.size());
+        }
+        streams.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                // The client reloads its unread list on "resync"; it stands in for the ping
+                if (needResync.remove(emitter)) {
+                    fanout.execute(new Push(userId, emitter, SseEmitter.event().name("resync").data(""), true));
+                } else {
+                    fanout.execute(new Push(userId, emitter, SseEmitter.event().comment("ping"), false));
+                }
+            }
+        });
+    }
+
+    /** Pushes dropped since the last heartbeat. */
+    long getDroppedPushes() {
+        return droppedPushes.get();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void dropped(Push push) {
+        droppedPushes.incrementAndGet();
+        if (push.resyncOnDrop) {
+            needResync.add(push.emitter);
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        needResync.remove(emitter);
+        streams.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    /** One write to one stream; a dropped ping needs no resync, a dropped notification does. */
+    private final class Push implements Runnable {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final SseEmitter.SseEventBuilder event;
+        private final boolean resyncOnDrop;
+
+        private Push(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event, boolean resyncOnDrop) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.event = event;
+            this.resyncOnDrop = resyncOnDrop;
+        }
+
+        @Override
+        public void run() {
+            send(userId, emitter, event);
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobportal.jobportalapplication.entity.Notification;
+import com.jobportal.jobportalapplication.event.NotificationCreatedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind for notification inserts.
+ *
+ * Notifications are queued once the caller's transaction commits (so a rolled-back
+ * action never notifies) and a single writer thread stores them with multi-row
+ * INSERTs: a batch goes out when it reaches {@code batch-size} rows or
+ * {@code flush-ms} after its first row, whichever comes first. Each stored row is
+ * then announced with {@link NotificationCreatedEvent} (push streams, unread
+ * counts). If the queue is full (or write-behind is off) the caller writes its
+ * notification directly.
+ *
+ * Notifications with a group key are coalesced: within a batch, and into the
+ * user's unread row of the same group if it was touched within the coalescing
+ * window, which then counts one more and moves to the top.
+ *
+ * On shutdown the queue is flushed; whatever cannot be written is appended to a
+ * spill file (JSON lines) that is replayed on the next start. Replay records how
+ * many lines it has written in {@code <spill-file>.offset} after every batch, so a
+ * replay that fails part-way resumes where it stopped instead of writing the
+ * earlier batches again. Spilled rows keep their group message, which the API
+ * never shows, so a replayed row coalesces like the original would have.
+ */
+@Component
+@Slf4j
+public class NotificationWriteBuffer {
+
+    private static final String INSERT_PREFIX = "INSERT INTO notifications "
+            + "(user_id, type, message, is_read, reference_id, created_at, group_key, group_count) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String MERGE_PREFIX = "UPDATE notifications n "
+            + "SET group_count = n.group_count + v.cnt, "
+            + "message = left(replace(v.group_message, '{count}', (n.group_count + v.cnt)::text), 1000), "
+            + "reference_id = v.reference_id, created_at = v.created_at "
+            + "FROM (VALUES ";
+    private static final String MERGE_ROW = "(?::bigint, ?::varchar, ?::int, ?::bigint, ?::timestamp, ?::varchar)";
+    private static final String MERGE_SUFFIX = ") AS v (user_id, group_key, cnt, reference_id, created_at, group_message) "
+            + "WHERE n.user_id = v.user_id AND n.group_key = v.group_key "
+            + "AND n.is_read = false AND n.created_at > ? "
+            + "RETURNING n.id, n.user_id, n.group_key, n.group_count, n.message";
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    /** Postgres caps a statement at 65535 bind parameters. */
+    private static final int MAX_ROWS_PER_INSERT = 65535 / 8;
+
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.notifications.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.notifications.write-behind.flush-ms:200}")
+    private long flushMs;
+
+    @Value("${app.notifications.write-behind.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.write-behind.spill-file:${file.upload-dir:uploads}/notification-spill.jsonl}")
+    private String spillFile;
+
+    @Value("${app.notifications.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+
+    @Value("${app.notifications.coalesce.window-minutes:1440}")
+    private long coalesceWindowMinutes;
+
+    private BlockingQueue<Notification> queue;
+    private TransactionTemplate writeTransaction;
+    private ObjectMapper spillMapper;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    void start() {
+        batchSize = Math.max(1, Math.min(batchSize, MAX_ROWS_PER_INSERT));
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        // Direct writes run from afterCommit, where the caller's transaction is finished
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        spillMapper = objectMapper.copy().addMixIn(Notification.class, SpillFormat.class);
+        if (!enabled) {
+            return;
+        }
+        replaySpillFile();
+
+        running = true;
+        writer = new Thread(this::run, "notification-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Notification> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            List<Notification> batch = remaining.subList(from, Math.min(remaining.size(), from + batchSize));
+            if (!tryWrite(batch)) {
+                spill(remaining.subList(from, remaining.size()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queue a notification for storage after the current transaction commits (or
+     * now, outside a transaction).
+     */
+    public void add(Notification notification) {
+        if (notification.getCreatedAt() == null) {
+            notification.setCreatedAt(LocalDateTime.now());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(notification);
+                }
+            });
+        } else {
+            enqueue(notification);
+        }
+    }
+
+    private void enqueue(Notification notification) {
+        if (!running || !queue.offer(notification)) {
+            // Backpressure: the writer is behind (or off), so pay for the write here
+            try {
+                write(List.of(notification));
+            } catch (RuntimeException e) {
+                log.warn("Writing notification failed: {}", e.getMessage());
+                spill(List.of(notification));
+            }
+        }
+    }
+
+    // ==================== WRITER ====================
+
+    private void run() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Notification first = queue.poll(flushMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Notification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                if (!tryWrite(batch)) {
+                    spill(batch);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                // stop() flushes what is left in the queue; the batch in hand goes back first
+                batch.forEach(queue::offer);
+                return;
+            }
+        }
+    }
+
+    private boolean tryWrite(List<Notification> batch) {
+        for (int attempt = 1; attempt <= WRITE_ATTEMPTS; attempt++) {
+            try {
+                write(batch);
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Writing {} notifications failed (attempt {}/{}): {}",
+                        batch.size(), attempt, WRITE_ATTEMPTS, e.getMessage());
+                if (attempt < WRITE_ATTEMPTS) {
+                    try {
+                        Thread.sleep(RETRY_DELAY_MS * attempt);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Store one batch in a single transaction: notifications that coalesce into a
+     * row the user already has unread go out as one UPDATE, the rest as one
+     * multi-row INSERT (ids come back in row order). Events fire after commit.
+     */
+    private void write(List<Notification> batch) {
+        List<Notification> rows = coalesce(batch);
+        writeTransaction.executeWithoutResult(status -> {
+            Set<Notification> merged = mergeIntoUnread(rows);
+            List<Notification> inserts = new ArrayList<>(rows.size() - merged.size());
+            for (Notification row : rows) {
+                if (!merged.contains(row)) {
+                    inserts.add(row);
+                }
+            }
+            insert(inserts);
+            for (Notification row : rows) {
+                eventPublisher.publishEvent(NotificationCreatedEvent.of(row, merged.contains(row)));
+            }
+        });
+    }
+
+    /**
+     * Collapse notifications of one group for one user within the batch into a
+     * single row. Works on copies so a retried batch starts from the original rows.
+     */
+    private List<Notification> coalesce(List<Notification> batch) {
+        List<Notification> rows = new ArrayList<>(batch.size());
+        Map<String, Notification> groups = new HashMap<>();
+        for (Notification notification : batch) {
+            Notification row = copyOf(notification);
+            if (!coalesceEnabled || row.getGroupKey() == null || row.getGroupMessage() == null) {
+                rows.add(row);
+                continue;
+            }
+            Notification group = groups.get(groupOf(row));
+            if (group == null) {
+                groups.put(groupOf(row), row);
+                rows.add(row);
+            } else {
+                group.setGroupCount(group.getGroupCount() + row.getGroupCount());
+                group.setReferenceId(row.getReferenceId());
+                group.setCreatedAt(row.getCreatedAt());
+                group.setGroupMessage(row.getGroupMessage());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Fold grouped rows into the matching unread row of the same user, if one was
+     * touched within the coalescing window; returns the rows that were folded.
+     */
+    private Set<Notification> mergeIntoUnread(List<Notification> rows) {
+        Set<Notification> merged = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<String, Notification> grouped = new HashMap<>();
+        for (Notification row : rows) {
+            if (coalesceEnabled && row.getGroupKey() != null && row.getGroupMessage() != null) {
+                grouped.put(groupOf(row), row);
+            }
+        }
+        if (grouped.isEmpty()) {
+            return merged;
+        }
+
+        StringBuilder sql = new StringBuilder(MERGE_PREFIX);
+        List<Object> args = new ArrayList<>(grouped.size() * 6 + 1);
+        int i = 0;
+        for (Notification row : grouped.values()) {
+            sql.append(i++ == 0 ? "" : ", ").append(MERGE_ROW);
+            args.add(row.getUserId());
+            args.add(row.getGroupKey());
+            args.add(row.getGroupCount());
+            args.add(row.getReferenceId());
+            args.add(Timestamp.valueOf(row.getCreatedAt()));
+            args.add(row.getGroupMessage());
+        }
+        sql.append(MERGE_SUFFIX);
+        args.add(Timestamp.valueOf(LocalDateTime.now().minusMinutes(coalesceWindowMinutes)));
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            Notification row = grouped.get(rs.getLong(2) + ":" + rs.getString(3));
+            // Two unread rows of one group (written concurrently by two nodes) both get
+            // updated; the first one stands for the new notification
+            if (row != null && merged.add(row)) {
+                row.setId(rs.getLong(1));
+                row.setGroupCount(rs.getInt(4));
+                row.setMessage(rs.getString(5));
+            }
+        }, args.toArray());
+        return merged;
+    }
+
+    private void insert(List<Notification> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * 8];
+        for (int i = 0; i < rows.size(); i++) {
+            Notification n = rows.get(i);
+            if (n.getGroupCount() > 1 && n.getGroupMessage() != null) {
+                n.setMessage(truncate(n.getGroupMessage().replace("{count}", String.valueOf(n.getGroupCount()))));
+            }
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+            args[i * 8] = n.getUserId();
+            args[i * 8 + 1] = n.getType();
+            args[i * 8 + 2] = n.getMessage();
+            args[i * 8 + 3] = Boolean.TRUE.equals(n.getIsRead());
+            args[i * 8 + 4] = n.getReferenceId();
+            args[i * 8 + 5] = Timestamp.valueOf(n.getCreatedAt());
+            args[i * 8 + 6] = n.getGroupKey();
+            args[i * 8 + 7] = n.getGroupCount();
+        }
+        sql.append(" RETURNING id");
+
+        List<Long> ids = jdbcTemplate.queryForList(sql.toString(), Long.class, args);
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(ids.get(i));
+        }
+    }
+
+    private static String groupOf(Notification notification) {
+        return notification.getUserId() + ":" + notification.getGroupKey();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static Notification copyOf(Notification source) {
+        Notification copy = new Notification();
+        copy.setUserId(source.getUserId());
+        copy.setType(source.getType());
+        copy.setMessage(source.getMessage());
+        copy.setIsRead(source.getIsRead());
+        copy.setReferenceId(source.getReferenceId());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setGroupKey(source.getGroupKey());
+        copy.setGroupCount(source.getGroupCount() != null ? source.getGroupCount() : 1);
+        copy.setGroupMessage(source.getGroupMessage());
+        return copy;
+    }
+
+    // ==================== SPILL FILE ====================
+
+    /** Spill lines are Notification JSON plus the group message hidden from API responses. */
+    private abstract static class SpillFormat {
+        @JsonIgnore(false)
+        @JsonProperty
+        private String groupMessage;
+    }
+
+    private synchronized void spill(List<Notification> notifications) {
+        Path path = Paths.get(spillFile);
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Notification notification : notifications) {
+                    out.write(spillMapper.writeValueAsString(notification));
+                    out.newLine();
+                }
+            }
+            log.error("Spilled {} unwritten notifications to {}", notifications.size(), path);
+        } catch (IOException e) {
+            log.error("Lost {} notifications: could not write spill file {}: {}",
+                    notifications.size(), path, e.getMessage());
+        }
+    }
+
+    /** Replays under the spill lock, so nothing is appended while the file is read and removed. */
+    private synchronized void replaySpillFile() {
+        Path path = Paths.get(spillFile);
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        Path offsetPath = Paths.get(spillFile + ".offset");
+        int next = 0;
+        try {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            next = readOffset(offsetPath);
+            int replayed = 0;
+            while (next < lines.size()) {
+                List<Notification> batch = new ArrayList<>(batchSize);
+                int end = next;
+                while (end < lines.size() && batch.size() < batchSize) {
+                    String line = lines.get(end++);
+                    if (!line.isBlank()) {
+                        Notification notification = spillMapper.readValue(line, Notification.class);
+                        notification.setId(null);
+                        batch.add(notification);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    replayed += batch.size();
+                }
+                next = end;
+                writeOffset(offsetPath, next);
+            }
+            Files.delete(path);
+            Files.deleteIfExists(offsetPath);
+            log.info("Replayed {} spilled notifications from {}", replayed, path);
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not replay notification spill file {} past line {}; resuming there on the next start: {}",
+                    path, next, e.getMessage());
+        }
+    }
+
+    private static int readOffset(Path offsetPath) throws IOException {
+        if (!Files.isRegularFile(offsetPath)) {
+            return 0;
+        }
+        return Integer.parseInt(Files.readString(offsetPath, StandardCharsets.UTF_8).trim());
+    }
+
+    private static void writeOffset(Path offsetPath, int offset) throws IOException {
+        Path temp = offsetPath.resolveSibling(offsetPath.getFileName() + ".tmp");
+        Files.writeString(temp, Integer.toString(offset), StandardCharsets.UTF_8);
+        Files.move(temp, offsetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
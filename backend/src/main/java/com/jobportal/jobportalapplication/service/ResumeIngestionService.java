@@ -0,0 +1,328 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.dto.ResumeIngestionResponse;
+import com.jobportal.jobportalapplication.entity.Candidate;
+import com.jobportal.jobportalapplication.entity.ResumeIngestion;
+import com.jobportal.jobportalapplication.entity.ResumeIngestionStatus;
+import com.jobportal.jobportalapplication.exception.BadRequestException;
+import com.jobportal.jobportalapplication.exception.ResourceNotFoundException;
+import com.jobportal.jobportalapplication.ratelimit.RateLimitInterceptor;
+import com.jobportal.jobportalapplication.repo.CandidateRepository;
+import com.jobportal.jobportalapplication.repo.ResumeIngestionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resume upload pipeline.
+ *
+ * The request thread only streams the upload to disk and records a QUEUED row.
+ * Extraction, normalization and the optional AI analysis then run as chained
+ * stages on the ingest pool, each stage updating the row so clients can poll
+ * /api/files/resume/{id}/status.
+ *
+ * The chain lives only in memory, so a periodic sweep restarts rows whose stage
+ * has not moved for a while (their instance went down) and fails them after a
+ * few attempts.
+ */
+@Service
+@Slf4j
+public class ResumeIngestionService {
+
+    private static final List<ResumeIngestionStatus> IN_FLIGHT = List.of(
+            ResumeIngestionStatus.QUEUED,
+            ResumeIngestionStatus.EXTRACTING,
+            ResumeIngestionStatus.NORMALIZING,
+            ResumeIngestionStatus.ANALYZING);
+
+    @Autowired
+    private ResumeIngestionRepository resumeIngestionRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ResumeParserService resumeParserService;
+
+    @Autowired
+    private GroqAIService groqAIService;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Value("${app.resume.ingest.threads:2}")
+    private int threads;
+
+    @Value("${app.resume.ingest.queue-capacity:100}")
+    private int queueCapacity;
+
+    /** Same budget as POST /api/ai/analyze-resume, which does the same AI call. */
+    @Value("${app.resume.ingest.analyze-cost:2}")
+    private int analyzeCost;
+
+    /** A stage that has not reported progress for this long is presumed dead. */
+    @Value("${app.resume.ingest.stale-after-seconds:600}")
+    private long staleAfterSeconds;
+
+    @Value("${app.resume.ingest.max-recoveries:2}")
+    private int maxRecoveries;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "resume-ingest-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public ResumeIngestionResponse submit(MultipartFile file, boolean analyze, Long userId, String clientIp)
+            throws IOException {
+        String originalFilename = file.getOriginalFilename();
+        String extension = getFileExtension(originalFilename);
+
+        if (!extension.matches("pdf|doc|docx|txt")) {
+            throw new BadRequestException("Invalid file type. Please upload PDF, DOC, DOCX, or TXT");
+        }
+
+        // The analysis calls the AI later, off the request; pay for it now, before anything is stored
+        if (analyze && groqAIService.isEnabled()) {
+            rateLimitInterceptor.charge(clientIp, userId, analyzeCost);
+        }
+
+        // Single streaming write; the parser reads the stored copy later, not the multipart
+        FileStorageService.StoredUpload stored = fileStorageService.store(file, "resume", extension, userId);
+
+        ResumeIngestion ingestion = new ResumeIngestion();
+        ingestion.setUserId(userId);
+        ingestion.setFileUrl(stored.fileUrl());
+        ingestion.setFileName(originalFilename);
+        ingestion.setFileType(file.getContentType());
+        ingestion.setExtension(extension);
+        ingestion.setAnalyze(analyze);
+        ingestion.setStatus(ResumeIngestionStatus.QUEUED);
+        ingestion = resumeIngestionRepository.save(ingestion);
+
+        enqueue(ingestion.getId(), stored.filename(), extension, analyze, userId);
+
+        return mapToResponse(ingestion);
+    }
+
+    public ResumeIngestionResponse getStatus(Long id, Long userId) {
+        ResumeIngestion ingestion = resumeIngestionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Resume not found"));
+
+        // Someone else's upload looks the same as a missing one
+        if (!ingestion.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("Resume not found");
+        }
+
+        return mapToResponse(ingestion);
+    }
+
+    // ==================== RECOVERY ====================
+
+    @Scheduled(fixedDelayString = "${app.resume.ingest.recover-ms:60000}",
+               initialDelayString = "${app.resume.ingest.recover-initial-delay-ms:30000}")
+    public void recoverStale() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusSeconds(staleAfterSeconds);
+
+        int failed = resumeIngestionRepository.failStale(IN_FLIGHT, cutoff, maxRecoveries,
+                ResumeIngestionStatus.FAILED, "Resume processing was interrupted, please upload it again", now);
+        if (failed > 0) {
+            log.warn("Gave up on {} interrupted resume ingestions", failed);
+        }
+
+        // Leave room for new uploads; whatever does not fit is picked up next round
+        int room = executor.getQueue().remainingCapacity() / 2;
+        if (room == 0) {
+            return;
+        }
+        for (ResumeIngestion stale : resumeIngestionRepository.findStale(IN_FLIGHT, cutoff, maxRecoveries,
+                PageRequest.of(0, room))) {
+            if (resumeIngestionRepository.requeueIfStale(stale.getId(), IN_FLIGHT, cutoff,
+                    ResumeIngestionStatus.QUEUED, now) == 1) {
+                log.info("Restarting resume ingestion {} stuck in {}", stale.getId(), stale.getStatus());
+                String fileUrl = stale.getFileUrl();
+                enqueue(stale.getId(), fileUrl.substring(fileUrl.lastIndexOf('/') + 1),
+                        stale.getExtension(), stale.getAnalyze(), stale.getUserId());
+            }
+        }
+    }
+
+    // ==================== PIPELINE ====================
+
+    private void enqueue(Long id, String filename, String extension, boolean analyze, Long userId) {
+        try {
+            CompletableFuture
+                    .supplyAsync(() -> extract(id, filename, extension), executor)
+                    .thenApplyAsync(text -> normalize(id, text), executor)
+                    .thenApplyAsync(text -> analyze ? analyze(id, userId, text) : text, executor)
+                    .whenComplete((text, error) -> finish(id, text, error));
+        } catch (RejectedExecutionException e) {
+            fail(id, "Resume processing queue is full, please try again shortly");
+        }
+    }
+
+    private String extract(Long id, String filename, String extension) {
+        updateStatus(id, ResumeIngestionStatus.EXTRACTING);
+        try (FileStorageService.LocalCopy copy = fileStorageService.fetch("resume", filename)) {
+            return resumeParserService.extractText(copy.path(), extension);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String normalize(Long id, String text) {
+        updateStatus(id, ResumeIngestionStatus.NORMALIZING);
+        return normalizeText(text);
+    }
+
+    private String analyze(Long id, Long userId, String text) {
+        if (!groqAIService.isEnabled() || text.isBlank()) {
+            return text;
+        }
+
+        Candidate candidate = candidateRepository.findByUserId(userId).orElse(null);
+        if (candidate == null) {
+            return text;
+        }
+
+        updateStatus(id, ResumeIngestionStatus.ANALYZING);
+        try {
+            groqAIService.analyzeAndStoreResume(candidate.getId(), text);
+        } catch (Exception e) {
+            // Analysis is best-effort; the extracted text is still useful on its own
+            log.warn("Resume analysis failed for ingestion {}: {}", id, e.getMessage());
+        }
+        return text;
+    }
+
+    private void finish(Long id, String text, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            log.warn("Resume ingestion {} failed: {}", id, cause.getMessage());
+            fail(id, cause.getMessage());
+            return;
+        }
+
+        resumeIngestionRepository.findById(id).ifPresent(ingestion -> {
+            ingestion.setExtractedText(text);
+            ingestion.setStatus(ResumeIngestionStatus.COMPLETED);
+            resumeIngestionRepository.save(ingestion);
+        });
+    }
+
+    private void fail(Long id, String message) {
+        resumeIngestionRepository.findById(id).ifPresent(ingestion -> {
+            ingestion.setStatus(ResumeIngestionStatus.FAILED);
+            ingestion.setErrorMessage(message != null && message.length() > 1000
+                    ? message.substring(0, 1000) : message);
+            resumeIngestionRepository.save(ingestion);
+        });
+    }
+
+    private void updateStatus(Long id, ResumeIngestionStatus status) {
+        resumeIngestionRepository.updateStatus(id, status, LocalDateTime.now());
+    }
+
+    /**
+     * Drops control characters, unifies line endings, collapses runs of spaces and
+     * limits blank lines to one so the text is compact for display and AI prompts.
+     */
+    static String normalizeText(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder(text.length());
+        int newlines = 0;
+        boolean space = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                continue;
+            }
+            if (c == '\n') {
+                space = false;
+                if (newlines < 2) {
+                    trimTrailingSpace(out);
+                    out.append('\n');
+                }
+                newlines++;
+            } else if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = out.length() > 0 && newlines == 0;
+            } else if (!Character.isISOControl(c)) {
+                if (space) {
+                    out.append(' ');
+                }
+                out.append(c);
+                space = false;
+                newlines = 0;
+            }
+        }
+
+        return out.toString().trim();
+    }
+
+    private static void trimTrailingSpace(StringBuilder out) {
+        while (out.length() > 0 && out.charAt(out.length() - 1) == ' ') {
+            out.setLength(out.length() - 1);
+        }
+    }
+
+    private ResumeIngestionResponse mapToResponse(ResumeIngestion ingestion) {
+        ResumeIngestionResponse response = new ResumeIngestionResponse();
+        response.setResumeId(ingestion.getId());
+        response.setStatus(ingestion.getStatus());
+        response.setFileUrl(ingestion.getFileUrl());
+        response.setFileName(ingestion.getFileName());
+        response.setFileType(ingestion.getFileType());
+        response.setStatusUrl("/api/files/resume/" + ingestion.getId() + "/status");
+        response.setExtractedText(ingestion.getExtractedText());
+        response.setErrorMessage(ingestion.getErrorMessage());
+        response.setCreatedAt(ingestion.getCreatedAt());
+        response.setUpdatedAt(ingestion.getUpdatedAt());
+        return response;
+    }
+
+    private String getFileExtension(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return "";
+        }
+        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+    }
+}
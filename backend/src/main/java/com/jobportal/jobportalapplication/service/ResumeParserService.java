@@ -0,0 +1,378 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.exception.BadRequestException;
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.apache.poi.hwpf.HWPFDocument;
+import org.apache.poi.hwpf.extractor.WordExtractor;
+import org.apache.poi.hwpf.usermodel.Range;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extracts plain text from uploaded resumes (PDF, DOCX, DOC, TXT).
+ *
+ * Parsing runs on a small dedicated pool with a per-file timeout, never on the
+ * request thread. Every format is read page by page / paragraph by paragraph and
+ * stops as soon as the character cap is hit, so a huge or hostile document
+ * cannot grow the heap beyond roughly maxChars plus the parser's own buffer.
+ */
+@Service
+@Slf4j
+public class ResumeParserService {
+
+    private static final String DOCX_BODY = "word/document.xml";
+
+    @Value("${app.resume.parser.threads:2}")
+    private int threads;
+
+    @Value("${app.resume.parser.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.resume.parser.timeout-seconds:20}")
+    private long timeoutSeconds;
+
+    @Value("${app.resume.parser.max-chars:50000}")
+    private int maxChars;
+
+    @Value("${app.resume.parser.max-pdf-pages:30}")
+    private int maxPdfPages;
+
+    /** Main-memory budget for PDFBox's stream cache; anything above spills to a temp file. */
+    @Value("${app.resume.parser.max-memory-bytes:8388608}")
+    private long maxMemoryBytes;
+
+    /** Cap on decompressed bytes read from a DOCX entry (zip-bomb guard). */
+    @Value("${app.resume.parser.max-inflated-bytes:20971520}")
+    private long maxInflatedBytes;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "resume-parser-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Extract text from an uploaded file. The upload is spooled to a temp file first
+     * so the parser can read it with random access instead of buffering it in memory.
+     */
+    public String extractText(MultipartFile file) throws IOException {
+        String extension = getExtension(file.getOriginalFilename());
+        Path temp = Files.createTempFile("resume-", "." + extension);
+        try {
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return extractText(temp, extension);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Extract text from a stored resume, waiting at most the configured timeout.
+     */
+    public String extractText(Path path, String extension) {
+        Future<String> future;
+        try {
+            future = executor.submit(() -> extract(path, extension.toLowerCase()));
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Resume parser is busy, please try again shortly", timeoutSeconds);
+        }
+
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Resume extraction timed out after {}s for {}", timeoutSeconds, path.getFileName());
+            throw new BadRequestException("Resume took too long to process");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Resume extraction interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BadRequestException badRequest) {
+                throw badRequest;
+            }
+            log.warn("Resume extraction failed for {}: {}", path.getFileName(), cause.getMessage());
+            throw new BadRequestException("Could not read resume file");
+        }
+    }
+
+    private String extract(Path path, String extension) throws Exception {
+        BoundedText text = new BoundedText(maxChars);
+        switch (extension) {
+            case "pdf" -> extractPdf(path, text);
+            case "docx" -> extractDocx(path, text);
+            case "doc" -> extractDoc(path, text);
+            case "txt" -> extractTxt(path, text);
+            default -> throw new BadRequestException("Unsupported resume format: " + extension);
+        }
+        if (text.isTruncated()) {
+            log.info("Resume {} truncated to {} characters", path.getFileName(), maxChars);
+        }
+        return text.toString().trim();
+    }
+
+    // ==================== FORMATS ====================
+
+    private void extractPdf(Path path, BoundedText text) throws IOException {
+        try (PDDocument document = Loader.loadPDF(path.toFile(),
+                MemoryUsageSetting.setupMixed(maxMemoryBytes).streamCache)) {
+            PDFTextStripper stripper = new InterruptiblePdfTextStripper();
+            int pages = Math.min(document.getNumberOfPages(), maxPdfPages);
+
+            for (int page = 1; page <= pages && !text.isFull(); page++) {
+                checkInterrupted();
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                text.append(stripper.getText(document));
+            }
+        }
+    }
+
+    /**
+     * DOCX is a zip of XML parts; the body is streamed with StAX straight out of the
+     * archive so the document is never materialised as a DOM.
+     */
+    private void extractDocx(Path path, BoundedText text) throws IOException, XMLStreamException {
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (DOCX_BODY.equals(entry.getName())) {
+                    readDocxBody(new CappedInputStream(zip, maxInflatedBytes), text);
+                    return;
+                }
+            }
+        }
+        throw new BadRequestException("Invalid DOCX file");
+    }
+
+    private void readDocxBody(InputStream in, BoundedText text) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        XMLStreamReader reader = factory.createXMLStreamReader(in, "UTF-8");
+        try {
+            boolean inText = false;
+            while (reader.hasNext() && !text.isFull()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("t".equals(name)) {
+                        inText = true;
+                    } else if ("tab".equals(name)) {
+                        text.append("\t");
+                    } else if ("br".equals(name)) {
+                        text.append("\n");
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inText) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("t".equals(name)) {
+                        inText = false;
+                    } else if ("p".equals(name)) {
+                        text.append("\n");
+                        checkInterrupted();
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void extractDoc(Path path, BoundedText text) throws IOException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(path.toFile(), true);
+             HWPFDocument document = new HWPFDocument(fs.getRoot())) {
+            Range range = document.getRange();
+            int paragraphs = range.numParagraphs();
+
+            for (int i = 0; i < paragraphs && !text.isFull(); i++) {
+                checkInterrupted();
+                String paragraph = range.getParagraph(i).text();
+                text.append(WordExtractor.stripFields(paragraph).replace('\r', '\n'));
+            }
+        }
+    }
+
+    private void extractTxt(Path path, BoundedText text) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), decoder)) {
+            char[] buffer = new char[8192];
+            int read;
+            while (!text.isFull() && (read = reader.read(buffer)) != -1) {
+                checkInterrupted();
+                text.append(buffer, read);
+            }
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * future.cancel(true) only sets the interrupt flag; PDFBox and POI never look at it,
+     * so every extraction loop polls it and aborts the task itself.
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Resume extraction cancelled");
+        }
+    }
+
+    private String getExtension(String filename) {
+        if (filename == null || !filename.contains(".")) {
+            return "";
+        }
+        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+    }
+
+    /**
+     * Checks for cancellation per glyph, so a single pathological page cannot keep
+     * a timed-out worker busy until the whole page has been laid out.
+     */
+    private static final class InterruptiblePdfTextStripper extends PDFTextStripper {
+        @Override
+        protected void processTextPosition(TextPosition position) {
+            checkInterrupted();
+            super.processTextPosition(position);
+        }
+    }
+
+    /**
+     * StringBuilder with a hard upper bound; appends past the cap are dropped.
+     */
+    private static final class BoundedText {
+        private final StringBuilder builder;
+        private final int limit;
+        private boolean truncated;
+
+        BoundedText(int limit) {
+            this.limit = limit;
+            this.builder = new StringBuilder(Math.min(limit, 16 * 1024));
+        }
+
+        void append(String s) {
+            if (s == null) {
+                return;
+            }
+            int room = room(s.length());
+            builder.append(s, 0, room);
+        }
+
+        void append(char[] chars, int length) {
+            builder.append(chars, 0, room(length));
+        }
+
+        private int room(int wanted) {
+            int room = Math.max(limit - builder.length(), 0);
+            if (wanted > room) {
+                truncated = true;
+            }
+            return Math.min(wanted, room);
+        }
+
+        boolean isFull() {
+            return builder.length() >= limit;
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Fails once more than {@code limit} bytes have been read, without closing the
+     * underlying stream (which would close the whole zip).
+     */
+    private static final class CappedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        CappedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(long n) {
+            count += n;
+            if (count > limit) {
+                throw new BadRequestException("Resume content is too large");
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
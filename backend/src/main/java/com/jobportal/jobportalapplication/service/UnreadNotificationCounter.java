@@ -0,0 +1,147 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jobportal.jobportalapplication.event.NotificationCreatedEvent;
+import com.jobportal.jobportalapplication.event.UnreadCountChangedEvent;
+import com.jobportal.jobportalapplication.repo.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread notification counts served from memory.
+ *
+ * A user's count is loaded from the database on first read and then kept current
+ * from committed changes ({@link NotificationCreatedEvent}, {@link UnreadCountChangedEvent}),
+ * which every node receives through the cluster event bridge. Counts can drift if
+ * an event is lost or races the initial load, so loaded counts are re-read from the
+ * database in batches on a fixed interval; idle users are evicted.
+ *
+ * Only {@link #get} counts as use of an entry: events and reconciliation look
+ * entries up quietly, so they do not keep idle users in memory.
+ */
+@Component
+@Slf4j
+public class UnreadNotificationCounter {
+
+    private static final int RECONCILE_BATCH = 500;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${app.notifications.unread-count.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${app.notifications.unread-count.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Clock clock;
+
+    private Cache<Long, AtomicLong> counts;
+
+    public UnreadNotificationCounter() {
+        this(Clock.systemUTC());
+    }
+
+    UnreadNotificationCounter(Clock clock) {
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    public long get(Long userId) {
+        return counts.get(userId, id -> new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(id)))
+                .get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (!event.merged()) {
+            add(event.userId(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        if (event.reset()) {
+            AtomicLong count = counts.policy().getIfPresentQuietly(event.userId());
+            if (count != null) {
+                count.set(0);
+            }
+        } else {
+            add(event.userId(), event.delta());
+        }
+    }
+
+    /** Only users whose count is loaded are tracked; others load fresh on first read. */
+    private void add(Long userId, long delta) {
+        AtomicLong count = counts.policy().getIfPresentQuietly(userId);
+        if (count != null) {
+            count.updateAndGet(value -> Math.max(0, value + delta));
+        }
+    }
+
+    /**
+     * Re-reads loaded counts from the database. A count is only overwritten if no
+     * event changed it while the query ran: the database may not show what such an
+     * event reported yet (notifications are written behind), and the next round
+     * catches whatever drift is left.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.unread-count.reconcile-ms:300000}",
+            initialDelayString = "${app.notifications.unread-count.reconcile-ms:300000}")
+    public void reconcile() {
+        List<Long> userIds = new ArrayList<>(counts.asMap().keySet());
+        int corrected = 0;
+
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH) {
+            List<Long> batch = userIds.subList(from, Math.min(userIds.size(), from + RECONCILE_BATCH));
+
+            Map<Long, Long> before = new HashMap<>();
+            for (Long userId : batch) {
+                AtomicLong count = counts.policy().getIfPresentQuietly(userId);
+                if (count != null) {
+                    before.put(userId, count.get());
+                }
+            }
+
+            Map<Long, Long> actual = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadByUserIds(batch)) {
+                actual.put((Long) row[0], (Long) row[1]);
+            }
+
+            for (Map.Entry<Long, Long> seen : before.entrySet()) {
+                AtomicLong count = counts.policy().getIfPresentQuietly(seen.getKey());
+                long expected = actual.getOrDefault(seen.getKey(), 0L);
+                if (count != null && seen.getValue() != expected
+                        && count.compareAndSet(seen.getValue(), expected)) {
+                    corrected++;
+                }
+            }
+        }
+
+        if (corrected > 0) {
+            log.debug("Reconciled {} of {} unread counts", corrected, userIds.size());
+        }
+    }
+}
@@ -2,14 +2,19 @@ package com.jobportal.jobportalapplication.service;
 
 import com.jobportal.jobportalapplication.dto.ProfileUpdateRequest;
 import com.jobportal.jobportalapplication.dto.UserResponse;
+import com.jobportal.jobportalapplication.entity.ApplicationAlertMode;
 import com.jobportal.jobportalapplication.entity.Candidate;
 import com.jobportal.jobportalapplication.entity.Employer;
 import com.jobportal.jobportalapplication.entity.Role;
 import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.event.UserAccountChangedEvent;
 import com.jobportal.jobportalapplication.exception.ResourceNotFoundException;
 import com.jobportal.jobportalapplication.repo.*;
+import com.jobportal.jobportalapplication.security.JwtTokenProvider;
+import com.jobportal.jobportalapplication.security.TokenRevocationService;
 import com.jobportal.jobportalapplication.security.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -27,12 +32,21 @@ public class UserService {
     @Autowired
     private EmployerRepository employerRepository;
 
+    @Autowired
+    private ApplicationDigestService applicationDigestService;
+
     @Autowired
     private CompanyRepository companyRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public UserResponse getCurrentUserProfile(Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         User user = userRepository.findById(userDetails.getId())
@@ -47,6 +61,11 @@ public class UserService {
         User user = userRepository.findById(userDetails.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        if (request.getLocale() != null) {
+            user.setLocale(request.getLocale());
+            userRepository.save(user);
+        }
+
         if (user.getRole() == Role.CANDIDATE) {
             Candidate candidate = candidateRepository.findByUserId(user.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Candidate profile not found"));
@@ -62,6 +81,13 @@ public class UserService {
             candidateRepository.save(candidate);
 
         } else if (user.getRole() == Role.EMPLOYER) {
+            if (request.getApplicationAlertMode() != null) {
+                // Locks and loads the employer first, so the update below sees the new mode and watermark
+                Long employerId = employerRepository.findIdByUserId(user.getId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Employer profile not found"));
+                applicationDigestService.changeAlertMode(employerId, request.getApplicationAlertMode());
+            }
+
             Employer employer = employerRepository.findByUserId(user.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Employer profile not found"));
 
@@ -72,10 +98,12 @@ public class UserService {
                 employer.setCompany(companyRepository.findById(request.getCompanyId())
                         .orElseThrow(() -> new ResourceNotFoundException("Company not found")));
             }
-
             employerRepository.save(employer);
         }
 
+        eventPublisher.publishEvent(new UserAccountChangedEvent(
+                user.getId(), user.getEmail(), UserAccountChangedEvent.Reason.PROFILE_UPDATED));
+
         return mapToUserResponse(user);
     }
 
@@ -91,6 +119,36 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+
+        // Sign out sessions that logged in before this one; the caller's token stays valid
+        if (authentication.getCredentials() instanceof JwtTokenProvider.VerifiedToken token) {
+            tokenRevocationService.revokeTokensIssuedBefore(user.getId(), token.issuedAtSeconds());
+        }
+
+        eventPublisher.publishEvent(new UserAccountChangedEvent(
+                user.getId(), user.getEmail(), UserAccountChangedEvent.Reason.PASSWORD_CHANGED));
+    }
+
+    /**
+     * Activate or deactivate an account. Deactivation revokes every token the user
+     * holds and blocks further logins.
+     */
+    @Transactional
+    public UserResponse setActive(Long userId, boolean active) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        user.setIsActive(active);
+        userRepository.save(user);
+
+        if (!active) {
+            tokenRevocationService.revokeAllTokens(user.getId());
+        }
+
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getEmail(),
+                active ? UserAccountChangedEvent.Reason.ACTIVATED : UserAccountChangedEvent.Reason.DEACTIVATED));
+
+        return mapToUserResponse(user);
     }
 
     private UserResponse mapToUserResponse(User user) {
@@ -100,8 +158,12 @@ public class UserService {
         response.setRole(user.getRole());
         response.setIsActive(user.getIsActive());
 
-        if (user.getRole() == Role.CANDIDATE && user.getCandidate() != null) {
-            Candidate candidate = user.getCandidate();
+        Candidate candidate = user.getRole() == Role.CANDIDATE
+                ? candidateRepository.findByUserId(user.getId()).orElse(null) : null;
+        Employer employer = user.getRole() == Role.EMPLOYER
+                ? employerRepository.findProfileByUserId(user.getId()).orElse(null) : null;
+
+        if (candidate != null) {
             response.setProfileId(candidate.getId());
             response.setFullName(candidate.getFullName());
             response.setPhone(candidate.getPhone());
@@ -111,11 +173,12 @@ public class UserService {
             response.setEducation(candidate.getEducation());
             response.setResumeUrl(candidate.getResumeUrl());
 
-        } else if (user.getRole() == Role.EMPLOYER && user.getEmployer() != null) {
-            Employer employer = user.getEmployer();
+        } else if (employer != null) {
             response.setProfileId(employer.getId());
             response.setPhone(employer.getPhone());
             response.setPosition(employer.getPosition());
+            response.setApplicationAlertMode(employer.getApplicationAlertMode() != null
+                    ? employer.getApplicationAlertMode() : ApplicationAlertMode.IMMEDIATE);
 
             if (employer.getCompany() != null) {
                 response.setCompanyId(employer.getCompany().getId());
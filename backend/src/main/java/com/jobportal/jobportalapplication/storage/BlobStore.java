@@ -0,0 +1,50 @@
+package com.jobportal.jobportalapplication.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Where upload bytes live. Keys are relative, slash-separated paths such as
+ * {@code ab/cd/<sha256>.pdf}; each backend maps them onto its own namespace.
+ *
+ * The backend is chosen with {@code app.storage.type} ({@code local} or {@code s3}).
+ */
+public interface BlobStore {
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Store the file at {@code source} under {@code key}. The source may be moved
+     * into place rather than copied, so callers must not rely on it afterwards.
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    /**
+     * Open the blob for reading.
+     *
+     * @throws java.nio.file.NoSuchFileException if there is no blob for the key
+     */
+    InputStream get(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * The file backing {@code key} when it lives on this server's disk, so it can be
+     * served with sendfile and parsed in place.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * A time-limited URL the client can fetch directly, keeping the bytes off the
+     * app servers. Empty when the backend cannot hand out such URLs.
+     */
+    default Optional<URI> downloadUrl(String key, Duration ttl) {
+        return Optional.empty();
+    }
+}
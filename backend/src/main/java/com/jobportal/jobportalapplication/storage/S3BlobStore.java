@@ -0,0 +1,291 @@
+package com.jobportal.jobportalapplication.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Blobs in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW, ...).
+ *
+ * Files larger than one part are sent with a multipart upload, each part streamed
+ * from its slice of the spooled file. Downloads are redirected to presigned GET
+ * URLs; a URL is reused for half its lifetime so repeat views hit the browser
+ * cache instead of minting a new URL every time.
+ *
+ * For a local stand-in point {@code app.storage.s3.endpoint} at e.g. MinIO on
+ * http://localhost:9000 and keep {@code path-style=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    /** S3 rejects parts below 5 MiB (except the last one). */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private static final int MAX_CACHED_URLS = 10_000;
+
+    @Value("${app.storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${app.storage.s3.prefix:}")
+    private String prefix;
+
+    @Value("${app.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${app.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${app.storage.s3.path-style:false}")
+    private boolean pathStyle;
+
+    @Value("${app.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${app.storage.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${app.storage.s3.part-size-bytes:8388608}")
+    private long partSize;
+
+    /** Endpoint used in presigned URLs when clients reach the bucket under another host. */
+    @Value("${app.storage.s3.public-endpoint:}")
+    private String publicEndpoint;
+
+    private S3Client client;
+    private S3Presigner presigner;
+
+    private final Map<String, PresignedUrl> presignedUrls = new ConcurrentHashMap<>();
+
+    private record PresignedUrl(URI uri, Instant reuseUntil) {
+    }
+
+    @PostConstruct
+    void init() {
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        S3Configuration s3Config = S3Configuration.builder()
+                .pathStyleAccessEnabled(pathStyle)
+                .build();
+        partSize = Math.max(partSize, MIN_PART_SIZE);
+
+        var clientBuilder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(s3Config);
+        if (!endpoint.isBlank()) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+        }
+        client = clientBuilder.build();
+
+        var presignerBuilder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(s3Config);
+        String urlEndpoint = publicEndpoint.isBlank() ? endpoint : publicEndpoint;
+        if (!urlEndpoint.isBlank()) {
+            presignerBuilder.endpointOverride(URI.create(urlEndpoint));
+        }
+        presigner = presignerBuilder.build();
+
+        log.info("Using S3 blob storage: bucket={}, endpoint={}", bucket,
+                endpoint.isBlank() ? "aws" : endpoint);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        presigner.close();
+        client.close();
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            client.headObject(b -> b.bucket(bucket).key(objectKey(key)));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("S3 HEAD failed for " + key, e);
+        }
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        long size = Files.size(source);
+        try {
+            if (size <= partSize) {
+                client.putObject(b -> b.bucket(bucket).key(objectKey(key))
+                                .contentType(contentType)
+                                .cacheControl("private, max-age=31536000, immutable"),
+                        RequestBody.fromFile(source));
+            } else {
+                putMultipart(objectKey(key), source, size, contentType);
+            }
+        } catch (S3Exception e) {
+            throw new IOException("S3 upload failed for " + key, e);
+        }
+    }
+
+    private void putMultipart(String objectKey, Path source, long size, String contentType) throws IOException {
+        String uploadId = client.createMultipartUpload(b -> b.bucket(bucket).key(objectKey)
+                .contentType(contentType)
+                .cacheControl("private, max-age=31536000, immutable")).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                long position = offset;
+                int number = partNumber;
+
+                UploadPartResponse response = client.uploadPart(
+                        b -> b.bucket(bucket).key(objectKey).uploadId(uploadId)
+                                .partNumber(number).contentLength(length),
+                        RequestBody.fromContentProvider(() -> slice(source, position, length), length,
+                                "application/octet-stream"));
+                parts.add(CompletedPart.builder().partNumber(number).eTag(response.eTag()).build());
+            }
+
+            client.completeMultipartUpload(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+        } catch (RuntimeException e) {
+            try {
+                client.abortMultipartUpload(b -> b.bucket(bucket).key(objectKey).uploadId(uploadId));
+            } catch (RuntimeException abortError) {
+                log.warn("Could not abort multipart upload {} for {}: {}", uploadId, objectKey,
+                        abortError.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        try {
+            return client.getObject(b -> b.bucket(bucket).key(objectKey(key)));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (S3Exception e) {
+            throw new IOException("S3 GET failed for " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        presignedUrls.remove(key);
+        try {
+            client.deleteObject(b -> b.bucket(bucket).key(objectKey(key)));
+        } catch (S3Exception e) {
+            throw new IOException("S3 DELETE failed for " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<URI> downloadUrl(String key, Duration ttl) {
+        Instant now = Instant.now();
+        PresignedUrl cached = presignedUrls.get(key);
+        if (cached != null && now.isBefore(cached.reuseUntil())) {
+            return Optional.of(cached.uri());
+        }
+
+        URI uri;
+        try {
+            uri = presigner.presignGetObject(p -> p.signatureDuration(ttl)
+                            .getObjectRequest(g -> g.bucket(bucket).key(objectKey(key))))
+                    .url().toURI();
+        } catch (Exception e) {
+            log.warn("Could not presign {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (presignedUrls.size() >= MAX_CACHED_URLS) {
+            presignedUrls.values().removeIf(url -> now.isAfter(url.reuseUntil()));
+            if (presignedUrls.size() >= MAX_CACHED_URLS) {
+                presignedUrls.clear();
+            }
+        }
+        presignedUrls.put(key, new PresignedUrl(uri, now.plus(ttl.dividedBy(2))));
+        return Optional.of(uri);
+    }
+
+    private String objectKey(String key) {
+        return prefix.isBlank() ? key : prefix.replaceAll("/+$", "") + "/" + key;
+    }
+
+    /**
+     * Stream {@code length} bytes of {@code file} starting at {@code position}, so a
+     * part is read straight from disk instead of being buffered whole.
+     */
+    private static InputStream slice(Path file, long position, long length) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ).position(position);
+            return new FilterInputStream(Channels.newInputStream(channel)) {
+                private long remaining = length;
+
+                @Override
+                public int read() throws IOException {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int b = super.read();
+                    if (b != -1) {
+                        remaining--;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int n = super.read(b, off, (int) Math.min(len, remaining));
+                    if (n > 0) {
+                        remaining -= n;
+                    }
+                    return n;
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+-- One-time migration: convert the plain notifications table (as created by
+-- Hibernate) into one range-partitioned by month of created_at.
+--
+-- Run once, during a maintenance window, against the application's schema:
+--
+--     psql "$DATABASE_URL" -f partition-notifications.sql
+--
+-- It takes an exclusive lock on notifications for the duration of the copy and
+-- runs as a single transaction: it either converts everything or nothing. It
+-- refuses to run if notifications is already partitioned.
+--
+-- The old table is kept as notifications_unpartitioned. Once the application is
+-- running on the partitioned table, drop it by hand:
+--
+--     DROP TABLE notifications_unpartitioned;
+--
+-- Afterwards NotificationPartitionManager keeps partitions for the coming months
+-- (app.notifications.partitioning.months-ahead) and applies the configured
+-- retention.
+DO $$
+DECLARE
+    oldest date;
+    month date;
+    copied bigint;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid
+               WHERE c.relname = 'notifications' AND c.relnamespace = current_schema()::regnamespace) THEN
+        RAISE EXCEPTION 'notifications is already partitioned';
+    END IF;
+
+    LOCK TABLE notifications IN ACCESS EXCLUSIVE MODE;
+    ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+    -- Index names are per schema; the partitioned table's indexes take them over
+    ALTER INDEX IF EXISTS idx_notifications_user_read_created RENAME TO idx_notifications_unpartitioned_user_read_created;
+    ALTER INDEX IF EXISTS idx_notifications_user_created RENAME TO idx_notifications_unpartitioned_user_created;
+
+    -- The primary key has to include the partition column. Ids come from a
+    -- sequence continuing after the highest existing id.
+    CREATE SEQUENCE notifications_part_id_seq;
+    PERFORM setval('notifications_part_id_seq',
+                   (SELECT COALESCE(MAX(id), 0) + 1 FROM notifications_unpartitioned), false);
+    CREATE TABLE notifications (
+        id bigint NOT NULL DEFAULT nextval('notifications_part_id_seq'),
+        user_id bigint NOT NULL,
+        type varchar(255) NOT NULL,
+        message varchar(1000) NOT NULL,
+        is_read boolean NOT NULL,
+        reference_id bigint,
+        created_at timestamp(6) NOT NULL,
+        group_key varchar(200),
+        group_count integer NOT NULL DEFAULT 1,
+        CONSTRAINT notifications_part_pkey PRIMARY KEY (id, created_at)
+    ) PARTITION BY RANGE (created_at);
+    ALTER SEQUENCE notifications_part_id_seq OWNED BY notifications.id;
+
+    -- Rows outside every month partition (e.g. clock skew) land here; the
+    -- partition manager moves them out when it creates their month
+    CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+    oldest := (SELECT CAST(date_trunc('month', MIN(created_at)) AS date) FROM notifications_unpartitioned);
+    month := COALESCE(oldest, CAST(date_trunc('month', now()) AS date));
+    WHILE month <= CAST(date_trunc('month', now()) AS date) LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       'notifications_p' || to_char(month, 'YYYYMM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+
+    INSERT INTO notifications (id, user_id, type, message, is_read, reference_id, created_at, group_key, group_count)
+    SELECT id, user_id, type, message, is_read, reference_id, created_at, group_key, COALESCE(group_count, 1)
+    FROM notifications_unpartitioned;
+    GET DIAGNOSTICS copied = ROW_COUNT;
+
+    -- The entity's indexes; on a partitioned table they cascade to every partition
+    CREATE INDEX idx_notifications_user_read_created ON notifications (user_id, is_read, created_at);
+    CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
+
+    RAISE NOTICE 'Converted notifications to a partitioned table (% rows)', copied;
+END
+$$;
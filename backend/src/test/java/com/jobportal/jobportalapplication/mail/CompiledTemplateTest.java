@@ -0,0 +1,92 @@
+package com.jobportal.jobportalapplication.mail;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CompiledTemplate: escaping per part, sections and their standalone lines, and
+ * rejecting badly nested sections at compile time.
+ */
+class CompiledTemplateTest {
+
+    @Test
+    void placeholdersAreEscapedInHtmlAndRawInText() {
+        Map<String, Object> model = Map.of("name", "<b>Tom & \"Jerry\"</b>'s");
+
+        assertThat(render("Hi {{name}}!", true, model))
+                .isEqualTo("Hi &lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt;&#39;s!");
+        assertThat(render("Hi {{name}}!", false, model))
+                .isEqualTo("Hi <b>Tom & \"Jerry\"</b>'s!");
+    }
+
+    @Test
+    void missingValuesRenderAsEmpty() {
+        assertThat(render("[{{ missing }}]", false, Map.of())).isEqualTo("[]");
+    }
+
+    @Test
+    void sectionRepeatsPerElementWithTheOuterValuesInScope() {
+        Map<String, Object> model = Map.of(
+                "job", "Engineer",
+                "applicants", List.of(Map.of("name", "Ann"), Map.of("name", "Bob")));
+
+        assertThat(render("{{#applicants}}{{name}} for {{job}}; {{/applicants}}", false, model))
+                .isEqualTo("Ann for Engineer; Bob for Engineer; ");
+    }
+
+    @Test
+    void sectionIsSkippedForNullAndFalse() {
+        String template = "a{{#flag}}b{{/flag}}c";
+
+        assertThat(render(template, false, Map.of("flag", true))).isEqualTo("abc");
+        assertThat(render(template, false, Map.of("flag", "yes"))).isEqualTo("abc");
+        assertThat(render(template, false, Map.of("flag", false))).isEqualTo("ac");
+        assertThat(render(template, false, Map.of())).isEqualTo("ac");
+    }
+
+    @Test
+    void standaloneSectionLinesAreDropped() {
+        String template = "Applicants:\n"
+                + "  {{#applicants}}\n"
+                + "- {{name}}\n"
+                + "{{/applicants}}  \n"
+                + "Bye";
+        Map<String, Object> model = Map.of("applicants", List.of(Map.of("name", "Ann"), Map.of("name", "Bob")));
+
+        assertThat(render(template, false, model)).isEqualTo("Applicants:\n- Ann\n- Bob\nBye");
+        assertThat(render(template, false, Map.of())).isEqualTo("Applicants:\nBye");
+    }
+
+    @Test
+    void inlineSectionTagsKeepTheirLine() {
+        assertThat(render("x {{#flag}}on{{/flag}}\ny", false, Map.of("flag", true))).isEqualTo("x on\ny");
+    }
+
+    @Test
+    void unclosedSectionIsRejected() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("{{#items}}{{name}}", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unclosed {{#items}}");
+    }
+
+    @Test
+    void mismatchedOrStrayCloseIsRejected() {
+        assertThatThrownBy(() -> CompiledTemplate.compile("{{#a}}{{#b}}{{/a}}{{/b}}", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unexpected {{/a}}");
+        assertThatThrownBy(() -> CompiledTemplate.compile("text{{/a}}", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unexpected {{/a}}");
+    }
+
+    private static String render(String source, boolean html, Map<String, ?> model) {
+        StringBuilder out = new StringBuilder();
+        CompiledTemplate.compile(source, html).renderTo(out, model);
+        return out.toString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.jobportal.jobportalapplication.mail;
+
+import com.jobportal.jobportalapplication.support.SmtpStubServer;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MailDispatcher against an in-process SMTP server: connection reuse, per-message
+ * failures and the session cap.
+ */
+class MailDispatcherTest {
+
+    private SmtpStubServer smtp;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new SmtpStubServer();
+        dispatcher = dispatcher(smtp.port(), 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReflectionTestUtils.invokeMethod(dispatcher, "shutdown");
+        smtp.close();
+    }
+
+    @Test
+    void sendsBatchesOverOneReusedConnection() throws Exception {
+        assertThat(dispatcher.sendAll(messages(dispatcher, "a", 25))).isEmpty();
+        assertThat(dispatcher.sendAll(messages(dispatcher, "b", 5))).isEmpty();
+
+        assertThat(smtp.messages()).hasSize(30);
+        assertThat(smtp.connections()).isEqualTo(1);
+        assertThat(smtp.messages().get(0).recipients()).containsExactly("a0@example.com");
+        assertThat(smtp.messages().get(0).data()).contains("Subject: Message a0");
+    }
+
+    @Test
+    void rejectedRecipientFailsOnlyItsMessage() throws Exception {
+        smtp.reject("a3@example.com");
+
+        Map<String, Exception> failures = dispatcher.sendAll(messages(dispatcher, "a", 6));
+
+        assertThat(failures).containsOnlyKeys("a3");
+        assertThat(failures.get("a3")).isInstanceOf(SendFailedException.class);
+        assertThat(smtp.messages()).hasSize(5);
+        assertThat(smtp.connections()).isEqualTo(1);
+    }
+
+    @Test
+    void retiresConnectionAfterMaxMessages() throws Exception {
+        MailDispatcher capped = dispatcher(smtp.port(), 2, 10);
+
+        assertThat(capped.sendAll(messages(capped, "a", 25))).isEmpty();
+
+        assertThat(smtp.messages()).hasSize(25);
+        assertThat(smtp.connections()).isEqualTo(3);
+        ReflectionTestUtils.invokeMethod(capped, "shutdown");
+    }
+
+    @Test
+    void concurrentBatchesStayWithinSessionCap() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Map<String, Exception>>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                String prefix = "c" + i + "-";
+                results.add(callers.submit(() -> dispatcher.sendAll(messages(dispatcher, prefix, 20))));
+            }
+            for (Future<Map<String, Exception>> result : results) {
+                assertThat(result.get()).isEmpty();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(smtp.messages()).hasSize(120);
+        assertThat(smtp.peakOpenConnections()).isLessThanOrEqualTo(2);
+        assertThat(dispatcher.stats()).containsEntry("sent", 120L).containsEntry("sessionsActive", 0);
+    }
+
+    @Test
+    void unreachableRelayFailsWholeBatch() throws Exception {
+        smtp.close();
+
+        Map<String, Exception> failures = dispatcher.sendAll(messages(dispatcher, "a", 3));
+
+        assertThat(failures).containsOnlyKeys("a0", "a1", "a2");
+        assertThat(dispatcher.stats()).containsEntry("failed", 3L);
+    }
+
+    private static MailDispatcher dispatcher(int port, int maxSessions, int maxMessagesPerSession) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(port);
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        sender.setJavaMailProperties(properties);
+
+        MailDispatcher dispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "mailSender", sender);
+        ReflectionTestUtils.setField(dispatcher, "maxSessions", maxSessions);
+        ReflectionTestUtils.setField(dispatcher, "maxMessagesPerSession", maxMessagesPerSession);
+        ReflectionTestUtils.setField(dispatcher, "sessionIdleMs", 30_000L);
+        ReflectionTestUtils.setField(dispatcher, "sessionWaitMs", 10_000L);
+        ReflectionTestUtils.invokeMethod(dispatcher, "init");
+        return dispatcher;
+    }
+
+    private static Map<String, MimeMessage> messages(MailDispatcher dispatcher, String prefix, int count)
+            throws Exception {
+        Map<String, MimeMessage> messages = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = dispatcher.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom("noreply@example.com");
+            helper.setTo(prefix + i + "@example.com");
+            helper.setSubject("Message " + prefix + i);
+            helper.setText("Body of " + prefix + i);
+            messages.put(prefix + i, message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,91 @@
+package com.jobportal.jobportalapplication.mail;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * MailTemplateEngine: locale fallback per part (de_AT, then de, then the default)
+ * on hand-made templates, and the shipped templates loading and rendering.
+ */
+class MailTemplateEngineTest {
+
+    private MailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new MailTemplateEngine();
+        ReflectionTestUtils.setField(engine, "defaultLocale", "en");
+        engine.load();
+    }
+
+    @Test
+    void mostSpecificLocaleWinsForEachPart() {
+        template("greeting", "subject", "", "Hello");
+        template("greeting", "txt", "", "Hello {{name}}");
+        template("greeting", "subject", "de", "Hallo");
+        template("greeting", "txt", "de", "Hallo {{name}}");
+        template("greeting", "txt", "de_AT", "Servus {{name}}");
+
+        MailTemplateEngine.RenderedEmail austrian = engine.render("greeting", Locale.forLanguageTag("de-AT"), Map.of("name", "Anna"));
+        // de_AT text, de subject: each part falls back on its own
+        assertThat(austrian.text()).isEqualTo("Servus Anna");
+        assertThat(austrian.subject()).isEqualTo("Hallo");
+        assertThat(austrian.html()).isNull();
+
+        assertThat(engine.render("greeting", Locale.forLanguageTag("de-CH"), Map.of("name", "Anna")).text())
+                .isEqualTo("Hallo Anna");
+        assertThat(engine.render("greeting", Locale.GERMAN, Map.of("name", "Anna")).text())
+                .isEqualTo("Hallo Anna");
+        assertThat(engine.render("greeting", Locale.FRANCE, Map.of("name", "Anna")).text())
+                .isEqualTo("Hello Anna");
+        assertThat(engine.render("greeting", null, Map.of("name", "Anna")).text())
+                .isEqualTo("Hello Anna");
+    }
+
+    @Test
+    void htmlPartIsRenderedEscapedWhenPresent() {
+        template("note", "subject", "", "Note");
+        template("note", "txt", "", "{{body}}");
+        template("note", "html", "", "<p>{{body}}</p>");
+
+        MailTemplateEngine.RenderedEmail email = engine.render("note", Locale.ENGLISH, Map.of("body", "a < b"));
+
+        assertThat(email.text()).isEqualTo("a < b");
+        assertThat(email.html()).isEqualTo("<p>a &lt; b</p>");
+    }
+
+    @Test
+    void unknownTemplateIsRejected() {
+        assertThatThrownBy(() -> engine.render("no-such-template", Locale.ENGLISH, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown mail template: no-such-template");
+    }
+
+    @Test
+    void shippedTemplatesFallBackFromRegionToLanguage() {
+        Map<String, Object> model = Map.of("candidateName", "Anna", "jobTitle", "Engineer");
+
+        MailTemplateEngine.RenderedEmail german = engine.render("application-status", Locale.forLanguageTag("de-AT"), model);
+        MailTemplateEngine.RenderedEmail english = engine.render("application-status", Locale.forLanguageTag("fr-FR"), model);
+
+        assertThat(german.subject()).isEqualTo("Statusänderung Ihrer Bewerbung - Engineer");
+        assertThat(german.text()).startsWith("Hallo Anna,");
+        assertThat(english.subject()).isEqualTo("Application Status Update - Engineer");
+        assertThat(english.html()).isNotNull();
+    }
+
+    /** Parts go in under the same key the loader uses. */
+    @SuppressWarnings("unchecked")
+    private void template(String name, String part, String locale, String source) {
+        Map<String, CompiledTemplate> templates =
+                (Map<String, CompiledTemplate>) ReflectionTestUtils.getField(engine, "templates");
+        templates.put(name + '|' + part + '|' + locale, CompiledTemplate.compile(source, part.equals("html")));
+    }
+}
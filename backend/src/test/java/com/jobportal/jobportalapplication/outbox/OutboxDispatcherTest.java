@@ -0,0 +1,177 @@
+package com.jobportal.jobportalapplication.outbox;
+
+import com.jobportal.jobportalapplication.entity.OutboxMessage;
+import com.jobportal.jobportalapplication.entity.OutboxStatus;
+import com.jobportal.jobportalapplication.repo.OutboxMessageRepository;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OutboxDispatcher against Postgres, one drainOnce() at a time (the background
+ * thread is off): handled messages are deleted, failures are rescheduled with
+ * their error and the attempt count from the claim, and the last attempt marks
+ * the message FAILED for good.
+ */
+@DataJpaTest(properties = {
+        "app.outbox.enabled=false",
+        "app.outbox.max-attempts=2",
+        "app.outbox.base-backoff-ms=60000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+@Import({OutboxDispatcher.class, OutboxDispatcherTest.Handlers.class})
+class OutboxDispatcherTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    private static final List<String> HANDLED = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class Handlers {
+
+        @Bean
+        OutboxHandler succeeding() {
+            return handler("outbox-test-ok", null);
+        }
+
+        @Bean
+        OutboxHandler failing() {
+            return handler("outbox-test-fail", new IOException("SMTP down"));
+        }
+
+        private static OutboxHandler handler(String kind, Exception failure) {
+            return new OutboxHandler() {
+                @Override
+                public String kind() {
+                    return kind;
+                }
+
+                @Override
+                public void handle(String payload) throws Exception {
+                    HANDLED.add(payload);
+                    if (failure != null) {
+                        throw failure;
+                    }
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private OutboxMessageRepository repository;
+
+    private final List<Long> created = new ArrayList<>();
+    private ExecutorService workers;
+
+    @BeforeEach
+    void setUp() {
+        HANDLED.clear();
+        workers = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(dispatcher, "workers", workers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+        repository.deleteAllById(created);
+    }
+
+    @Test
+    void handledMessageIsDeleted() throws Exception {
+        Long id = message("outbox-test-ok", "\"hello\"");
+
+        dispatcher.drainOnce();
+
+        assertThat(HANDLED).contains("\"hello\"");
+        assertThat(repository.findById(id)).isEmpty();
+    }
+
+    @Test
+    void failureIsRetriedWithBackoffThenMarkedFailed() throws Exception {
+        Long id = message("outbox-test-fail", "\"retry me\"");
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.drainOnce();
+
+        OutboxMessage retrying = repository.findById(id).orElseThrow();
+        assertThat(retrying.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retrying.getAttempts()).isEqualTo(1);
+        assertThat(retrying.getLastError()).isEqualTo("IOException: SMTP down");
+        // First retry waits the base backoff
+        assertThat(retrying.getAvailableAt()).isAfter(before.plusSeconds(59));
+
+        // Not due again during the backoff
+        dispatcher.drainOnce();
+        assertThat(repository.findById(id).orElseThrow().getAttempts()).isEqualTo(1);
+
+        // Backoff over: the second and last attempt fails too
+        repository.reschedule(id, LocalDateTime.now().minusSeconds(1), retrying.getLastError());
+        dispatcher.drainOnce();
+
+        OutboxMessage failed = repository.findById(id).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+
+        // A FAILED message is never claimed again
+        repository.reschedule(id, LocalDateTime.now().minusSeconds(1), failed.getLastError());
+        dispatcher.drainOnce();
+        assertThat(repository.findById(id).orElseThrow().getAttempts()).isEqualTo(2);
+        assertThat(HANDLED).containsExactly("\"retry me\"", "\"retry me\"");
+    }
+
+    @Test
+    void messageWithoutHandlerIsMarkedFailed() throws Exception {
+        Long id = message("outbox-test-unknown", "{}");
+
+        dispatcher.drainOnce();
+
+        OutboxMessage failed = repository.findById(id).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(failed.getLastError()).isEqualTo("No handler for kind outbox-test-unknown");
+    }
+
+    private Long message(String kind, String payload) {
+        OutboxMessage message = new OutboxMessage();
+        message.setKind(kind);
+        message.setPayload(payload);
+        message.setStatus(OutboxStatus.PENDING);
+        message.setAttempts(0);
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        message.setAvailableAt(now);
+        message.setCreatedAt(now);
+        Long id = repository.save(message).getId();
+        created.add(id);
+        return id;
+    }
+}
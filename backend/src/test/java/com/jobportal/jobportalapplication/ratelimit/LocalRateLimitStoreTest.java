@@ -0,0 +1,147 @@
+package com.jobportal.jobportalapplication.ratelimit;
+
+import com.jobportal.jobportalapplication.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GCRA on the in-memory store, with a clock that only moves when told to: a
+ * bucket of 3 tokens refilling one per second is an increment of 1000ms and a
+ * tolerance of 3000ms.
+ */
+class LocalRateLimitStoreTest {
+
+    private static final long INCREMENT = 1000;
+    private static final long TOLERANCE = 3000;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final LocalRateLimitStore store = new LocalRateLimitStore(clock);
+
+    @Test
+    void fullBucketAllowsABurstOfCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isZero();
+        }
+
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isEqualTo(1000);
+    }
+
+    @Test
+    void rejectionReportsTheWaitUntilTheNextToken() {
+        drain("k");
+
+        clock.advance(Duration.ofMillis(400));
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isEqualTo(600);
+
+        clock.advance(Duration.ofMillis(600));
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isZero();
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isEqualTo(1000);
+    }
+
+    @Test
+    void costlierCallsTakeSeveralTokens() {
+        assertThat(store.tryAcquire("k", 2 * INCREMENT, TOLERANCE)).isZero();
+
+        assertThat(store.tryAcquire("k", 2 * INCREMENT, TOLERANCE)).isEqualTo(1000);
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isZero();
+    }
+
+    @Test
+    void costAboveCapacityIsNeverAllowed() {
+        assertThat(store.tryAcquire("k", 4 * INCREMENT, TOLERANCE)).isEqualTo(1000);
+
+        clock.advance(Duration.ofHours(1));
+        assertThat(store.tryAcquire("k", 4 * INCREMENT, TOLERANCE)).isEqualTo(1000);
+    }
+
+    @Test
+    void idleBucketRefillsUpToCapacityOnly() {
+        drain("k");
+
+        clock.advance(Duration.ofHours(1));
+
+        drain("k");
+    }
+
+    @Test
+    void rejectedCallsTakeNothing() {
+        drain("k");
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isEqualTo(1000);
+        }
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isZero();
+    }
+
+    @Test
+    void refundReturnsTheTokens() {
+        drain("k");
+
+        store.refund("k", INCREMENT);
+
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isZero();
+        assertThat(store.tryAcquire("k", INCREMENT, TOLERANCE)).isEqualTo(1000);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        drain("a");
+
+        assertThat(store.tryAcquire("b", INCREMENT, TOLERANCE)).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        int threads = 8;
+        int attempts = 200;
+        long capacity = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Integer> caller = () -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < attempts; i++) {
+                        if (store.tryAcquire("shared", INCREMENT, capacity * INCREMENT) == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                };
+                results.add(executor.submit(caller));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get();
+            }
+            // The clock stands still: exactly the burst, no token lost or granted twice
+            assertThat(allowed).isEqualTo(capacity);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Takes all three tokens, then checks the bucket is empty. */
+    private void drain(String key) {
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire(key, INCREMENT, TOLERANCE)).isZero();
+        }
+        assertThat(store.tryAcquire(key, INCREMENT, TOLERANCE)).isPositive();
+    }
+}
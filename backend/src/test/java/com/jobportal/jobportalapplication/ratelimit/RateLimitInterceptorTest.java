@@ -0,0 +1,137 @@
+package com.jobportal.jobportalapplication.ratelimit;
+
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import com.jobportal.jobportalapplication.security.UserDetailsImpl;
+import com.jobportal.jobportalapplication.support.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bucket sizing and the two-bucket check: a user allowed 2 calls and an IP allowed
+ * 4, both refilling one per second, on the in-memory store with a fixed clock.
+ */
+class RateLimitInterceptorTest {
+
+    static class Endpoints {
+        @RateLimited
+        void cheap() {
+        }
+
+        @RateLimited(cost = 2)
+        void expensive() {
+        }
+
+        void unlimited() {
+        }
+    }
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new RateLimitInterceptor();
+        ReflectionTestUtils.setField(interceptor, "rateLimitStore", new LocalRateLimitStore(clock));
+        ReflectionTestUtils.setField(interceptor, "enabled", true);
+        ReflectionTestUtils.setField(interceptor, "userCapacity", 2L);
+        ReflectionTestUtils.setField(interceptor, "userRefillPerMinute", 60L);
+        ReflectionTestUtils.setField(interceptor, "ipCapacity", 4L);
+        ReflectionTestUtils.setField(interceptor, "ipRefillPerMinute", 60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void anonymousCallsAreLimitedPerIp() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThat(call("cheap", "10.0.0.1")).isTrue();
+        }
+
+        assertThatThrownBy(() -> call("cheap", "10.0.0.1"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+        assertThat(call("cheap", "10.0.0.2")).isTrue();
+    }
+
+    @Test
+    void userLimitRejectsWithoutSpendingTheIpBudget() throws Exception {
+        signIn(7L);
+        assertThat(call("cheap", "10.0.0.1")).isTrue();
+        assertThat(call("cheap", "10.0.0.1")).isTrue();
+        assertThatThrownBy(() -> call("cheap", "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+
+        // The rejected call's IP token was refunded: two left for others behind the same address
+        SecurityContextHolder.clearContext();
+        assertThat(call("cheap", "10.0.0.1")).isTrue();
+        assertThat(call("cheap", "10.0.0.1")).isTrue();
+        assertThatThrownBy(() -> call("cheap", "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void userLimitFollowsTheUserAcrossAddresses() throws Exception {
+        signIn(7L);
+        assertThat(call("cheap", "10.0.0.1")).isTrue();
+        assertThat(call("cheap", "10.0.0.2")).isTrue();
+
+        assertThatThrownBy(() -> call("cheap", "10.0.0.3")).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void costTakesThatManyTokensAndRefillsOverTime() throws Exception {
+        signIn(7L);
+        assertThat(call("expensive", "10.0.0.1")).isTrue();
+        assertThatThrownBy(() -> call("expensive", "10.0.0.1"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(2));
+
+        clock.advance(Duration.ofMillis(1500));
+        assertThatThrownBy(() -> call("expensive", "10.0.0.1"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+
+        clock.advance(Duration.ofMillis(500));
+        assertThat(call("expensive", "10.0.0.1")).isTrue();
+    }
+
+    @Test
+    void unannotatedAndDisabledCallsPass() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(call("unlimited", "10.0.0.1")).isTrue();
+        }
+
+        ReflectionTestUtils.setField(interceptor, "enabled", false);
+        for (int i = 0; i < 10; i++) {
+            assertThat(call("cheap", "10.0.0.1")).isTrue();
+        }
+    }
+
+    private boolean call(String method, String remoteAddr) throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/ai/" + method);
+        request.setRemoteAddr(remoteAddr);
+        HandlerMethod handler = new HandlerMethod(new Endpoints(), Endpoints.class.getDeclaredMethod(method));
+        return interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+    }
+
+    private static void signIn(Long userId) {
+        UserDetailsImpl principal = UserDetailsImpl.build(userId, "user" + userId + "@example.com", Role.CANDIDATE);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.Candidate;
+import com.jobportal.jobportalapplication.entity.Job;
+import com.jobportal.jobportalapplication.repo.ApplicationRepository.ApplicationSummary;
+import com.jobportal.jobportalapplication.support.ApplicationFixture;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Application listings against Postgres (rolled back after each test): a page is
+ * one query plus the count, however many jobs, companies and candidates it spans.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+class ApplicationRepositoryTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Job firstJob;
+    private List<Candidate> candidates;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        ApplicationFixture fixture = ApplicationFixture.persist(entityManager, 3, 4);
+        firstJob = fixture.jobs().get(0);
+        candidates = fixture.candidates();
+
+        statistics.clear();
+    }
+
+    @Test
+    void candidatePageIsOneQueryPlusCount() {
+        Candidate candidate = candidates.get(0);
+
+        Page<ApplicationSummary> page = applicationRepository.findSummariesByCandidateId(
+                candidate.getId(), PageRequest.of(0, 2));
+        List<String> rows = page.map(ApplicationRepositoryTest::describe).getContent();
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(rows).hasSize(2).allMatch(row -> row.contains("Candidate 0"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void jobPageIsOneQueryPlusCount() {
+        Page<ApplicationSummary> page = applicationRepository.findSummariesByJobId(
+                firstJob.getId(), PageRequest.of(0, 3));
+        List<String> rows = page.map(ApplicationRepositoryTest::describe).getContent();
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(rows).hasSize(3).allMatch(row -> row.startsWith("Job 0 / Company 0"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static String describe(ApplicationSummary summary) {
+        return summary.getJobTitle() + " / " + summary.getCompanyName() + " / "
+                + summary.getCandidateName() + " <" + summary.getCandidateEmail() + ">";
+    }
+}
@@ -0,0 +1,159 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.Application;
+import com.jobportal.jobportalapplication.entity.Job;
+import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.support.ApplicationFixture;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Associations are lazy and each use case loads exactly its entity graph, in one
+ * statement. Counts come from Hibernate statistics, so an association that turns
+ * eager again (or a graph that stops joining) fails here. Runs against Postgres
+ * and is rolled back after each test.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+class FetchPlanTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    private static final int CANDIDATES = 4;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<Job> jobs;
+    private List<Application> applications;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        ApplicationFixture fixture = ApplicationFixture.persist(entityManager, 3, CANDIDATES);
+        jobs = fixture.jobs();
+        applications = fixture.applications();
+
+        statistics.clear();
+    }
+
+    @Test
+    void plainLoadDoesNotCascade() {
+        Application application = applicationRepository.findById(applications.get(0).getId()).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(application.getJob())).isFalse();
+        assertThat(Hibernate.isInitialized(application.getCandidate())).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userLoadsAlone() {
+        User user = userRepository.findById(jobs.get(0).getEmployer().getUser().getId()).orElseThrow();
+
+        assertThat(user.getEmail()).endsWith("@example.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void applicationDetailIsOneStatement() {
+        Application application = applicationRepository.findDetailById(applications.get(0).getId()).orElseThrow();
+
+        assertThat(application.getJob().getCompany().getName()).isEqualTo("Company 0");
+        assertThat(application.getJob().getEmployer().getUser().getEmail()).endsWith("@example.com");
+        assertThat(application.getCandidate().getUser().getEmail()).endsWith("@example.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        // application, job, company, employer, employer user, candidate, candidate user
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(7);
+    }
+
+    @Test
+    void rankingIsOneStatementForAllApplicants() {
+        List<Application> ranking = applicationRepository.findRankingByJobId(jobs.get(0).getId());
+
+        assertThat(ranking).hasSize(CANDIDATES);
+        for (Application application : ranking) {
+            assertThat(application.getCandidate().getUser().getEmail()).endsWith("@example.com");
+            assertThat(Hibernate.isInitialized(application.getJob())).isFalse();
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(3L * CANDIDATES);
+    }
+
+    @Test
+    void jobListingJoinsCompanyOnly() {
+        Page<Job> page = jobRepository.findAll(PageRequest.of(0, 2));
+
+        for (Job job : page) {
+            assertThat(job.getCompany().getName()).startsWith("Company ");
+            assertThat(job.getEmployer().getId()).isNotNull();
+            assertThat(Hibernate.isInitialized(job.getEmployer())).isFalse();
+        }
+        // Page query and count query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(4);
+    }
+
+    @Test
+    void jobApplicationCountsAreOneGroupedStatement() {
+        List<Long> jobIds = jobs.stream().map(Job::getId).toList();
+
+        Map<Long, Long> counts = applicationRepository.countByJobIds(jobIds).stream()
+                .collect(Collectors.toMap(ApplicationRepository.JobCount::getJobId,
+                        ApplicationRepository.JobCount::getApplications));
+
+        assertThat(counts).containsOnlyKeys(jobIds);
+        assertThat(counts.values()).containsOnly((long) CANDIDATES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void jobDetailIsOneStatement() {
+        Job job = jobRepository.findDetailById(jobs.get(1).getId()).orElseThrow();
+
+        assertThat(job.getCompany().getName()).isEqualTo("Company 1");
+        assertThat(job.getEmployer().getUser().getEmail()).endsWith("@example.com");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(4);
+    }
+}
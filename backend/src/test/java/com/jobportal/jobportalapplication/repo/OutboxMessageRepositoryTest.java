@@ -0,0 +1,136 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.OutboxMessage;
+import com.jobportal.jobportalapplication.entity.OutboxStatus;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The outbox claim query. Messages are made due in the year 2000 and claimed with
+ * a clock just after that, so rows other tests leave in the table are never
+ * touched; every call commits on its own as it does from the dispatcher.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+class OutboxMessageRepositoryTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    private OutboxMessageRepository repository;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllById(created);
+    }
+
+    @Test
+    void concurrentClaimersGetDisjointRows() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            message();
+        }
+        LocalDateTime now = DUE.plusMinutes(1);
+
+        ExecutorService claimers = Executors.newFixedThreadPool(4);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Long> claimed = new CopyOnWriteArrayList<>();
+        List<Future<?>> runs = new ArrayList<>();
+        try {
+            for (int t = 0; t < 4; t++) {
+                runs.add(claimers.submit(() -> {
+                    go.await();
+                    List<OutboxMessage> batch;
+                    while (!(batch = repository.claim(now, now.plusMinutes(2), 3)).isEmpty()) {
+                        batch.forEach(message -> claimed.add(message.getId()));
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> run : runs) {
+                run.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            claimers.shutdownNow();
+        }
+
+        // Every message claimed exactly once
+        assertThat(claimed).hasSize(40).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(created);
+        assertThat(repository.findAllById(created))
+                .allSatisfy(message -> assertThat(message.getAttempts()).isEqualTo(1));
+    }
+
+    @Test
+    void leasedMessageIsClaimedAgainOnlyAfterTheLeaseRunsOut() {
+        Long id = message();
+
+        List<OutboxMessage> first = repository.claim(DUE, DUE.plusMinutes(2), 10);
+        assertThat(first).extracting(OutboxMessage::getId).containsExactly(id);
+        assertThat(first.get(0).getAttempts()).isEqualTo(1);
+        assertThat(first.get(0).getAvailableAt()).isEqualTo(DUE.plusMinutes(2));
+
+        // Still leased to the first claimer
+        assertThat(repository.claim(DUE.plusMinutes(1), DUE.plusMinutes(3), 10)).isEmpty();
+
+        // The claimer died: once the lease is over the message is due again
+        List<OutboxMessage> second = repository.claim(DUE.plusMinutes(2), DUE.plusMinutes(4), 10);
+        assertThat(second).extracting(OutboxMessage::getId).containsExactly(id);
+        assertThat(second.get(0).getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void failedMessagesAreNeverClaimed() {
+        Long id = message();
+        repository.markFailed(id, "gave up");
+
+        assertThat(repository.claim(DUE.plusMinutes(1), DUE.plusMinutes(2), 10)).isEmpty();
+
+        OutboxMessage failed = repository.findById(id).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(failed.getLastError()).isEqualTo("gave up");
+        assertThat(failed.getAttempts()).isZero();
+    }
+
+    private Long message() {
+        OutboxMessage message = new OutboxMessage();
+        message.setKind("test");
+        message.setPayload("{}");
+        message.setStatus(OutboxStatus.PENDING);
+        message.setAttempts(0);
+        message.setAvailableAt(DUE);
+        message.setCreatedAt(DUE);
+        Long id = repository.save(message).getId();
+        created.add(id);
+        return id;
+    }
+}
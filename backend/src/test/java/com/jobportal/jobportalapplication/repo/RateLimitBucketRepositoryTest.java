@@ -0,0 +1,128 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The GCRA upsert on Postgres. Buckets refill one token a minute, so the few
+ * milliseconds a test takes never add a token. Each call commits on its own, as
+ * it does behind PostgresRateLimitStore; keys are unique per test and deleted
+ * afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+class RateLimitBucketRepositoryTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    private static final long INCREMENT = 60_000;
+
+    @Autowired
+    private RateLimitBucketRepository repository;
+
+    private final String key = "test:" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllById(List.of(key));
+    }
+
+    @Test
+    void firstCallCreatesTheBucket() {
+        List<Long> tat = repository.tryAcquire(key, INCREMENT, 3 * INCREMENT);
+
+        assertThat(tat).hasSize(1);
+        assertThat(repository.findBacklog(key)).singleElement()
+                .satisfies(backlog -> assertThat(backlog).isBetween(INCREMENT - 5_000, INCREMENT));
+    }
+
+    @Test
+    void burstOfCapacityThenRejectedWithoutAdvancing() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(repository.tryAcquire(key, INCREMENT, 3 * INCREMENT)).hasSize(1);
+        }
+        long backlog = repository.findBacklog(key).get(0);
+
+        assertThat(repository.tryAcquire(key, INCREMENT, 3 * INCREMENT)).isEmpty();
+        // The rejected call left the TAT where it was
+        assertThat(repository.findBacklog(key).get(0)).isBetween(backlog - 5_000, backlog);
+        assertThat(backlog).isGreaterThan(2 * INCREMENT);
+    }
+
+    @Test
+    void costAboveCapacityIsRejectedEvenOnANewBucket() {
+        assertThat(repository.tryAcquire(key, 4 * INCREMENT, 3 * INCREMENT)).isEmpty();
+
+        assertThat(repository.findBacklog(key)).isEmpty();
+    }
+
+    @Test
+    void refundReturnsTheTokens() {
+        assertThat(repository.tryAcquire(key, 2 * INCREMENT, 3 * INCREMENT)).hasSize(1);
+        assertThat(repository.tryAcquire(key, 2 * INCREMENT, 3 * INCREMENT)).isEmpty();
+
+        repository.refund(key, 2 * INCREMENT);
+
+        assertThat(repository.tryAcquire(key, 2 * INCREMENT, 3 * INCREMENT)).hasSize(1);
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        int threads = 8;
+        int attempts = 20;
+        long capacity = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Integer> caller = () -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < attempts; i++) {
+                        if (!repository.tryAcquire(key, INCREMENT, capacity * INCREMENT).isEmpty()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                };
+                results.add(executor.submit(caller));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get();
+            }
+            // Racing first inserts fall through to the update; the row lock serializes the rest
+            assertThat(allowed).isEqualTo(capacity);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
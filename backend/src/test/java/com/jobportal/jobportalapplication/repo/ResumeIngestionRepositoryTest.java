@@ -0,0 +1,109 @@
+package com.jobportal.jobportalapplication.repo;
+
+import com.jobportal.jobportalapplication.entity.ResumeIngestion;
+import com.jobportal.jobportalapplication.entity.ResumeIngestionStatus;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The stale-ingestion sweep queries. Staleness is set with updateStatus, which
+ * bypasses auditing; every call commits on its own as it does from the sweep.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+class ResumeIngestionRepositoryTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    private static final List<ResumeIngestionStatus> IN_FLIGHT = List.of(
+            ResumeIngestionStatus.QUEUED, ResumeIngestionStatus.EXTRACTING,
+            ResumeIngestionStatus.NORMALIZING, ResumeIngestionStatus.ANALYZING);
+
+    @Autowired
+    private ResumeIngestionRepository repository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LocalDateTime cutoff = now.minusMinutes(10);
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllById(created);
+    }
+
+    @Test
+    void findsOnlyInFlightRowsOlderThanTheCutoff() {
+        Long stuck = ingestion(ResumeIngestionStatus.EXTRACTING, now.minusHours(1));
+        Long active = ingestion(ResumeIngestionStatus.ANALYZING, now.minusMinutes(1));
+        Long done = ingestion(ResumeIngestionStatus.COMPLETED, now.minusHours(1));
+
+        List<Long> found = ids(repository.findStale(IN_FLIGHT, cutoff, 2, PageRequest.of(0, 100)));
+
+        assertThat(found).contains(stuck).doesNotContain(active, done);
+    }
+
+    @Test
+    void onlyOneRequeueWinsAndCountsTheRecovery() {
+        Long stuck = ingestion(ResumeIngestionStatus.ANALYZING, now.minusHours(1));
+
+        assertThat(repository.requeueIfStale(stuck, IN_FLIGHT, cutoff, ResumeIngestionStatus.QUEUED, now)).isEqualTo(1);
+        // A second instance running the same sweep sees a fresh row
+        assertThat(repository.requeueIfStale(stuck, IN_FLIGHT, cutoff, ResumeIngestionStatus.QUEUED, now)).isZero();
+
+        ResumeIngestion row = repository.findById(stuck).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo(ResumeIngestionStatus.QUEUED);
+        assertThat(row.getRecoveries()).isEqualTo(1);
+    }
+
+    @Test
+    void rowsOutOfRecoveriesAreFailedNotFound() {
+        Long stuck = ingestion(ResumeIngestionStatus.EXTRACTING, now.minusHours(1));
+        for (int i = 0; i < 2; i++) {
+            repository.requeueIfStale(stuck, IN_FLIGHT, cutoff, ResumeIngestionStatus.QUEUED, now.minusHours(1));
+        }
+
+        assertThat(ids(repository.findStale(IN_FLIGHT, cutoff, 2, PageRequest.of(0, 100)))).doesNotContain(stuck);
+        assertThat(repository.failStale(IN_FLIGHT, cutoff, 2, ResumeIngestionStatus.FAILED, "interrupted", now))
+                .isGreaterThanOrEqualTo(1);
+
+        ResumeIngestion row = repository.findById(stuck).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo(ResumeIngestionStatus.FAILED);
+        assertThat(row.getErrorMessage()).isEqualTo("interrupted");
+    }
+
+    private Long ingestion(ResumeIngestionStatus status, LocalDateTime updatedAt) {
+        ResumeIngestion ingestion = new ResumeIngestion();
+        ingestion.setUserId(-1L);
+        ingestion.setFileUrl("/api/files/download/resume/" + "ab".repeat(32) + ".pdf");
+        ingestion.setExtension("pdf");
+        Long id = repository.save(ingestion).getId();
+        created.add(id);
+        repository.updateStatus(id, status, updatedAt);
+        return id;
+    }
+
+    private static List<Long> ids(List<ResumeIngestion> rows) {
+        return rows.stream().map(ResumeIngestion::getId).toList();
+    }
+}
@@ -0,0 +1,221 @@
+package com.jobportal.jobportalapplication.security;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.logging.RequestLoggingFilter;
+import com.jobportal.jobportalapplication.logging.SampledDebugTurboFilter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput of the request filter chain (request logging + JWT authentication)
+ * for authenticated requests.
+ *
+ * Logging is configured like production (INFO, async appender) but writes to a
+ * discarding stream, and System.out/err are redirected there too, so the numbers
+ * show the cost on the request thread rather than the terminal's speed.
+ *
+ * Tagged {@code load} so it only runs with {@code mvn test -Pload-test}.
+ * Tune with -Dload.clients and -Dload.requests.
+ */
+@Tag("load")
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 400_000);
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+    private final PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+
+    private LoggerContext loggerContext;
+    private RequestLoggingFilter requestLoggingFilter;
+    private JwtAuthenticationFilter jwtFilter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        configureLogging();
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(tokenProvider, "tokenRevocationService", mock(TokenRevocationService.class));
+        tokenProvider.init();
+
+        jwtFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtFilter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(jwtFilter, "userDetailsService", mock(UserDetailsServiceImpl.class));
+
+        requestLoggingFilter = new RequestLoggingFilter();
+        ReflectionTestUtils.setField(requestLoggingFilter, "debugSampleRate", 0.01);
+        ReflectionTestUtils.setField(requestLoggingFilter, "accessLog", true);
+
+        token = tokenProvider.generateToken(UserDetailsImpl.build(42L, "candidate@example.com", Role.CANDIDATE));
+
+        System.setOut(discard);
+        System.setErr(discard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        loggerContext.reset();
+    }
+
+    @Test
+    void authenticatedRequestThroughput() throws Exception {
+        // Warm up the JIT and the verified-token cache
+        run(REQUESTS / 4);
+        Result result = run(REQUESTS);
+
+        originalOut.printf("[load] %-18s clients=%d requests=%d elapsed=%dms throughput=%.0f req/s "
+                        + "p50=%.1fus p99=%.1fus unauthenticated=%d%n",
+                "jwt-filter", CLIENTS, REQUESTS, result.elapsedMs(), result.throughput(),
+                result.p50Micros(), result.p99Micros(), result.unauthenticated());
+
+        assertThat(result.unauthenticated()).isZero();
+    }
+
+    // ==================== HARNESS ====================
+
+    private Result run(int requests) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicLong unauthenticated = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[requests / CLIENTS + 1];
+                int n = 0;
+                while (remaining.getAndDecrement() > 0) {
+                    long t0 = System.nanoTime();
+                    if (!handle()) {
+                        unauthenticated.incrementAndGet();
+                    }
+                    if (n < latencies.length) {
+                        latencies[n++] = System.nanoTime() - t0;
+                    }
+                }
+                long[] used = new long[n];
+                System.arraycopy(latencies, 0, used, 0, n);
+                return used;
+            }));
+        }
+
+        List<Long> all = new ArrayList<>(requests);
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get(5, TimeUnit.MINUTES)) {
+                all.add(latency);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        clients.shutdown();
+
+        all.sort(null);
+        return new Result(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), requests / (elapsedNanos / 1e9),
+                percentileMicros(all, 0.50), percentileMicros(all, 0.99), unauthenticated.get());
+    }
+
+    private boolean handle() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/applications/my-applications");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean[] authenticated = new boolean[1];
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                authenticated[0] = SecurityContextHolder.getContext().getAuthentication() != null;
+            }
+        }, requestLoggingFilter, jwtFilter);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return authenticated[0];
+    }
+
+    private void configureLogging() {
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %5p [%X{requestId:-},%X{userId:-}] %logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(loggerContext);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(sink);
+        async.start();
+
+        Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(async);
+
+        SampledDebugTurboFilter sampled = new SampledDebugTurboFilter();
+        sampled.setContext(loggerContext);
+        sampled.start();
+        loggerContext.addTurboFilter(sampled);
+    }
+
+    private static double percentileMicros(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1_000.0;
+    }
+
+    private record Result(long elapsedMs, double throughput, double p50Micros, double p99Micros,
+                          long unauthenticated) {
+    }
+}
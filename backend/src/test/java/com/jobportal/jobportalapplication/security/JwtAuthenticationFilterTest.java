@@ -0,0 +1,163 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.event.TokensRevokedEvent;
+import com.jobportal.jobportalapplication.repo.UserRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which bearer tokens authenticate a request: access tokens from their claims,
+ * never refresh tokens, never revoked ones even while their signature check is
+ * cached, and tokens from before the id/role claims by loading the user.
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "filter-test-secret-filter-test-secret-0123456789";
+
+    private UserDetailsServiceImpl userDetailsService;
+    private TokenRevocationService tokenRevocationService;
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "userRepository", mock(UserRepository.class));
+        ReflectionTestUtils.setField(tokenRevocationService, "maxTokenLifetimeMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenRevocationService, "eventPublisher", (ApplicationEventPublisher) event ->
+                tokenRevocationService.onTokensRevoked((TokensRevokedEvent) event));
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 900_000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 1_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(tokenProvider, "tokenRevocationService", tokenRevocationService);
+        tokenProvider.init();
+
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void accessTokenAuthenticatesFromItsClaims() throws Exception {
+        String token = tokenProvider.generateToken(UserDetailsImpl.build(7L, "user7@example.com", Role.EMPLOYER));
+
+        Authentication authentication = filter(token);
+
+        assertThat(authentication).isNotNull();
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_EMPLOYER");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void refreshTokenIsNotAnAccessToken() throws Exception {
+        String refresh = tokenProvider.generateRefreshToken(UserDetailsImpl.build(7L, "user7@example.com", Role.CANDIDATE));
+        assertThat(tokenProvider.verify(refresh)).isPresent();
+
+        assertThat(filter(refresh)).isNull();
+    }
+
+    @Test
+    void revokedTokenIsRejectedWhileItsVerificationIsCached() throws Exception {
+        String token = tokenProvider.generateToken(UserDetailsImpl.build(7L, "user7@example.com", Role.CANDIDATE));
+        assertThat(filter(token)).isNotNull();
+        SecurityContextHolder.clearContext();
+
+        tokenRevocationService.revokeAllTokens(7L);
+
+        assertThat(filter(token)).isNull();
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        String token = tokenProvider.generateToken(UserDetailsImpl.build(7L, "user7@example.com", Role.CANDIDATE));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(filter(tampered)).isNull();
+    }
+
+    @Test
+    void legacyTokenLoadsTheUser() throws Exception {
+        when(userDetailsService.loadUserByUsername("old@example.com")).thenReturn(UserDetailsImpl.build(user(9L, true)));
+
+        Authentication authentication = filter(legacyToken("old@example.com"));
+
+        assertThat(authentication).isNotNull();
+        assertThat(((UserDetailsImpl) authentication.getPrincipal()).getId()).isEqualTo(9L);
+        verify(userDetailsService).loadUserByUsername("old@example.com");
+    }
+
+    @Test
+    void legacyTokenOfADisabledOrDeletedUserIsRejected() throws Exception {
+        when(userDetailsService.loadUserByUsername("off@example.com")).thenReturn(UserDetailsImpl.build(user(9L, false)));
+        when(userDetailsService.loadUserByUsername("gone@example.com"))
+                .thenThrow(new UsernameNotFoundException("gone@example.com"));
+
+        assertThat(filter(legacyToken("off@example.com"))).isNull();
+        assertThat(filter(legacyToken("gone@example.com"))).isNull();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    /** A token as issued before the id, role and type claims were added. */
+    private static String legacyToken(String email) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(email)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusSeconds(600)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static User user(Long id, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("{bcrypt}hash");
+        user.setRole(Role.CANDIDATE);
+        user.setIsActive(active);
+        return user;
+    }
+}
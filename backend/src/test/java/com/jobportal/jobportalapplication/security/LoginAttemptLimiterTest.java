@@ -0,0 +1,247 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import com.jobportal.jobportalapplication.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Failed-login throttling with a clock that only moves when told to. Windows are
+ * 100 seconds and the clock starts on a window boundary. An email gets 3 free
+ * failures and is blocked at 10; an IP gets 5 and is blocked at 8. Delays start at
+ * 1s, double per failure and are capped at 5s.
+ */
+class LoginAttemptLimiterTest {
+
+    private static final long WINDOW_MS = 100_000;
+    private static final String IP = "203.0.113.7";
+    private static final String EMAIL = "ada@campus.example";
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(WINDOW_MS * 20_000_000));
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginAttemptLimiter(clock);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        // Plenty of slots: the IPs in a test must not share one
+        ReflectionTestUtils.setField(limiter, "stripes", 1 << 18);
+        ReflectionTestUtils.setField(limiter, "emailMaxKeys", 100_000L);
+        ReflectionTestUtils.setField(limiter, "windowSeconds", WINDOW_MS / 1000);
+        ReflectionTestUtils.setField(limiter, "baseDelayMs", 1000L);
+        ReflectionTestUtils.setField(limiter, "maxDelayMs", 5000L);
+        ReflectionTestUtils.setField(limiter, "emailFreeFailures", 3);
+        ReflectionTestUtils.setField(limiter, "emailMaxFailures", 10);
+        ReflectionTestUtils.setField(limiter, "ipFreeFailures", 5);
+        ReflectionTestUtils.setField(limiter, "ipMaxFailures", 8);
+        limiter.init();
+    }
+
+    // ==================== DELAY STEPS ====================
+
+    @Test
+    void freeFailuresAreNotDelayed() {
+        failEmail(3);
+
+        assertAllowed(IP, EMAIL);
+    }
+
+    @Test
+    void delayDoublesWithEachFailureUpToTheCap() {
+        failEmail(3);
+
+        failEmail(1);
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(1);
+        failEmail(1);
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(2);
+        failEmail(1);
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(4);
+        failEmail(1);
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(5);
+        failEmail(1);
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(5);
+    }
+
+    @Test
+    void attemptIsAllowedOnceTheDelayHasPassed() {
+        failEmail(5);
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(2);
+
+        clock.advance(Duration.ofMillis(1999));
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(1);
+
+        clock.advance(Duration.ofMillis(1));
+        assertAllowed(IP, EMAIL);
+    }
+
+    @Test
+    void hardLimitBlocksForTheRestOfTheWindow() {
+        clock.advance(Duration.ofSeconds(30));
+
+        failEmail(10);
+
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(70);
+        clock.advance(Duration.ofSeconds(70));
+        assertAllowed(IP, EMAIL);
+    }
+
+    // ==================== WINDOW ROLLOVER ====================
+
+    @Test
+    void previousWindowCountsFullyAtTheStartOfTheNext() {
+        failEmail(3);
+
+        clock.advance(Duration.ofMillis(WINDOW_MS));
+        failEmail(1);
+
+        // 3 carried over + 1 new: one past the free failures
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(1);
+    }
+
+    @Test
+    void previousWindowWeighsLessAsTheNextOneGoesOn() {
+        failEmail(3);
+
+        clock.advance(Duration.ofMillis(WINDOW_MS + WINDOW_MS / 2));
+        failEmail(1);
+        // 3 * 0.5 + 1
+        assertAllowed(IP, EMAIL);
+
+        failEmail(1);
+        // 3 * 0.5 + 2
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(1);
+    }
+
+    @Test
+    void failuresTwoWindowsOldAreForgotten() {
+        failEmail(9);
+
+        clock.advance(Duration.ofMillis(2 * WINDOW_MS));
+        failEmail(3);
+
+        assertAllowed(IP, EMAIL);
+    }
+
+    @Test
+    void blockEndsWithTheWindowButTheFailuresCarryOver() {
+        failEmail(10);
+
+        clock.advance(Duration.ofMillis(WINDOW_MS));
+        assertAllowed(IP, EMAIL);
+
+        failEmail(1);
+        // 10 carried over + 1: blocked again straight away
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(100);
+    }
+
+    // ==================== IP AND EMAIL ====================
+
+    @Test
+    void ipIsDelayedAcrossEmails() {
+        for (int i = 0; i < 6; i++) {
+            limiter.recordFailure(IP, "user" + i + "@campus.example");
+        }
+
+        assertThat(waitSeconds(IP, "someone.else@campus.example")).isEqualTo(1);
+        // The emails themselves are well within their budget
+        assertAllowed("198.51.100.1", "user0@campus.example");
+    }
+
+    @Test
+    void emailIsDelayedAcrossIps() {
+        for (int i = 0; i < 4; i++) {
+            limiter.recordFailure("198.51.100." + i, EMAIL);
+        }
+
+        assertThat(waitSeconds("192.0.2.99", EMAIL)).isEqualTo(1);
+        assertAllowed("198.51.100.0", "other@campus.example");
+    }
+
+    @Test
+    void stuffingRunNeverThrottlesAnUntargetedEmail() {
+        // Every targeted email is driven to its hard limit
+        for (int i = 0; i < 20_000; i++) {
+            for (int j = 0; j < 10; j++) {
+                limiter.recordFailure(IP, "target" + i + "@campus.example");
+            }
+        }
+
+        assertThat(waitSeconds("192.0.2.99", "target0@campus.example")).isEqualTo(100);
+        assertThat(waitSeconds("192.0.2.99", "target19999@campus.example")).isEqualTo(100);
+        for (int i = 0; i < 100; i++) {
+            assertAllowed("192.0.2.99", "bystander" + i + "@campus.example");
+        }
+    }
+
+    @Test
+    void whenBothAreDelayedTheLongerWaitApplies() {
+        for (int i = 0; i < 6; i++) {
+            limiter.recordFailure(IP, EMAIL);
+        }
+
+        // Email: 3 past its free failures, 4s. IP: 1 past, 1s
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(4);
+        assertThat(waitSeconds(IP, "other@campus.example")).isEqualTo(1);
+        assertThat(waitSeconds("192.0.2.99", EMAIL)).isEqualTo(4);
+    }
+
+    @Test
+    void successClearsTheEmailButNotTheIp() {
+        for (int i = 0; i < 6; i++) {
+            limiter.recordFailure(IP, EMAIL);
+        }
+
+        limiter.recordSuccess(EMAIL);
+
+        assertAllowed("192.0.2.99", EMAIL);
+        assertThat(waitSeconds(IP, EMAIL)).isEqualTo(1);
+    }
+
+    @Test
+    void emailsAreComparedNormalized() {
+        for (int i = 0; i < 4; i++) {
+            limiter.recordFailure("198.51.100." + i, i % 2 == 0 ? " Ada@Campus.example " : EMAIL);
+        }
+
+        assertThat(waitSeconds("192.0.2.99", "ADA@campus.EXAMPLE")).isEqualTo(1);
+    }
+
+    @Test
+    void disabledLimiterNeverRejects() {
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+
+        failEmail(20);
+
+        assertAllowed(IP, EMAIL);
+    }
+
+    // ==================== HELPERS ====================
+
+    /** Failures for {@link #EMAIL}, each from a different address so only the email limit applies. */
+    private void failEmail(int times) {
+        for (int i = 0; i < times; i++) {
+            limiter.recordFailure("10.0." + (i / 250) + "." + (i % 250), EMAIL);
+        }
+    }
+
+    private long waitSeconds(String ip, String email) {
+        try {
+            limiter.checkAllowed(ip, email);
+        } catch (TooManyRequestsException e) {
+            return e.getRetryAfterSeconds();
+        }
+        throw new AssertionError("Expected " + ip + " / " + email + " to be delayed");
+    }
+
+    private void assertAllowed(String ip, String email) {
+        assertThatCode(() -> limiter.checkAllowed(ip, email)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,141 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.repo.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The Bloom filter in front of revoked_tokens: negatives never reach the table, and
+ * every positive (true or false) is settled by it. The table is an in-memory map.
+ */
+class RevokedTokenStoreTest {
+
+    private static final long HOUR = 3_600_000;
+
+    private final Map<String, LocalDateTime> rows = new ConcurrentHashMap<>();
+    private RevokedTokenRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.revoke(anyString(), anyLong(), any(), any())).thenAnswer(invocation ->
+                rows.putIfAbsent(invocation.getArgument(0), invocation.getArgument(2)) == null ? 1 : 0);
+        when(repository.existsById(anyString()))
+                .thenAnswer(invocation -> rows.containsKey(invocation.<String>getArgument(0)));
+        when(repository.findRevokedSince(any(), any())).thenAnswer(invocation -> rows.entrySet().stream()
+                .map(row -> new Object[]{row.getKey(), row.getValue()}).toList());
+    }
+
+    @Test
+    void revokedTokenIsConfirmedByTheTable() {
+        RevokedTokenStore store = store(1000, 0.01);
+        long expiresAt = System.currentTimeMillis() + HOUR;
+
+        assertThat(store.revoke("spent", 1L, expiresAt)).isTrue();
+
+        assertThat(store.isRevoked("spent", expiresAt)).isTrue();
+        verify(repository).existsById("spent");
+    }
+
+    @Test
+    void revokingTwiceReportsTheSecondClaimAsLost() {
+        RevokedTokenStore store = store(1000, 0.01);
+        long expiresAt = System.currentTimeMillis() + HOUR;
+
+        assertThat(store.revoke("once", 1L, expiresAt)).isTrue();
+        assertThat(store.revoke("once", 1L, expiresAt)).isFalse();
+    }
+
+    @Test
+    void negativeAnswersNeverQueryTheTable() {
+        RevokedTokenStore store = store(1000, 0.01);
+        long expiresAt = System.currentTimeMillis() + HOUR;
+        store.revoke("spent", 1L, expiresAt);
+
+        // An empty expiry bucket and a filter miss
+        assertThat(store.isRevoked("fresh", expiresAt + 48 * HOUR)).isFalse();
+        for (int i = 0; i < 100; i++) {
+            store.isRevoked(UUID.randomUUID().toString(), expiresAt);
+        }
+
+        verify(repository, times(0)).existsById("fresh");
+        // At a 1% false-positive rate, hardly any of the 100 misses should reach the table
+        verify(repository, atMost(5)).existsById(anyString());
+    }
+
+    @Test
+    void falsePositiveFallsBackToTheExactCheck() {
+        // A 64-bit filter saturated by a few hundred ids answers "maybe" for anything
+        RevokedTokenStore store = store(1, 0.5);
+        long expiresAt = System.currentTimeMillis() + HOUR;
+        for (int i = 0; i < 500; i++) {
+            store.revoke("spent-" + i, 1L, expiresAt);
+        }
+
+        assertThat(store.isRevoked("never-revoked", expiresAt)).isFalse();
+        verify(repository).existsById("never-revoked");
+        assertThat(store.isRevoked("spent-7", expiresAt)).isTrue();
+    }
+
+    @Test
+    void revocationsFromOtherNodesArriveWithTheSync() {
+        RevokedTokenStore store = store(1000, 0.01);
+        long expiresAt = System.currentTimeMillis() + HOUR;
+        rows.put("elsewhere", LocalDateTime.now().plusHours(1));
+
+        assertThat(store.isRevoked("elsewhere", expiresAt)).isFalse();
+        verify(repository, never()).existsById(anyString());
+
+        store.sync();
+
+        assertThat(store.isRevoked("elsewhere", expiresAt)).isTrue();
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndRoughlyItsTargetRate() {
+        RevokedTokenStore.BloomFilter filter = new RevokedTokenStore.BloomFilter(10_000, 0.01);
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            members.add("member-" + i);
+            filter.add("member-" + i);
+        }
+
+        assertThat(members).allMatch(filter::mightContain);
+        long falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    private RevokedTokenStore store(int expectedPerBucket, double falsePositiveRate) {
+        RevokedTokenStore store = new RevokedTokenStore();
+        ReflectionTestUtils.setField(store, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(store, "bucketHours", 24L);
+        ReflectionTestUtils.setField(store, "expectedPerBucket", expectedPerBucket);
+        ReflectionTestUtils.setField(store, "falsePositiveRate", falsePositiveRate);
+        store.load();
+        return store;
+    }
+}
@@ -0,0 +1,111 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.repo.UserRepository;
+import com.jobportal.jobportalapplication.support.NoOpTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The in-memory cut-off follows the transaction that wrote users.tokens_valid_after:
+ * applied on commit, never on rollback, at once without a transaction. Runs in a
+ * small Spring context with {@link NoOpTransactionManager}.
+ */
+class TokenRevocationServiceTest {
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        TokenRevocationService tokenRevocationService() {
+            return new TokenRevocationService();
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+    }
+
+    private AnnotationConfigApplicationContext context;
+    private TokenRevocationService service;
+    private TransactionTemplate transactionTemplate;
+    private long issuedAt;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("test", Map.of("jwt.refresh-expiration", "86400000")));
+        context.register(Config.class);
+        context.refresh();
+        service = context.getBean(TokenRevocationService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        issuedAt = Instant.now().getEpochSecond();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void cutoffAppliesOnlyOnceTheTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            service.revokeAllTokens(1L);
+            assertThat(service.isRevoked(1L, issuedAt)).isFalse();
+        });
+
+        assertThat(service.isRevoked(1L, issuedAt)).isTrue();
+        verify(context.getBean(UserRepository.class)).updateTokensValidAfter(eq(1L), any());
+    }
+
+    @Test
+    void rolledBackRevocationIsNeverApplied() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            service.revokeAllTokens(1L);
+            throw new IllegalStateException("password change failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(service.isRevoked(1L, issuedAt)).isFalse();
+    }
+
+    @Test
+    void withoutATransactionTheCutoffAppliesAtOnce() {
+        service.revokeTokensIssuedBefore(1L, issuedAt);
+
+        assertThat(service.isRevoked(1L, issuedAt - 1)).isTrue();
+        assertThat(service.isRevoked(1L, issuedAt)).isFalse();
+        assertThat(service.isRevoked(2L, issuedAt - 1)).isFalse();
+    }
+
+    @Test
+    void laterCutoffWins() {
+        service.revokeTokensIssuedBefore(1L, issuedAt);
+        service.revokeTokensIssuedBefore(1L, issuedAt - 100);
+
+        assertThat(service.isRevoked(1L, issuedAt - 1)).isTrue();
+    }
+}
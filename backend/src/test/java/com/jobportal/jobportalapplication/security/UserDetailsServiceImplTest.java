@@ -0,0 +1,156 @@
+package com.jobportal.jobportalapplication.security;
+
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.event.UserAccountChangedEvent;
+import com.jobportal.jobportalapplication.repo.UserRepository;
+import com.jobportal.jobportalapplication.support.NoOpTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The user cache: hits for principals, eviction when an account-changed event is
+ * published (after commit when inside a transaction), and login always reading
+ * the current row. The "database" is a map behind a mocked repository.
+ */
+class UserDetailsServiceImplTest {
+
+    @Configuration
+    @EnableTransactionManagement(proxyTargetClass = true)
+    static class Config {
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        UserDetailsServiceImpl userDetailsService() {
+            return new UserDetailsServiceImpl();
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+    }
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    private AnnotationConfigApplicationContext context;
+    private UserRepository userRepository;
+    private UserDetailsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        userRepository = context.getBean(UserRepository.class);
+        when(userRepository.findByEmail(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(users.get(invocation.<String>getArgument(0))));
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> users.values().stream()
+                .filter(user -> user.getId().equals(invocation.getArgument(0))).findFirst());
+        service = context.getBean(UserDetailsServiceImpl.class);
+
+        save(user(1L, "old-hash", true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void principalsAreServedFromTheCache() {
+        service.loadUserByUsername("user1@example.com");
+        service.loadUserById(1L);
+        save(user(1L, "new-hash", true));
+
+        assertThat(service.loadUserByUsername("user1@example.com").getPassword()).isEqualTo("old-hash");
+        verify(userRepository, times(1)).findByEmail("user1@example.com");
+    }
+
+    @Test
+    void accountChangedEventEvictsBothEntries() {
+        service.loadUserByUsername("user1@example.com");
+        save(user(1L, "new-hash", false));
+
+        context.publishEvent(new UserAccountChangedEvent(1L, "user1@example.com",
+                UserAccountChangedEvent.Reason.DEACTIVATED));
+
+        assertThat(service.loadUserById(1L).isEnabled()).isFalse();
+        assertThat(service.loadUserByUsername("user1@example.com").getPassword()).isEqualTo("new-hash");
+    }
+
+    @Test
+    void eventByIdAloneEvictsTheEmailEntryToo() {
+        service.loadUserById(1L);
+        save(user(1L, "new-hash", true));
+
+        context.publishEvent(new UserAccountChangedEvent(1L, null, UserAccountChangedEvent.Reason.PROFILE_UPDATED));
+
+        assertThat(service.loadUserByUsername("user1@example.com").getPassword()).isEqualTo("new-hash");
+    }
+
+    @Test
+    void evictionWaitsForTheCommit() {
+        service.loadUserByUsername("user1@example.com");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            save(user(1L, "new-hash", true));
+            context.publishEvent(new UserAccountChangedEvent(1L, "user1@example.com",
+                    UserAccountChangedEvent.Reason.PASSWORD_CHANGED));
+            // Not committed yet: evicting now would let a concurrent load re-cache the old row
+            verify(userRepository, times(1)).findByEmail("user1@example.com");
+        });
+
+        assertThat(service.loadUserByUsername("user1@example.com").getPassword()).isEqualTo("new-hash");
+    }
+
+    @Test
+    void loginReadsTheDatabaseEvenWhenTheEvictionWasLost() {
+        service.loadUserByUsername("user1@example.com");
+        save(user(1L, "new-hash", false));
+
+        UserDetails forLogin = service.loadUserForAuthentication("user1@example.com");
+
+        assertThat(forLogin.getPassword()).isEqualTo("new-hash");
+        assertThat(forLogin.isEnabled()).isFalse();
+        // ...and the stale cached copy is replaced with what it read
+        assertThat(service.loadUserByUsername("user1@example.com").getPassword()).isEqualTo("new-hash");
+    }
+
+    private void save(User user) {
+        users.put(user.getEmail(), user);
+    }
+
+    private static User user(Long id, String password, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword(password);
+        user.setRole(Role.CANDIDATE);
+        user.setIsActive(active);
+        return user;
+    }
+}
@@ -0,0 +1,212 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.entity.Application;
+import com.jobportal.jobportalapplication.entity.ApplicationAlertMode;
+import com.jobportal.jobportalapplication.entity.ApplicationStatus;
+import com.jobportal.jobportalapplication.entity.Candidate;
+import com.jobportal.jobportalapplication.entity.Employer;
+import com.jobportal.jobportalapplication.entity.Job;
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.repo.ApplicationRepository.JobApplicationCount;
+import com.jobportal.jobportalapplication.repo.EmployerRepository;
+import com.jobportal.jobportalapplication.support.ApplicationFixture;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Digest runs and alert-mode changes on Postgres, with the email recorded instead
+ * of queued: each application is summarised once across runs, leaving digest
+ * mode sends what has built up, and entering it does not resend history.
+ * Applications are dated an hour back so a run sees them as settled; each test
+ * has its own employer, and digests for anyone else are ignored.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+@Import(ApplicationDigestService.class)
+class ApplicationDigestServiceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    /** Application count per digest email sent to the test's employer. */
+    private final List<Long> digests = new ArrayList<>();
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private ApplicationDigestService digestService;
+
+    @Autowired
+    private EmployerRepository employerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Job job;
+    private Long employerId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        ApplicationFixture fixture = transaction.execute(status -> ApplicationFixture.persist(entityManager, 1, 3));
+        job = fixture.jobs().get(0);
+        employerId = job.getEmployer().getId();
+        settle();
+
+        doAnswer(invocation -> {
+            Employer employer = invocation.getArgument(0);
+            if (employer.getId().equals(employerId)) {
+                List<JobApplicationCount> jobs = invocation.getArgument(3);
+                digests.add(jobs.stream().mapToLong(JobApplicationCount::getApplications).sum());
+            }
+            return null;
+        }).when(emailService).sendApplicationDigest(any(), any(), any(), anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Leave no employer in digest mode for later runs
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.IMMEDIATE);
+    }
+
+    @Test
+    void eachApplicationIsSummarisedOnceAcrossRuns() {
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.HOURLY);
+
+        apply(2);
+        digestService.sendHourlyDigests();
+        assertThat(digests).containsExactly(2L);
+
+        // Nothing new: no second email for the same applications
+        digestService.sendHourlyDigests();
+        assertThat(digests).containsExactly(2L);
+
+        apply(1);
+        digestService.sendHourlyDigests();
+        digestService.sendHourlyDigests();
+        assertThat(digests).containsExactly(2L, 1L);
+        assertThat(employer().getLastDigestedApplicationId()).isEqualTo(lastApplicationId());
+    }
+
+    @Test
+    void dailyRunLeavesHourlyEmployersAlone() {
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.HOURLY);
+        apply(2);
+
+        digestService.sendDailyDigests();
+
+        assertThat(digests).isEmpty();
+    }
+
+    @Test
+    void leavingDigestModeSendsWhatHasBuiltUp() {
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.DAILY);
+        apply(2);
+
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.IMMEDIATE);
+
+        assertThat(digests).containsExactly(2L);
+        Employer employer = employer();
+        assertThat(employer.getApplicationAlertMode()).isEqualTo(ApplicationAlertMode.IMMEDIATE);
+        assertThat(employer.getLastDigestedApplicationId()).isNull();
+        assertThat(employer.getLastDigestAt()).isNull();
+    }
+
+    @Test
+    void switchingFromImmediateToHourlyDoesNotResendHistory() {
+        // The fixture's three applications were alerted one by one in IMMEDIATE mode
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.HOURLY);
+        assertThat(employer().getLastDigestedApplicationId()).isEqualTo(lastApplicationId());
+
+        digestService.sendHourlyDigests();
+        assertThat(digests).isEmpty();
+
+        apply(1);
+        digestService.sendHourlyDigests();
+        assertThat(digests).containsExactly(1L);
+    }
+
+    @Test
+    void switchingBetweenDigestModesSendsTheOldDigestFirst() {
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.HOURLY);
+        apply(2);
+
+        digestService.changeAlertMode(employerId, ApplicationAlertMode.DAILY);
+        digestService.sendDailyDigests();
+
+        assertThat(digests).containsExactly(2L);
+    }
+
+    /** New applications to the test's job, each from a new candidate. */
+    private void apply(int count) {
+        transaction.executeWithoutResult(status -> {
+            Job managed = entityManager.find(Job.class, job.getId());
+            for (int i = 0; i < count; i++) {
+                Candidate candidate = new Candidate();
+                candidate.setUser(ApplicationFixture.user(entityManager, Role.CANDIDATE));
+                candidate.setFullName("Late candidate " + i);
+                entityManager.persist(candidate);
+
+                Application application = new Application();
+                application.setJob(managed);
+                application.setCandidate(candidate);
+                application.setStatus(ApplicationStatus.PENDING);
+                entityManager.persist(application);
+            }
+        });
+        settle();
+    }
+
+    /** Date this job's applications an hour back, past the settle delay and the run's cut-off. */
+    private void settle() {
+        transaction.executeWithoutResult(status -> entityManager
+                .createQuery("UPDATE Application a SET a.appliedDate = :appliedDate WHERE a.job.id = :jobId")
+                .setParameter("appliedDate", LocalDateTime.now().minusHours(1))
+                .setParameter("jobId", job.getId())
+                .executeUpdate());
+    }
+
+    private Employer employer() {
+        return employerRepository.findById(employerId).orElseThrow();
+    }
+
+    private Long lastApplicationId() {
+        return transaction.execute(status -> entityManager
+                .createQuery("SELECT MAX(a.id) FROM Application a WHERE a.job.id = :jobId", Long.class)
+                .setParameter("jobId", job.getId())
+                .getSingleResult());
+    }
+}
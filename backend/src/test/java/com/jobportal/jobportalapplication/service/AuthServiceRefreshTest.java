@@ -0,0 +1,198 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.dto.AuthResponse;
+import com.jobportal.jobportalapplication.dto.RefreshTokenRequest;
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.event.TokensRevokedEvent;
+import com.jobportal.jobportalapplication.exception.UnauthorizedException;
+import com.jobportal.jobportalapplication.repo.CandidateRepository;
+import com.jobportal.jobportalapplication.repo.EmployerRepository;
+import com.jobportal.jobportalapplication.repo.RevokedTokenRepository;
+import com.jobportal.jobportalapplication.repo.UserRepository;
+import com.jobportal.jobportalapplication.security.JwtTokenProvider;
+import com.jobportal.jobportalapplication.security.RevokedTokenStore;
+import com.jobportal.jobportalapplication.security.TokenRevocationService;
+import com.jobportal.jobportalapplication.security.UserDetailsImpl;
+import com.jobportal.jobportalapplication.security.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh-token rotation with real token signing and revocation; the
+ * revoked_tokens and users tables are replaced by in-memory stand-ins.
+ */
+class AuthServiceRefreshTest {
+
+    private final Map<String, Long> revokedRows = new ConcurrentHashMap<>();
+
+    private UserRepository userRepository;
+    private JwtTokenProvider tokenProvider;
+    private TokenRevocationService tokenRevocationService;
+    private RevokedTokenStore revokedTokenStore;
+    private PasswordEncoder passwordEncoder;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(user(invocation.getArgument(0))));
+
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.revoke(anyString(), anyLong(), any(), any())).thenAnswer(invocation ->
+                revokedRows.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null ? 1 : 0);
+        when(revokedTokenRepository.existsById(anyString()))
+                .thenAnswer(invocation -> revokedRows.containsKey(invocation.<String>getArgument(0)));
+        when(revokedTokenRepository.findRevokedSince(any(), any())).thenReturn(List.of());
+
+        tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(tokenRevocationService, "maxTokenLifetimeMs", 86_400_000L);
+        // No transaction around these calls: the cut-off applies at once
+        ReflectionTestUtils.setField(tokenRevocationService, "eventPublisher", (ApplicationEventPublisher) event ->
+                tokenRevocationService.onTokensRevoked((TokensRevokedEvent) event));
+
+        revokedTokenStore = new RevokedTokenStore();
+        ReflectionTestUtils.setField(revokedTokenStore, "revokedTokenRepository", revokedTokenRepository);
+        ReflectionTestUtils.setField(revokedTokenStore, "bucketHours", 24L);
+        ReflectionTestUtils.setField(revokedTokenStore, "expectedPerBucket", 1000);
+        ReflectionTestUtils.setField(revokedTokenStore, "falsePositiveRate", 0.01);
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "refresh-test-secret-refresh-test-secret-0123456789");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 900_000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 1_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheTtlSeconds", 60L);
+        ReflectionTestUtils.setField(tokenProvider, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+        when(userDetailsService.loadUserById(anyLong()))
+                .thenAnswer(invocation -> UserDetailsImpl.build(user(invocation.getArgument(0))));
+        passwordEncoder = mock(PasswordEncoder.class);
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "candidateRepository", mock(CandidateRepository.class));
+        ReflectionTestUtils.setField(authService, "employerRepository", mock(EmployerRepository.class));
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(authService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authService, "revokedTokenStore", revokedTokenStore);
+        ReflectionTestUtils.setField(authService, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.setField(authService, "userDetailsService", userDetailsService);
+    }
+
+    @Test
+    void refreshRotatesThePair() {
+        String first = tokenProvider.generateRefreshToken(UserDetailsImpl.build(user(1L)));
+
+        AuthResponse rotated = refresh(first);
+
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(first);
+        assertThat(tokenProvider.verify(rotated.getToken())).hasValueSatisfying(token -> {
+            assertThat(token.userId()).isEqualTo(1L);
+            assertThat(token.isRefreshToken()).isFalse();
+        });
+        assertThat(rotated.getUser().getEmail()).isEqualTo("user1@example.com");
+        // The old token is spent; the new one works once in turn
+        assertThat(revokedRows).containsOnlyKeys(tokenId(first));
+        assertThat(refresh(rotated.getRefreshToken()).getRefreshToken()).isNotBlank();
+        verify(passwordEncoder, never()).matches(any(), any());
+    }
+
+    @Test
+    void reusingARefreshTokenRevokesTheWholeFamily() {
+        String stolen = tokenProvider.generateRefreshToken(UserDetailsImpl.build(user(1L)));
+        String otherUser = tokenProvider.generateRefreshToken(UserDetailsImpl.build(user(2L)));
+        AuthResponse legitimate = refresh(stolen);
+
+        assertThatThrownBy(() -> refresh(stolen))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessageContaining("already been used");
+
+        // Every token of the user, including the pair the rotation just issued
+        verify(userRepository).updateTokensValidAfter(any(), any());
+        assertThat(tokenProvider.verify(legitimate.getToken())).isEmpty();
+        assertThat(tokenProvider.verify(legitimate.getRefreshToken())).isEmpty();
+        assertThatThrownBy(() -> refresh(legitimate.getRefreshToken()))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessageContaining("Invalid or expired");
+        // Other users are not affected
+        assertThat(refresh(otherUser).getUser().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void revokeAllEndsEverySessionOfTheUser() {
+        UserDetailsImpl principal = UserDetailsImpl.build(user(1L));
+        String access = tokenProvider.generateToken(principal);
+        String refreshToken = tokenProvider.generateRefreshToken(principal);
+        String otherUser = tokenProvider.generateRefreshToken(UserDetailsImpl.build(user(2L)));
+
+        tokenRevocationService.revokeAllTokens(1L);
+
+        assertThat(tokenProvider.verify(access)).isEmpty();
+        assertThatThrownBy(() -> refresh(refreshToken)).isInstanceOf(UnauthorizedException.class);
+        assertThat(revokedRows).isEmpty();
+        assertThat(refresh(otherUser).getUser().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void revokingUpToATokensIssueTimeKeepsThatToken() {
+        // The password-change path: sessions issued before the caller's go, the caller's stays
+        String current = tokenProvider.generateRefreshToken(UserDetailsImpl.build(user(1L)));
+        long issuedAt = tokenProvider.verify(current).orElseThrow().issuedAtSeconds();
+
+        tokenRevocationService.revokeTokensIssuedBefore(1L, issuedAt);
+        assertThat(tokenProvider.verify(current)).isPresent();
+
+        tokenRevocationService.revokeTokensIssuedBefore(1L, issuedAt + 1);
+        assertThat(tokenProvider.verify(current)).isEmpty();
+    }
+
+    @Test
+    void accessTokenCannotBeUsedToRefresh() {
+        String access = tokenProvider.generateToken(UserDetailsImpl.build(user(1L)));
+
+        assertThatThrownBy(() -> refresh(access)).isInstanceOf(UnauthorizedException.class);
+        assertThat(revokedRows).isEmpty();
+    }
+
+    private AuthResponse refresh(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return authService.refresh(request);
+    }
+
+    private String tokenId(String token) {
+        return tokenProvider.verify(token).orElseThrow().tokenId();
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("{bcrypt}hash");
+        user.setRole(Role.CANDIDATE);
+        user.setIsActive(true);
+        return user;
+    }
+}
@@ -0,0 +1,162 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.dto.AuthResponse;
+import com.jobportal.jobportalapplication.dto.RegisterRequest;
+import com.jobportal.jobportalapplication.entity.Candidate;
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.repo.CandidateRepository;
+import com.jobportal.jobportalapplication.repo.CompanyRepository;
+import com.jobportal.jobportalapplication.repo.EmployerRepository;
+import com.jobportal.jobportalapplication.repo.UserRepository;
+import com.jobportal.jobportalapplication.security.JwtTokenProvider;
+import com.jobportal.jobportalapplication.security.PasswordHashingExecutor;
+import com.jobportal.jobportalapplication.security.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registration throughput with real BCrypt and JWT signing; repositories are
+ * mocked, so the numbers are the CPU cost per sign-up. Also checks that a
+ * registration hashes the password exactly once.
+ *
+ * Tagged {@code load} so it only runs with {@code mvn test -Pload-test}.
+ * Tune with -Dload.clients and -Dload.requests.
+ */
+@Tag("load")
+class AuthServiceRegistrationBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 8);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 64);
+
+    private final AtomicInteger encodes = new AtomicInteger();
+    private final AtomicInteger matches = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                encodes.incrementAndGet();
+                return super.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                matches.incrementAndGet();
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(ids.incrementAndGet());
+            return user;
+        });
+        CandidateRepository candidateRepository = mock(CandidateRepository.class);
+        when(candidateRepository.save(any(Candidate.class))).thenAnswer(invocation -> {
+            Candidate candidate = invocation.getArgument(0);
+            candidate.setId(ids.incrementAndGet());
+            return candidate;
+        });
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 1_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheTtlSeconds", 60L);
+        ReflectionTestUtils.setField(tokenProvider, "tokenRevocationService", mock(TokenRevocationService.class));
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(hashingExecutor, "threads", 2);
+        ReflectionTestUtils.setField(hashingExecutor, "queueCapacity", REQUESTS);
+        ReflectionTestUtils.invokeMethod(hashingExecutor, "init");
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "candidateRepository", candidateRepository);
+        ReflectionTestUtils.setField(authService, "employerRepository", mock(EmployerRepository.class));
+        ReflectionTestUtils.setField(authService, "companyRepository", mock(CompanyRepository.class));
+        ReflectionTestUtils.setField(authService, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(authService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authService, "passwordHashingExecutor", hashingExecutor);
+        ReflectionTestUtils.setField(authService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void registrationThroughput() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(REQUESTS));
+        List<Future<AuthResponse>> futures = new ArrayList<>(REQUESTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            RegisterRequest request = new RegisterRequest();
+            request.setEmail("student" + i + "@campus.example");
+            request.setPassword("correct horse battery " + i);
+            request.setRole(Role.CANDIDATE);
+            request.setFullName("Student " + i);
+
+            futures.add(clients.submit(() -> {
+                long t0 = System.nanoTime();
+                AuthResponse response = authService.register(request).join();
+                latencies.add(System.nanoTime() - t0);
+                return response;
+            }));
+        }
+
+        for (Future<AuthResponse> future : futures) {
+            AuthResponse response = future.get(5, TimeUnit.MINUTES);
+            assertThat(response.getToken()).isNotBlank();
+            assertThat(response.getUser().getProfileId()).isNotNull();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        clients.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("[load] %-18s clients=%d requests=%d elapsed=%dms throughput=%.1f req/s "
+                        + "p50=%dms p99=%dms bcrypt(encode/match)=%d/%d%n",
+                "register", CLIENTS, REQUESTS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                REQUESTS / (elapsedNanos / 1e9), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                encodes.get(), matches.get());
+
+        assertThat(encodes.get()).isEqualTo(REQUESTS);
+        assertThat(matches.get()).isZero();
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, index)));
+    }
+}
@@ -0,0 +1,164 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.dto.AuthResponse;
+import com.jobportal.jobportalapplication.dto.RegisterRequest;
+import com.jobportal.jobportalapplication.entity.Candidate;
+import com.jobportal.jobportalapplication.entity.Employer;
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.entity.User;
+import com.jobportal.jobportalapplication.exception.BadRequestException;
+import com.jobportal.jobportalapplication.repo.CandidateRepository;
+import com.jobportal.jobportalapplication.repo.CompanyRepository;
+import com.jobportal.jobportalapplication.repo.EmployerRepository;
+import com.jobportal.jobportalapplication.repo.UserRepository;
+import com.jobportal.jobportalapplication.security.JwtTokenProvider;
+import com.jobportal.jobportalapplication.security.PasswordHashingExecutor;
+import com.jobportal.jobportalapplication.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registration hashes the password once and issues tokens for the new account
+ * directly: no second BCrypt round through the AuthenticationManager. The
+ * load-tagged AuthServiceRegistrationBenchmarkTest measures the same path with
+ * real BCrypt.
+ */
+class AuthServiceRegistrationTest {
+
+    private UserRepository userRepository;
+    private CandidateRepository candidateRepository;
+    private EmployerRepository employerRepository;
+    private PasswordEncoder passwordEncoder;
+    private AuthenticationManager authenticationManager;
+    private JwtTokenProvider tokenProvider;
+    private PasswordHashingExecutor hashingExecutor;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(42L);
+            return user;
+        });
+        candidateRepository = mock(CandidateRepository.class);
+        employerRepository = mock(EmployerRepository.class);
+
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}hash");
+        authenticationManager = mock(AuthenticationManager.class);
+        tokenProvider = mock(JwtTokenProvider.class);
+        when(tokenProvider.generateToken(any(UserDetailsImpl.class))).thenReturn("access-token");
+        when(tokenProvider.generateRefreshToken(any(UserDetailsImpl.class))).thenReturn("refresh-token");
+
+        hashingExecutor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(hashingExecutor, "threads", 1);
+        ReflectionTestUtils.setField(hashingExecutor, "queueCapacity", 4);
+        ReflectionTestUtils.invokeMethod(hashingExecutor, "init");
+
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "candidateRepository", candidateRepository);
+        ReflectionTestUtils.setField(authService, "employerRepository", employerRepository);
+        ReflectionTestUtils.setField(authService, "companyRepository", mock(CompanyRepository.class));
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(authService, "authenticationManager", authenticationManager);
+        ReflectionTestUtils.setField(authService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authService, "passwordHashingExecutor", hashingExecutor);
+        ReflectionTestUtils.setField(authService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(hashingExecutor, "shutdown");
+    }
+
+    @Test
+    void candidateRegistrationEncodesOnceAndNeverAuthenticates() {
+        Candidate candidate = new Candidate();
+        candidate.setId(7L);
+        candidate.setFullName("Ada Student");
+        when(candidateRepository.findByUserId(42L)).thenReturn(Optional.of(candidate));
+
+        AuthResponse response = authService.register(request("ada@campus.example", Role.CANDIDATE)).join();
+
+        verify(passwordEncoder, times(1)).encode("correct horse battery staple");
+        verify(passwordEncoder, never()).matches(any(), any());
+        verifyNoInteractions(authenticationManager);
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertThat(saved.getValue().getPassword()).isEqualTo("{bcrypt}hash");
+        assertThat(response.getToken()).isEqualTo("access-token");
+        assertThat(response.getRefreshToken()).isEqualTo("refresh-token");
+        assertThat(response.getUser().getId()).isEqualTo(42L);
+        assertThat(response.getUser().getProfileId()).isEqualTo(7L);
+    }
+
+    @Test
+    void employerRegistrationEncodesOnceAndNeverAuthenticates() {
+        Employer employer = new Employer();
+        employer.setId(9L);
+        when(employerRepository.findByUserId(42L)).thenReturn(Optional.of(employer));
+
+        AuthResponse response = authService.register(request("hr@company.example", Role.EMPLOYER)).join();
+
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verifyNoInteractions(authenticationManager);
+        verify(employerRepository).save(any(Employer.class));
+        assertThat(response.getUser().getProfileId()).isEqualTo(9L);
+    }
+
+    @Test
+    void takenEmailIsRejectedBeforeHashing() {
+        when(userRepository.existsByEmail("ada@campus.example")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.register(request("ada@campus.example", Role.CANDIDATE)))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(passwordEncoder, authenticationManager);
+    }
+
+    @Test
+    void losingTheRaceForAnEmailIsABadRequest() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThatThrownBy(() -> authService.register(request("ada@campus.example", Role.CANDIDATE)).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BadRequestException.class);
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verifyNoInteractions(authenticationManager);
+    }
+
+    private static RegisterRequest request(String email, Role role) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setPassword("correct horse battery staple");
+        request.setRole(role);
+        request.setFullName("Ada Student");
+        return request;
+    }
+}
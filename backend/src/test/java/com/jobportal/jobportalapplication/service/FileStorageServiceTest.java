@@ -0,0 +1,166 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.repo.StoredFileRepository;
+import com.jobportal.jobportalapplication.storage.LocalBlobStore;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reference counting of content-addressed uploads on Postgres with blobs in a
+ * temp directory. Every test stores bytes of its own, so rows never collide.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+@Import({FileStorageService.class, LocalBlobStore.class})
+class FileStorageServiceTest {
+
+    private static final Path UPLOAD_DIR = createUploadDir();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+        registry.add("file.upload-dir", UPLOAD_DIR::toString);
+    }
+
+    private static final long OWNER = -1L;
+    private static final long OTHER_OWNER = -2L;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    private final byte[] content = ("image " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+    private final List<String> hashes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (String hash : hashes) {
+            while (fileStorageService.release(hash + ".jpg", OWNER)
+                    || fileStorageService.release(hash + ".jpg", OTHER_OWNER)) {
+                // drain leftovers
+            }
+        }
+    }
+
+    @Test
+    void sameOwnerUsingTheContentTwiceNeedsTwoReleases() throws IOException {
+        FileStorageService.StoredUpload photo = store("jpg", OWNER);
+        FileStorageService.StoredUpload logo = store("jpg", OWNER);
+        assertThat(logo.filename()).isEqualTo(photo.filename());
+        assertThat(refCount(photo)).isEqualTo(2);
+
+        assertThat(fileStorageService.release(photo.filename(), OWNER)).isTrue();
+
+        // The logo still points at the same bytes
+        assertThat(fileStorageService.exists("image", logo.filename())).isTrue();
+        assertThat(fileStorageService.isOwner(logo.filename(), OWNER)).isTrue();
+        assertThat(refCount(photo)).isEqualTo(1);
+
+        assertThat(fileStorageService.release(logo.filename(), OWNER)).isTrue();
+        assertThat(fileStorageService.exists("image", logo.filename())).isFalse();
+        assertThat(storedFileRepository.findById(photo.sha256())).isEmpty();
+        assertThat(fileStorageService.release(logo.filename(), OWNER)).isFalse();
+    }
+
+    @Test
+    void anotherOwnersReleaseDoesNotTouchMyReference() throws IOException {
+        FileStorageService.StoredUpload mine = store("jpg", OWNER);
+        store("jpg", OTHER_OWNER);
+
+        assertThat(fileStorageService.release(mine.filename(), OTHER_OWNER)).isTrue();
+        assertThat(fileStorageService.release(mine.filename(), OTHER_OWNER)).isFalse();
+
+        assertThat(fileStorageService.exists("image", mine.filename())).isTrue();
+        assertThat(refCount(mine)).isEqualTo(1);
+    }
+
+    @Test
+    void sameBytesUnderAnotherExtensionReuseTheStoredName() throws IOException {
+        FileStorageService.StoredUpload first = store("jpg", OWNER);
+        FileStorageService.StoredUpload second = store("jpeg", OWNER);
+
+        assertThat(second.extension()).isEqualTo("jpg");
+        assertThat(second.filename()).isEqualTo(first.filename());
+        assertThat(second.fileUrl()).endsWith("/" + first.filename());
+        assertThat(fileStorageService.exists("image", first.sha256() + ".jpeg")).isFalse();
+
+        fileStorageService.release(first.filename(), OWNER);
+        fileStorageService.release(second.filename(), OWNER);
+
+        // Nothing is left behind under either name
+        assertThat(fileStorageService.exists("image", first.filename())).isFalse();
+        assertThat(blobFiles(first.sha256())).isEmpty();
+    }
+
+    @Test
+    void lastReleaseRemovesTheDerivatives() throws IOException {
+        FileStorageService.StoredUpload upload = store("jpg", OWNER);
+        Path thumbnail = Files.createTempFile("thumb-", ".jpg");
+        try {
+            fileStorageService.storeDerivative(upload.sha256() + "-thumb.jpg", thumbnail);
+        } finally {
+            Files.deleteIfExists(thumbnail);
+        }
+
+        fileStorageService.release(upload.filename(), OWNER);
+
+        assertThat(blobFiles(upload.sha256())).isEmpty();
+    }
+
+    private FileStorageService.StoredUpload store(String extension, long ownerId) throws IOException {
+        FileStorageService.StoredUpload upload = fileStorageService.store(
+                new ByteArrayInputStream(content), "image", extension, ownerId);
+        if (!hashes.contains(upload.sha256())) {
+            hashes.add(upload.sha256());
+        }
+        return upload;
+    }
+
+    private int refCount(FileStorageService.StoredUpload upload) {
+        return storedFileRepository.findById(upload.sha256()).orElseThrow().getRefCount();
+    }
+
+    private static List<Path> blobFiles(String hash) throws IOException {
+        Path dir = UPLOAD_DIR.resolve("store").resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (var files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(hash)).toList();
+        }
+    }
+
+    private static Path createUploadDir() {
+        try {
+            return Files.createTempDirectory("file-storage-test-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.dto.*;
+import com.jobportal.jobportalapplication.support.GroqStubServer;
+import com.jobportal.jobportalapplication.support.GroqStubServer.LatencyModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and resource usage of the AI paths against {@link GroqStubServer}.
+ *
+ * Tagged {@code load} so it only runs with {@code mvn test -Pload-test}.
+ * Tune with -Dload.clients, -Dload.requests and -Dload.latency (see LatencyModel.parse).
+ */
+@Tag("load")
+class GroqAIServiceLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 400);
+    private static final String LATENCY = System.getProperty("load.latency", "lognormal:150:0.3");
+
+    private static GroqStubServer stub;
+    private GroqAIService groqAIService;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        stub = new GroqStubServer(0).withLatency(LatencyModel.parse(LATENCY)).start();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stub.withRateLimitRate(0).withServerErrorRate(0).resetCounters();
+        groqAIService = new GroqAIService();
+        ReflectionTestUtils.setField(groqAIService, "apiKey", "stub-key");
+        ReflectionTestUtils.setField(groqAIService, "model", "stub-model");
+        ReflectionTestUtils.setField(groqAIService, "baseUrl", stub.getBaseUrl());
+    }
+
+    @Test
+    void chatThroughput() throws Exception {
+        AIChatRequest request = new AIChatRequest();
+        request.setMessage("How do I prepare for a backend interview?");
+
+        Result result = run("chat", () -> groqAIService.chat(request).getResponse());
+
+        assertThat(result.failures).isZero();
+    }
+
+    @Test
+    void resumeAgainstJobThroughput() throws Exception {
+        Result result = run("analyze-job-match", () -> {
+            AIMatchScoreResponse response = groqAIService.analyzeResumeAgainstJob(
+                    "Java developer with Spring Boot and SQL experience",
+                    "Backend Engineer", "Build APIs", "Java, Spring, Kafka");
+            assertThat(response.getMatchScore()).isBetween(40, 95);
+            assertThat(response.getMatchingSkills()).isNotEmpty();
+            return response;
+        });
+
+        assertThat(result.failures).isZero();
+    }
+
+    @Test
+    void matchScoreThroughput() throws Exception {
+        AIMatchScoreRequest request = new AIMatchScoreRequest();
+        request.setCandidateSkills("Java, SQL");
+        request.setCandidateExperience("4 years backend");
+        request.setJobDescription("Build APIs");
+        request.setJobRequirements("Java, Kafka");
+
+        Result result = run("match-score", () -> groqAIService.calculateMatchScore(request));
+
+        assertThat(result.failures).isZero();
+    }
+
+    @Test
+    void mixedPromptsWithInjectedErrors() throws Exception {
+        stub.withRateLimitRate(0.05).withServerErrorRate(0.02);
+
+        AIJobDescriptionRequest jd = new AIJobDescriptionRequest();
+        jd.setJobTitle("Backend Engineer");
+        jd.setCompanyName("Acme");
+        AIResumeAnalysisRequest resume = new AIResumeAnalysisRequest("Java developer, 5 years");
+
+        Result result = run("mixed+errors", () -> {
+            int pick = ThreadLocalRandom.current().nextInt(2);
+            return pick == 0
+                    ? groqAIService.generateJobDescription(jd)
+                    : groqAIService.analyzeResume(resume);
+        });
+
+        // The service swallows upstream failures into fallback responses, so no call throws;
+        // the injected errors show up only on the stub side.
+        assertThat(result.failures).isZero();
+        assertThat(stub.getRateLimited() + stub.getServerErrors()).isPositive();
+    }
+
+    // ==================== HARNESS ====================
+
+    private Result run(String name, Supplier<?> call) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int threadsBefore = threads.getThreadCount();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(REQUESTS));
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(clients.submit(() -> {
+                long t0 = System.nanoTime();
+                call.get();
+                latencies.add(System.nanoTime() - t0);
+            }));
+        }
+
+        int failures = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get(2, TimeUnit.MINUTES);
+            } catch (ExecutionException e) {
+                failures++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        clients.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        Result result = new Result(failures);
+
+        System.out.printf(
+                "[load] %-18s clients=%d requests=%d elapsed=%dms throughput=%.1f req/s "
+                        + "p50=%dms p99=%dms threads(before/peak)=%d/%d upstreamPeakConnections=%d "
+                        + "429=%d 5xx=%d failures=%d%n",
+                name, CLIENTS, REQUESTS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                REQUESTS / (elapsedNanos / 1e9),
+                percentile(sorted, 0.50), percentile(sorted, 0.99),
+                threadsBefore, threads.getPeakThreadCount(), stub.getPeakInFlight(),
+                stub.getRateLimited(), stub.getServerErrors(), failures);
+        return result;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, index)));
+    }
+
+    private record Result(int failures) {
+    }
+}
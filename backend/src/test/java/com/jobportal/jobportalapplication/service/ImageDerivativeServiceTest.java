@@ -0,0 +1,216 @@
+package com.jobportal.jobportalapplication.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Derivative sizes and formats from real encoded images, with the blob store
+ * replaced by a map; and the download path serving only derivatives that exist.
+ */
+class ImageDerivativeServiceTest {
+
+    private static final String HASH = "ab".repeat(32);
+
+    @TempDir
+    Path tempDir;
+
+    /** Stored derivatives by name. */
+    private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+
+    private FileStorageService fileStorageService;
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.exists(anyString(), anyString()))
+                .thenAnswer(invocation -> stored.containsKey(invocation.<String>getArgument(1)));
+        doAnswer(invocation -> stored.put(invocation.getArgument(0),
+                        Files.readAllBytes(invocation.<Path>getArgument(1))))
+                .when(fileStorageService).storeDerivative(anyString(), any(Path.class));
+
+        service = new ImageDerivativeService();
+        ReflectionTestUtils.setField(service, "fileStorageService", fileStorageService);
+        ReflectionTestUtils.setField(service, "maxPixels", 40_000_000L);
+        ReflectionTestUtils.setField(service, "jpegQuality", 0.82f);
+        ReflectionTestUtils.setField(service, "backfillQueueCapacity", 10);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    // ==================== SIZES AND FORMATS ====================
+
+    @Test
+    void opaqueImageBecomesJpegsFittedToEachSize() throws IOException {
+        original("jpg", image(3000, 2000, false), "jpg");
+
+        Map<ImageDerivativeService.Size, String> names = service.generate("image", HASH + ".jpg").orElseThrow();
+
+        assertThat(names).containsEntry(ImageDerivativeService.Size.FULL, HASH + "-full.jpg")
+                .containsEntry(ImageDerivativeService.Size.CARD, HASH + "-card.jpg")
+                .containsEntry(ImageDerivativeService.Size.THUMB, HASH + "-thumb.jpg");
+        assertDerivative(HASH + "-full.jpg", "jpeg", 1200, 800, false);
+        assertDerivative(HASH + "-card.jpg", "jpeg", 400, 267, false);
+        assertDerivative(HASH + "-thumb.jpg", "jpeg", 128, 85, false);
+    }
+
+    @Test
+    void transparentImageBecomesPngsKeepingAlpha() throws IOException {
+        original("png", image(600, 900, true), "png");
+
+        service.generate("image", HASH + ".png").orElseThrow();
+
+        assertDerivative(HASH + "-full.png", "png", 600, 900, true);
+        assertDerivative(HASH + "-card.png", "png", 267, 400, true);
+        assertDerivative(HASH + "-thumb.png", "png", 85, 128, true);
+        assertThat(stored).doesNotContainKey(HASH + "-thumb.jpg");
+    }
+
+    @Test
+    void smallImageIsNeverUpscaled() throws IOException {
+        original("gif", image(100, 40, false), "gif");
+
+        service.generate("image", HASH + ".gif").orElseThrow();
+
+        assertDerivative(HASH + "-full.jpg", "jpeg", 100, 40, false);
+        assertDerivative(HASH + "-card.jpg", "jpeg", 100, 40, false);
+        assertDerivative(HASH + "-thumb.jpg", "jpeg", 100, 40, false);
+    }
+
+    @Test
+    void hugeImageIsSubsampledOnRead() throws IOException {
+        original("png", image(5000, 100, false), "png");
+
+        service.generate("image", HASH + ".png").orElseThrow();
+
+        assertDerivative(HASH + "-full.jpg", "jpeg", 1200, 24, false);
+        assertDerivative(HASH + "-thumb.jpg", "jpeg", 128, 3, false);
+    }
+
+    @Test
+    void undecodableOrOversizedFilesGetNoDerivatives() throws IOException {
+        Path text = Files.writeString(tempDir.resolve("not-an-image.jpg"), "not an image");
+        when(fileStorageService.fetch("image", HASH + ".jpg")).thenReturn(new FileStorageService.LocalCopy(text, false));
+
+        assertThat(service.generate("image", HASH + ".jpg")).isEmpty();
+
+        original("png", image(300, 300, false), "png");
+        ReflectionTestUtils.setField(service, "maxPixels", 300L * 299);
+        assertThat(service.generate("image", HASH + ".png")).isEmpty();
+        assertThat(stored).isEmpty();
+    }
+
+    @Test
+    void onlyContentAddressedImagesHaveDerivatives() {
+        assertThat(service.generate("image", "logo.png")).isEmpty();
+        assertThat(service.derivativeFor("image", "logo.png", ImageDerivativeService.Size.THUMB)).isEmpty();
+        assertThat(ImageDerivativeService.derivativeFilenames(HASH, "pdf")).isEmpty();
+        assertThat(ImageDerivativeService.derivativeFilenames(HASH, "png")).hasSize(6)
+                .contains(HASH + "-thumb.jpg", HASH + "-full.png");
+    }
+
+    // ==================== UPLOAD AND DOWNLOAD ====================
+
+    @Test
+    void uploadSkipsContentThatAlreadyHasDerivatives() throws IOException {
+        stored.put(HASH + "-thumb.png", new byte[0]);
+
+        service.ensureDerivatives("image", HASH + ".png");
+
+        verify(fileStorageService, never()).fetch(anyString(), anyString());
+    }
+
+    @Test
+    void downloadServesAnExistingDerivative() throws IOException {
+        original("jpg", image(800, 600, false), "jpg");
+        service.ensureDerivatives("image", HASH + ".jpg");
+
+        assertThat(service.derivativeFor("image", HASH + ".jpg", ImageDerivativeService.Size.CARD))
+                .contains(HASH + "-card.jpg");
+        verify(fileStorageService, times(1)).fetch(anyString(), anyString());
+    }
+
+    @Test
+    void downloadDoesNotWaitForAMissingDerivative() throws IOException {
+        original("jpg", image(800, 600, false), "jpg");
+
+        // The original is served meanwhile; generated once however often it is asked for
+        assertThat(service.derivativeFor("image", HASH + ".jpg", ImageDerivativeService.Size.THUMB)).isEmpty();
+        for (int i = 0; i < 5; i++) {
+            service.derivativeFor("image", HASH + ".jpg", ImageDerivativeService.Size.THUMB);
+        }
+        await().atMost(10, TimeUnit.SECONDS).until(() -> stored.containsKey(HASH + "-thumb.jpg"));
+
+        assertThat(service.derivativeFor("image", HASH + ".jpg", ImageDerivativeService.Size.THUMB))
+                .contains(HASH + "-thumb.jpg");
+        verify(fileStorageService, timeout(1000).times(1)).fetch(anyString(), anyString());
+    }
+
+    // ==================== HELPERS ====================
+
+    /** Encode {@code image} as the stored original {@code <hash>.<extension>}. */
+    private void original(String extension, BufferedImage image, String format) throws IOException {
+        Path file = tempDir.resolve(HASH + "." + extension);
+        assertThat(ImageIO.write(image, format, file.toFile())).isTrue();
+        when(fileStorageService.fetch("image", HASH + "." + extension))
+                .thenReturn(new FileStorageService.LocalCopy(file, false));
+    }
+
+    private void assertDerivative(String name, String format, int width, int height, boolean alpha)
+            throws IOException {
+        byte[] bytes = stored.get(name);
+        assertThat(bytes).as(name).isNotNull();
+        try (var in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            var reader = ImageIO.getImageReaders(in).next();
+            assertThat(reader.getFormatName()).as(name).isEqualToIgnoringCase(format);
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        assertThat(image.getWidth()).as(name).isEqualTo(width);
+        assertThat(image.getHeight()).as(name).isEqualTo(height);
+        assertThat(image.getColorModel().hasAlpha()).as(name).isEqualTo(alpha);
+    }
+
+    private static BufferedImage image(int width, int height, boolean alpha) {
+        BufferedImage image = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(alpha ? new Color(20, 90, 200, 128) : new Color(20, 90, 200));
+            g.fillRect(0, 0, width / 2, height);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,255 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.entity.Notification;
+import com.jobportal.jobportalapplication.event.NotificationCreatedEvent;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The notifications partitioning migration, NotificationPartitionManager and the
+ * write-behind SQL (multi-row INSERT ... RETURNING, UPDATE ... FROM (VALUES)) on
+ * Postgres. Each test starts from a plain notifications table, as Hibernate
+ * creates it, in a schema of its own.
+ */
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+class NotificationPartitioningTest {
+
+    private static final String SCHEMA = "notification_partitioning_test";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final YearMonth now = YearMonth.now();
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private NotificationWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = PostgresTestDatabase.dataSource(SCHEMA);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE notifications (id bigint GENERATED BY DEFAULT AS IDENTITY, "
+                + "created_at timestamp(6) NOT NULL, group_count integer DEFAULT 1 NOT NULL, "
+                + "group_key varchar(200), is_read boolean NOT NULL, message varchar(1000) NOT NULL, "
+                + "reference_id bigint, type varchar(255) NOT NULL, user_id bigint NOT NULL, PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE INDEX idx_notifications_user_read_created ON notifications (user_id, is_read, created_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+        jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+    }
+
+    // ==================== MIGRATION ====================
+
+    @Test
+    void migrationMovesRowsIntoMonthPartitionsKeepingIds() throws IOException {
+        long old = insert(now.minusMonths(2), true);
+        long recent = insert(now.minusMonths(1), false);
+        long current = insert(now, false);
+
+        migrate();
+
+        assertThat(partitionOf(old)).isEqualTo(partition(now.minusMonths(2)));
+        assertThat(partitionOf(recent)).isEqualTo(partition(now.minusMonths(1)));
+        assertThat(partitionOf(current)).isEqualTo(partition(now));
+        assertThat(insert(now, false)).isGreaterThan(current);
+        // Left for the operator to drop once the application runs on the new table
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications_unpartitioned", Long.class))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void migrationRefusesToRunTwice() throws IOException {
+        insert(now, false);
+        migrate();
+
+        assertThatThrownBy(this::migrate)
+                .isInstanceOf(DataAccessException.class)
+                .hasMessageContaining("already partitioned");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications", Long.class)).isEqualTo(1);
+    }
+
+    // ==================== PARTITION MANAGER ====================
+
+    @Test
+    void managerLeavesAnUnconvertedTableAlone() {
+        long id = insert(now.plusMonths(1), false);
+
+        manager(2, 3, 0).maintain();
+
+        assertThat(partitionOf(id)).isEqualTo("notifications");
+        assertThat(partitions()).isEmpty();
+    }
+
+    @Test
+    void creatingAPartitionMovesItsRowsOutOfTheDefaultPartition() throws IOException {
+        migrate();
+        long future = insert(now.plusMonths(5), false);
+        assertThat(partitionOf(future)).isEqualTo("notifications_default");
+
+        manager(6, 3, 0).maintain();
+
+        assertThat(partitionOf(future)).isEqualTo(partition(now.plusMonths(5)));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications_default", Long.class)).isZero();
+    }
+
+    @Test
+    void retentionDropsAllReadPartitionsAndUnreadOnlyPastMaxMonths() throws IOException {
+        insert(now.minusMonths(6), false);
+        insert(now.minusMonths(5), true);
+        insert(now.minusMonths(1), true);
+        migrate();
+
+        manager(2, 3, 0).maintain();
+
+        assertThat(partitions()).contains(partition(now.minusMonths(6)), partition(now.minusMonths(1)))
+                .doesNotContain(partition(now.minusMonths(5)));
+
+        manager(2, 3, 5).maintain();
+
+        assertThat(partitions()).doesNotContain(partition(now.minusMonths(6)))
+                .contains(partition(now.minusMonths(1)));
+    }
+
+    // ==================== WRITE BUFFER SQL ====================
+
+    @Test
+    void writeBufferInsertsAndMergesIntoThePartitionedTable() throws IOException {
+        migrate();
+        List<NotificationCreatedEvent> events = new CopyOnWriteArrayList<>();
+        buffer = writeBuffer(3, events);
+
+        buffer.add(notification("Profile viewed", null));
+        buffer.add(notification("Application for job 7", "job:7"));
+        buffer.add(notification("Application for job 7", "job:7"));
+
+        // One batch: the two grouped rows coalesce and go out in one multi-row INSERT
+        await().atMost(10, TimeUnit.SECONDS).until(() -> events.size() == 2);
+        Map<String, Object> group = jdbcTemplate.queryForMap(
+                "SELECT id, group_count, message FROM notifications WHERE group_key = 'job:7'");
+        assertThat(group).containsEntry("group_count", 2).containsEntry("message", "2 new applications for job 7");
+        assertThat(events).extracting(NotificationCreatedEvent::id)
+                .containsExactlyInAnyOrderElementsOf(jdbcTemplate.queryForList("SELECT id FROM notifications", Long.class));
+
+        buffer.add(notification("Application for job 7", "job:7"));
+        buffer.add(notification("Application for job 7", "job:7"));
+        buffer.add(notification("Password changed", null));
+
+        // The next group batch folds into the unread row with one UPDATE ... FROM (VALUES ...)
+        await().atMost(10, TimeUnit.SECONDS).until(() -> events.size() == 4);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notifications", Long.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForMap("SELECT group_count, message FROM notifications WHERE group_key = 'job:7'"))
+                .containsEntry("group_count", 4).containsEntry("message", "4 new applications for job 7");
+        NotificationCreatedEvent merged = events.stream().filter(NotificationCreatedEvent::merged).findFirst().orElseThrow();
+        assertThat(merged.id()).isEqualTo(group.get("id"));
+        assertThat(merged.groupCount()).isEqualTo(4);
+    }
+
+    // ==================== HELPERS ====================
+
+    private void migrate() throws IOException {
+        jdbcTemplate.execute(new ClassPathResource("db/partition-notifications.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private NotificationPartitionManager manager(int monthsAhead, int readMonths, int maxMonths) {
+        NotificationPartitionManager manager = new NotificationPartitionManager();
+        ReflectionTestUtils.setField(manager, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(manager, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "monthsAhead", monthsAhead);
+        ReflectionTestUtils.setField(manager, "readRetentionMonths", readMonths);
+        ReflectionTestUtils.setField(manager, "maxRetentionMonths", maxMonths);
+        ReflectionTestUtils.invokeMethod(manager, "init");
+        return manager;
+    }
+
+    private NotificationWriteBuffer writeBuffer(int batchSize, List<NotificationCreatedEvent> events) {
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        doAnswer(invocation -> events.add(invocation.getArgument(0)))
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        NotificationWriteBuffer writeBuffer = new NotificationWriteBuffer();
+        ReflectionTestUtils.setField(writeBuffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writeBuffer, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(writeBuffer, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(writeBuffer, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(writeBuffer, "enabled", true);
+        ReflectionTestUtils.setField(writeBuffer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writeBuffer, "flushMs", 60_000L);
+        ReflectionTestUtils.setField(writeBuffer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writeBuffer, "spillFile", "target/notification-partitioning-test-spill.jsonl");
+        ReflectionTestUtils.setField(writeBuffer, "coalesceEnabled", true);
+        ReflectionTestUtils.setField(writeBuffer, "coalesceWindowMinutes", 1440L);
+        writeBuffer.start();
+        return writeBuffer;
+    }
+
+    /** A row in the middle of {@code month}; returns its id. */
+    private long insert(YearMonth month, boolean read) {
+        return jdbcTemplate.queryForObject("INSERT INTO notifications (user_id, type, message, is_read, created_at) "
+                        + "VALUES (1, 'TEST', 'test', ?, ?) RETURNING id", Long.class,
+                read, Timestamp.valueOf(month.atDay(15).atTime(12, 0)));
+    }
+
+    private String partitionOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM notifications WHERE id = ?",
+                String.class, id);
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname::text FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                + "WHERE p.relname = 'notifications' AND p.relnamespace = current_schema()::regnamespace", String.class);
+    }
+
+    private static String partition(YearMonth month) {
+        return "notifications_p" + month.format(SUFFIX);
+    }
+
+    private static Notification notification(String message, String groupKey) {
+        Notification notification = new Notification();
+        notification.setUserId(1L);
+        notification.setType("TEST");
+        notification.setMessage(message);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setGroupKey(groupKey);
+        if (groupKey != null) {
+            notification.setGroupMessage("{count} new applications for job 7");
+        }
+        return notification;
+    }
+}
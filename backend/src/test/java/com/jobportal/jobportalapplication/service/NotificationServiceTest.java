@@ -0,0 +1,161 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.entity.Notification;
+import com.jobportal.jobportalapplication.exception.ResourceNotFoundException;
+import com.jobportal.jobportalapplication.repo.NotificationRepository;
+import com.jobportal.jobportalapplication.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The bulk notification statements on Postgres, and the unread counter they feed
+ * through committed UnreadCountChangedEvents. After every operation the in-memory
+ * count must equal a fresh COUNT query. Users are random negative ids so runs
+ * never share rows.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")
+@Import({NotificationService.class, UnreadNotificationCounter.class})
+class NotificationServiceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @MockitoBean
+    private NotificationWriteBuffer notificationWriteBuffer;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final long userId = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    private final long otherUserId = userId + 1 == 0 ? userId - 1 : userId + 1;
+
+    private Long first;
+    private Long second;
+    private Long third;
+    private Long alreadyRead;
+
+    @BeforeEach
+    void setUp() {
+        first = notification(userId, false);
+        second = notification(userId, false);
+        third = notification(userId, false);
+        alreadyRead = notification(userId, true);
+        // Loaded before the changes, so only events can move it
+        assertThat(notificationService.getUnreadCount(userId)).isEqualTo(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationService.clearAllNotifications(userId);
+        notificationService.clearAllNotifications(otherUserId);
+    }
+
+    @Test
+    void bulkMarkAsReadCountsOnlyTheRowsItChanged() {
+        Long foreign = notification(otherUserId, false);
+
+        int updated = notificationService.markAsRead(List.of(first, second, alreadyRead, foreign, Long.MAX_VALUE), userId);
+
+        assertThat(updated).isEqualTo(2);
+        assertCounterMatchesDatabase(1);
+        // Repeating it changes nothing
+        assertThat(notificationService.markAsRead(List.of(first, second), userId)).isZero();
+        assertCounterMatchesDatabase(1);
+        assertThat(notificationRepository.findById(foreign).orElseThrow().getIsRead()).isFalse();
+    }
+
+    @Test
+    void markingOneReadTwiceDecrementsOnce() {
+        notificationService.markAsRead(first, userId);
+        notificationService.markAsRead(first, userId);
+
+        assertCounterMatchesDatabase(2);
+        assertThatThrownBy(() -> notificationService.markAsRead(Long.MAX_VALUE, userId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void deletingUsesTheReturnedReadFlag() {
+        notificationService.deleteNotification(alreadyRead, userId);
+        assertCounterMatchesDatabase(3);
+
+        notificationService.deleteNotification(first, userId);
+        assertCounterMatchesDatabase(2);
+
+        assertThatThrownBy(() -> notificationService.deleteNotification(first, userId))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertCounterMatchesDatabase(2);
+    }
+
+    @Test
+    void deletingSomeoneElsesNotificationIsNotFound() {
+        Long foreign = notification(otherUserId, false);
+
+        assertThatThrownBy(() -> notificationService.deleteNotification(foreign, userId))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(notificationRepository.existsById(foreign)).isTrue();
+        assertCounterMatchesDatabase(3);
+    }
+
+    @Test
+    void markAllAsReadClearsTheCount() {
+        Long foreign = notification(otherUserId, false);
+
+        notificationService.markAllAsRead(userId);
+
+        assertCounterMatchesDatabase(0);
+        assertThat(notificationRepository.findById(third).orElseThrow().getIsRead()).isTrue();
+        assertThat(notificationRepository.findById(foreign).orElseThrow().getIsRead()).isFalse();
+    }
+
+    @Test
+    void clearAllDeletesOnlyTheUsersRows() {
+        Long foreign = notification(otherUserId, false);
+
+        notificationService.clearAllNotifications(userId);
+
+        assertCounterMatchesDatabase(0);
+        assertThat(notificationRepository.existsById(first)).isFalse();
+        assertThat(notificationRepository.existsById(alreadyRead)).isFalse();
+        assertThat(notificationRepository.existsById(foreign)).isTrue();
+    }
+
+    private void assertCounterMatchesDatabase(long expected) {
+        assertThat(notificationRepository.countByUserIdAndIsReadFalse(userId)).isEqualTo(expected);
+        assertThat(notificationService.getUnreadCount(userId)).isEqualTo(expected);
+    }
+
+    private Long notification(long owner, boolean read) {
+        Notification notification = new Notification();
+        notification.setUserId(owner);
+        notification.setType("TEST");
+        notification.setMessage("test");
+        notification.setIsRead(read);
+        return notificationRepository.save(notification).getId();
+    }
+}
@@ -0,0 +1,216 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.event.NotificationCreatedEvent;
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Stream registration, fan-out and cleanup, with emitters that record what is
+ * written to them instead of writing to a response.
+ */
+class NotificationStreamServiceTest {
+
+    private static final Pattern EVENT_NAME = Pattern.compile("^event:(\\S+)", Pattern.MULTILINE);
+
+    /** Records event names ("ping" for comments); can be made to block or fail. */
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch blockUntil;
+        volatile boolean broken;
+        volatile Throwable completedWithError;
+        Runnable onCompletion;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            CountDownLatch latch = blockUntil;
+            if (latch != null) {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            Matcher name = EVENT_NAME.matcher(text);
+            events.add(name.find() ? name.group(1) : "ping");
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            onCompletion = callback;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            completedWithError = ex;
+        }
+    }
+
+    private final List<RecordingEmitter> created = new CopyOnWriteArrayList<>();
+    private NotificationStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void subscribingSendsReadyAndIsCappedPerUser() {
+        service = start(2, 4, 100);
+
+        RecordingEmitter first = subscribe(1L);
+        subscribe(1L);
+
+        assertThat(first.events).containsExactly("ready");
+        assertThatThrownBy(() -> service.subscribe(1L)).isInstanceOf(TooManyRequestsException.class);
+        // Another user is not affected by user 1's streams
+        assertThat(subscribe(2L).events).containsExactly("ready");
+    }
+
+    @Test
+    void notificationGoesToEveryStreamOfItsUserOnly() {
+        service = start(5, 4, 100);
+        RecordingEmitter laptop = subscribe(1L);
+        RecordingEmitter phone = subscribe(1L);
+        RecordingEmitter other = subscribe(2L);
+
+        service.onNotificationCreated(event(10L, 1L, false));
+        service.onNotificationCreated(event(10L, 1L, true));
+
+        // Pushes run on a pool, so their order on one stream is not fixed
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertThat(laptop.events).containsExactlyInAnyOrder("ready", "notification", "notification-updated");
+            assertThat(phone.events).containsExactlyInAnyOrder("ready", "notification", "notification-updated");
+        });
+        assertThat(other.events).containsExactly("ready");
+    }
+
+    @Test
+    void completedStreamIsRemoved() {
+        service = start(1, 4, 100);
+        RecordingEmitter emitter = subscribe(1L);
+
+        emitter.onCompletion.run();
+
+        service.onNotificationCreated(event(10L, 1L, false));
+        service.heartbeat();
+        assertThat(streams()).isEmpty();
+        // The slot is free again
+        assertThat(subscribe(1L).events).containsExactly("ready");
+        assertThat(emitter.events).containsExactly("ready");
+    }
+
+    @Test
+    void failedWriteRemovesTheStream() {
+        service = start(5, 4, 100);
+        RecordingEmitter dead = subscribe(1L);
+        RecordingEmitter alive = subscribe(1L);
+        dead.broken = true;
+
+        service.heartbeat();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> dead.completedWithError != null);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> alive.events.contains("ping"));
+        assertThat(streams().get(1L)).containsExactly(alive);
+    }
+
+    @Test
+    void droppedPushesAreCountedAndTheStreamIsToldToResync() {
+        service = start(5, 1, 1);
+        RecordingEmitter slow = subscribe(1L);
+        RecordingEmitter waiting = subscribe(2L);
+        CountDownLatch release = new CountDownLatch(1);
+        slow.blockUntil = release;
+
+        // One push holds the only fan-out thread, one waits in the queue, the rest are dropped
+        service.onNotificationCreated(event(10L, 1L, false));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> fanoutActive() == 1);
+        service.onNotificationCreated(event(11L, 1L, false));
+        service.onNotificationCreated(event(20L, 2L, false));
+        service.onNotificationCreated(event(21L, 2L, false));
+
+        assertThat(service.getDroppedPushes()).isEqualTo(2);
+
+        slow.blockUntil = null;
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> slow.events.size() == 3);
+
+        // With a one-slot queue a heartbeat may drop a write of its own; a dropped resync is retried
+        await().atMost(5, TimeUnit.SECONDS).pollInterval(50, TimeUnit.MILLISECONDS).until(() -> {
+            service.heartbeat();
+            return waiting.events.contains("resync") && slow.events.contains("ping");
+        });
+        assertThat(slow.events).startsWith("ready", "notification", "notification").doesNotContain("resync");
+
+        // Told once: later heartbeats are plain pings again
+        await().atMost(5, TimeUnit.SECONDS).pollInterval(50, TimeUnit.MILLISECONDS).until(() -> {
+            service.heartbeat();
+            return waiting.events.get(waiting.events.size() - 1).equals("ping");
+        });
+        assertThat(waiting.events).filteredOn("resync"::equals).hasSize(1);
+        assertThat(waiting.events.subList(0, 2)).containsExactly("ready", "resync");
+    }
+
+    private NotificationStreamService start(int maxPerUser, int threads, int queueCapacity) {
+        NotificationStreamService streamService = new NotificationStreamService() {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                created.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(streamService, "maxPerUser", maxPerUser);
+        ReflectionTestUtils.setField(streamService, "fanoutThreads", threads);
+        ReflectionTestUtils.setField(streamService, "fanoutQueueCapacity", queueCapacity);
+        streamService.init();
+        return streamService;
+    }
+
+    private RecordingEmitter subscribe(Long userId) {
+        SseEmitter emitter = service.subscribe(userId);
+        assertThat(created).contains((RecordingEmitter) emitter);
+        return (RecordingEmitter) emitter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<SseEmitter>> streams() {
+        return (Map<Long, List<SseEmitter>>) ReflectionTestUtils.getField(service, "streams");
+    }
+
+    private int fanoutActive() {
+        return ((ThreadPoolExecutor) ReflectionTestUtils.getField(service, "fanout"))
+                .getActiveCount();
+    }
+
+    private static NotificationCreatedEvent event(Long id, Long userId, boolean merged) {
+        return new NotificationCreatedEvent(id, userId, "TEST", "Notification " + id, null,
+                LocalDateTime.now(), merged ? 2 : 1, merged);
+    }
+}
@@ -0,0 +1,235 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobportal.jobportalapplication.entity.Notification;
+import com.jobportal.jobportalapplication.event.NotificationCreatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * NotificationWriteBuffer with a stubbed JdbcTemplate that records each multi-row
+ * INSERT: batching by size and by time, the caller writing itself when the queue
+ * is full, spill replay resuming after a failure, and spilled rows keeping their
+ * group message.
+ */
+class NotificationWriteBufferTest {
+
+    /** One multi-row INSERT: the messages it stored and the thread that ran it. */
+    private record Insert(List<String> messages, String thread) {
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Insert> inserts = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private ObjectMapper objectMapper;
+    private NotificationWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class)))
+                .thenAnswer(invocation -> recordInsert(invocation.getRawArguments()[2]));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    void fullBatchIsWrittenWithoutWaitingForTheFlushInterval() {
+        buffer = start(3, 60_000, 100);
+
+        for (int i = 0; i < 3; i++) {
+            buffer.add(notification("n" + i));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> inserts.size() == 1);
+        assertThat(inserts.get(0).messages()).containsExactly("n0", "n1", "n2");
+        assertThat(inserts.get(0).thread()).isEqualTo("notification-writer");
+    }
+
+    @Test
+    void partialBatchIsWrittenAfterTheFlushInterval() {
+        buffer = start(500, 50, 100);
+
+        buffer.add(notification("a"));
+        buffer.add(notification("b"));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> inserts.size() == 1);
+        assertThat(inserts.get(0).messages()).containsExactly("a", "b");
+        verify(eventPublisher, timeout(5000).times(2))
+                .publishEvent(any(NotificationCreatedEvent.class));
+    }
+
+    @Test
+    void callerWritesItselfWhenTheQueueIsFull() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("notification-writer") && writerBusy.getCount() > 0) {
+                writerBusy.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return recordInsert(invocation.getRawArguments()[2]);
+        }).when(jdbcTemplate).queryForList(anyString(), eq(Long.class), any(Object[].class));
+        buffer = start(1, 10, 1);
+
+        buffer.add(notification("held by writer"));
+        assertThat(writerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        buffer.add(notification("queued"));
+        buffer.add(notification("overflow"));
+
+        // Written on this thread while the writer is still stuck
+        assertThat(inserts).extracting(Insert::messages).containsExactly(List.of("overflow"));
+        assertThat(inserts.get(0).thread()).isEqualTo(Thread.currentThread().getName());
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> inserts.size() == 3);
+        assertThat(inserts).extracting(Insert::messages)
+                .containsExactly(List.of("overflow"), List.of("held by writer"), List.of("queued"));
+    }
+
+    @Test
+    void replayResumesAfterTheLastWrittenBatch() throws Exception {
+        Path spill = tempDir.resolve("spill.jsonl");
+        List<String> lines = new ArrayList<>();
+        for (String message : List.of("s0", "s1", "s2", "s3")) {
+            lines.add(objectMapper.writeValueAsString(notification(message)));
+        }
+        Files.write(spill, lines, StandardCharsets.UTF_8);
+
+        // The second batch fails: the first stays written and is not replayed again
+        doAnswer(invocation -> {
+            if (inserts.size() == 1) {
+                throw new IllegalStateException("database down");
+            }
+            return recordInsert(invocation.getRawArguments()[2]);
+        }).when(jdbcTemplate).queryForList(anyString(), eq(Long.class), any(Object[].class));
+        start(2, 60_000, 100).stop();
+
+        assertThat(inserts).extracting(Insert::messages).containsExactly(List.of("s0", "s1"));
+        assertThat(spill).exists();
+        assertThat(Files.readString(tempDir.resolve("spill.jsonl.offset")).trim()).isEqualTo("2");
+
+        doAnswer(invocation -> recordInsert(invocation.getRawArguments()[2]))
+                .when(jdbcTemplate).queryForList(anyString(), eq(Long.class), any(Object[].class));
+        buffer = start(2, 60_000, 100);
+
+        assertThat(inserts).extracting(Insert::messages)
+                .containsExactly(List.of("s0", "s1"), List.of("s2", "s3"));
+        assertThat(spill).doesNotExist();
+        assertThat(tempDir.resolve("spill.jsonl.offset")).doesNotExist();
+    }
+
+    @Test
+    void spilledNotificationKeepsItsGroupMessage() throws Exception {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        buffer = start(10, 10, 100);
+        buffer.stop();
+
+        Notification grouped = notification("New application for Engineer");
+        grouped.setGroupKey("job:7");
+        grouped.setGroupMessage("{count} new applications for Engineer");
+        buffer.add(grouped);
+
+        Path spill = tempDir.resolve("spill.jsonl");
+        assertThat(Files.readString(spill)).contains("\"groupMessage\":\"{count} new applications for Engineer\"");
+        // API responses still leave it out
+        assertThat(objectMapper.writeValueAsString(grouped)).doesNotContain("groupMessage");
+
+        List<Object[]> merges = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> recordInsert(invocation.getRawArguments()[2]))
+                .when(jdbcTemplate).queryForList(anyString(), eq(Long.class), any(Object[].class));
+        doAnswer(invocation -> merges.add((Object[]) invocation.getRawArguments()[2]))
+                .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        buffer = start(10, 10, 100);
+
+        // Replay tries to fold the row into the user's unread group with the original message
+        assertThat(merges).hasSize(1);
+        assertThat(merges.get(0)[5]).isEqualTo("{count} new applications for Engineer");
+        assertThat(inserts).extracting(Insert::messages)
+                .containsExactly(List.of("New application for Engineer"));
+        assertThat(spill).doesNotExist();
+    }
+
+    private NotificationWriteBuffer start(int batchSize, long flushMs, int queueCapacity) {
+        NotificationWriteBuffer writeBuffer = new NotificationWriteBuffer();
+        ReflectionTestUtils.setField(writeBuffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writeBuffer, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(writeBuffer, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(writeBuffer, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(writeBuffer, "enabled", true);
+        ReflectionTestUtils.setField(writeBuffer, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writeBuffer, "flushMs", flushMs);
+        ReflectionTestUtils.setField(writeBuffer, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(writeBuffer, "spillFile", tempDir.resolve("spill.jsonl").toString());
+        ReflectionTestUtils.setField(writeBuffer, "coalesceEnabled", true);
+        ReflectionTestUtils.setField(writeBuffer, "coalesceWindowMinutes", 1440L);
+        writeBuffer.start();
+        return writeBuffer;
+    }
+
+    /** Rows are bound 8 parameters each; the message is the third. */
+    private List<Long> recordInsert(Object args) {
+        Object[] values = (Object[]) args;
+        List<String> messages = new ArrayList<>();
+        List<Long> rowIds = new ArrayList<>();
+        for (int i = 0; i < values.length; i += 8) {
+            messages.add((String) values[i + 2]);
+            rowIds.add(ids.incrementAndGet());
+        }
+        inserts.add(new Insert(messages, Thread.currentThread().getName()));
+        return rowIds;
+    }
+
+    private static Notification notification(String message) {
+        Notification notification = new Notification();
+        notification.setUserId(1L);
+        notification.setType("TEST");
+        notification.setMessage(message);
+        notification.setCreatedAt(LocalDateTime.now());
+        return notification;
+    }
+}
@@ -0,0 +1,183 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.entity.Candidate;
+import com.jobportal.jobportalapplication.entity.ResumeIngestion;
+import com.jobportal.jobportalapplication.entity.ResumeIngestionStatus;
+import com.jobportal.jobportalapplication.exception.TooManyRequestsException;
+import com.jobportal.jobportalapplication.ratelimit.LocalRateLimitStore;
+import com.jobportal.jobportalapplication.ratelimit.RateLimitInterceptor;
+import com.jobportal.jobportalapplication.repo.CandidateRepository;
+import com.jobportal.jobportalapplication.repo.ResumeIngestionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Charging the AI budget for opt-in analysis at submit time, and the sweep that
+ * restarts ingestions orphaned by a restart. Storage, parser and AI are mocks;
+ * the rate limiter is real with a user allowed 2 tokens.
+ */
+class ResumeIngestionServiceTest {
+
+    private static final String FILENAME = "ab".repeat(32) + ".pdf";
+
+    @TempDir
+    Path tempDir;
+
+    private ResumeIngestionRepository repository;
+    private FileStorageService fileStorageService;
+    private ResumeParserService parser;
+    private GroqAIService groqAIService;
+    private ResumeIngestionService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = mock(ResumeIngestionRepository.class);
+        when(repository.save(any(ResumeIngestion.class))).thenAnswer(invocation -> {
+            ResumeIngestion ingestion = invocation.getArgument(0);
+            ingestion.setId(1L);
+            return ingestion;
+        });
+
+        fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.store(any(MultipartFile.class), eq("resume"), eq("pdf"), anyLong())).thenReturn(
+                new FileStorageService.StoredUpload("ab".repeat(32), "pdf", 3, FILENAME,
+                        "/api/files/download/resume/" + FILENAME));
+        when(fileStorageService.fetch("resume", FILENAME))
+                .thenReturn(new FileStorageService.LocalCopy(tempDir.resolve(FILENAME), false));
+
+        parser = mock(ResumeParserService.class);
+        when(parser.extractText(any(Path.class), eq("pdf"))).thenReturn("Java developer");
+
+        groqAIService = mock(GroqAIService.class);
+        when(groqAIService.isEnabled()).thenReturn(true);
+
+        CandidateRepository candidateRepository = mock(CandidateRepository.class);
+        Candidate candidate = new Candidate();
+        candidate.setId(5L);
+        when(candidateRepository.findByUserId(anyLong())).thenReturn(Optional.of(candidate));
+
+        RateLimitInterceptor limiter = new RateLimitInterceptor();
+        ReflectionTestUtils.setField(limiter, "rateLimitStore", new LocalRateLimitStore());
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "userCapacity", 2L);
+        ReflectionTestUtils.setField(limiter, "userRefillPerMinute", 1L);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", 100L);
+        ReflectionTestUtils.setField(limiter, "ipRefillPerMinute", 1L);
+
+        service = new ResumeIngestionService();
+        ReflectionTestUtils.setField(service, "resumeIngestionRepository", repository);
+        ReflectionTestUtils.setField(service, "fileStorageService", fileStorageService);
+        ReflectionTestUtils.setField(service, "resumeParserService", parser);
+        ReflectionTestUtils.setField(service, "groqAIService", groqAIService);
+        ReflectionTestUtils.setField(service, "candidateRepository", candidateRepository);
+        ReflectionTestUtils.setField(service, "rateLimitInterceptor", limiter);
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "analyzeCost", 2);
+        ReflectionTestUtils.setField(service, "staleAfterSeconds", 600L);
+        ReflectionTestUtils.setField(service, "maxRecoveries", 2);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void analysisIsChargedBeforeTheUploadIsStored() throws IOException {
+        service.submit(resume(), true, 7L, "10.0.0.1");
+        verify(groqAIService, timeout(2000)).analyzeAndStoreResume(5L, "Java developer");
+
+        // The user's 2 tokens are spent: the next analysis is refused up front
+        assertThatThrownBy(() -> service.submit(resume(), true, 7L, "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        verify(fileStorageService).store(any(MultipartFile.class), eq("resume"), eq("pdf"), eq(7L));
+    }
+
+    @Test
+    void plainExtractionIsNotCharged() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            service.submit(resume(), false, 7L, "10.0.0.1");
+        }
+
+        verify(repository, timeout(2000).times(3)).save(any(ResumeIngestion.class));
+        verify(groqAIService, never()).analyzeAndStoreResume(anyLong(), anyString());
+    }
+
+    @Test
+    void analysisIsFreeWhenTheAiIsDisabled() throws IOException {
+        when(groqAIService.isEnabled()).thenReturn(false);
+
+        for (int i = 0; i < 3; i++) {
+            service.submit(resume(), true, 7L, "10.0.0.1");
+        }
+
+        verify(fileStorageService, timeout(2000).times(3)).store(any(MultipartFile.class), eq("resume"), eq("pdf"), eq(7L));
+    }
+
+    @Test
+    void sweepRestartsAStaleIngestionFromItsStoredFile() throws IOException {
+        ResumeIngestion stale = staleIngestion(ResumeIngestionStatus.ANALYZING);
+        when(repository.findStale(any(), any(), eq(2), any())).thenReturn(List.of(stale));
+        when(repository.requeueIfStale(eq(9L), any(), any(), eq(ResumeIngestionStatus.QUEUED), any())).thenReturn(1);
+        when(repository.findById(9L)).thenReturn(Optional.of(stale));
+
+        service.recoverStale();
+
+        verify(fileStorageService, timeout(2000)).fetch("resume", FILENAME);
+        verify(groqAIService, timeout(2000)).analyzeAndStoreResume(5L, "Java developer");
+        verify(repository, timeout(2000)).save(stale);
+        assertThat(stale.getStatus()).isEqualTo(ResumeIngestionStatus.COMPLETED);
+        verify(repository).failStale(any(), any(), eq(2), eq(ResumeIngestionStatus.FAILED), anyString(), any());
+    }
+
+    @Test
+    void sweepLeavesRowsAnotherInstanceAlreadyRestarted() throws IOException {
+        ResumeIngestion stale = staleIngestion(ResumeIngestionStatus.EXTRACTING);
+        when(repository.findStale(any(), any(), anyInt(), any())).thenReturn(List.of(stale));
+        when(repository.requeueIfStale(eq(9L), any(), any(), any(), any())).thenReturn(0);
+
+        service.recoverStale();
+
+        verify(fileStorageService, never()).fetch(anyString(), anyString());
+    }
+
+    private static MockMultipartFile resume() {
+        return new MockMultipartFile("file", "cv.pdf", "application/pdf", new byte[]{1, 2, 3});
+    }
+
+    private static ResumeIngestion staleIngestion(ResumeIngestionStatus status) {
+        ResumeIngestion ingestion = new ResumeIngestion();
+        ingestion.setId(9L);
+        ingestion.setUserId(7L);
+        ingestion.setFileUrl("/api/files/download/resume/" + FILENAME);
+        ingestion.setExtension("pdf");
+        ingestion.setAnalyze(true);
+        ingestion.setStatus(status);
+        return ingestion;
+    }
+}
@@ -0,0 +1,185 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.exception.BadRequestException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Size, page and inflation caps on real generated documents, and a timed-out
+ * extraction actually releasing its worker.
+ */
+class ResumeParserServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ResumeParserService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ResumeParserService();
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 4);
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 20L);
+        ReflectionTestUtils.setField(service, "maxChars", 50_000);
+        ReflectionTestUtils.setField(service, "maxPdfPages", 30);
+        ReflectionTestUtils.setField(service, "maxMemoryBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(service, "maxInflatedBytes", 1024L * 1024);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void txtIsTruncatedAtTheCharacterCap() throws IOException {
+        ReflectionTestUtils.setField(service, "maxChars", 100);
+        Path file = tempDir.resolve("resume.txt");
+        Files.writeString(file, "x".repeat(10_000));
+
+        assertThat(service.extractText(file, "txt")).hasSize(100);
+    }
+
+    @Test
+    void pdfStopsAtThePageCap() throws IOException {
+        ReflectionTestUtils.setField(service, "maxPdfPages", 2);
+        Path file = pdf(5);
+
+        String text = service.extractText(file, "pdf");
+
+        assertThat(text).contains("Page 1", "Page 2").doesNotContain("Page 3");
+    }
+
+    @Test
+    void pdfIsTruncatedAtTheCharacterCap() throws IOException {
+        ReflectionTestUtils.setField(service, "maxChars", 10);
+        Path file = pdf(3);
+
+        assertThat(service.extractText(file, "pdf")).hasSizeLessThanOrEqualTo(10).startsWith("Page 1");
+    }
+
+    @Test
+    void docxBodyIsStreamed() throws IOException {
+        Path file = docx("<w:p><w:r><w:t>Senior</w:t><w:tab/><w:t>Engineer</w:t></w:r></w:p>"
+                + "<w:p><w:r><w:t>Java</w:t></w:r></w:p>");
+
+        assertThat(service.extractText(file, "docx")).isEqualTo("Senior\tEngineer\nJava");
+    }
+
+    @Test
+    void docxInflatingPastTheCapIsRejected() throws IOException {
+        // ~4 MB of whitespace compresses to a few KB: a small upload that would inflate far past the cap.
+        Path file = docx("<w:p><w:r><w:t>x</w:t></w:r></w:p>" + " ".repeat(4 * 1024 * 1024));
+        assertThat(Files.size(file)).isLessThan(64 * 1024);
+
+        assertThatThrownBy(() -> service.extractText(file, "docx"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Resume content is too large");
+    }
+
+    @Test
+    void docxWithoutABodyIsRejected() throws IOException {
+        Path file = tempDir.resolve("empty.docx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            zip.write("<Types/>".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        assertThatThrownBy(() -> service.extractText(file, "docx"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid DOCX file");
+    }
+
+    @Test
+    void unsupportedFormatIsRejected() throws IOException {
+        Path file = tempDir.resolve("resume.rtf");
+        Files.writeString(file, "{\\rtf1}");
+
+        assertThatThrownBy(() -> service.extractText(file, "rtf"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unsupported resume format");
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void timedOutExtractionIsCancelledAndFreesTheWorker() throws IOException {
+        // An endless input with no effective cap: only cancellation can end this task.
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 0L);
+        ReflectionTestUtils.setField(service, "maxChars", Integer.MAX_VALUE - 8);
+
+        assertThatThrownBy(() -> service.extractText(Path.of("/dev/zero"), "txt"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Resume took too long to process");
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+        await().atMost(1, TimeUnit.SECONDS).until(() -> executor.getActiveCount() == 0);
+
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 20L);
+        Path file = tempDir.resolve("next.txt");
+        Files.writeString(file, "next resume");
+        assertThat(service.extractText(file, "txt")).isEqualTo("next resume");
+    }
+
+    // ==================== FIXTURES ====================
+
+    private Path pdf(int pages) throws IOException {
+        Path file = tempDir.resolve("resume.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + i);
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+
+    private Path docx(String body) throws IOException {
+        Path file = tempDir.resolve("resume.docx");
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+                + "<w:body>" + body + "</w:body></w:document>";
+        try (OutputStream out = Files.newOutputStream(file);
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(xml.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,176 @@
+package com.jobportal.jobportalapplication.service;
+
+import com.jobportal.jobportalapplication.event.NotificationCreatedEvent;
+import com.jobportal.jobportalapplication.event.UnreadCountChangedEvent;
+import com.jobportal.jobportalapplication.repo.NotificationRepository;
+import com.jobportal.jobportalapplication.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory unread counts against a "database" map: loading, event deltas,
+ * reconciliation that does not clobber concurrent changes, and idle eviction that
+ * only reads count as use of. Users are idle after 30 minutes.
+ */
+class UnreadNotificationCounterTest {
+
+    /** Unread rows per user as the database sees them. */
+    private final Map<Long, Long> database = new ConcurrentHashMap<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private NotificationRepository notificationRepository;
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        when(notificationRepository.countByUserIdAndIsReadFalse(anyLong()))
+                .thenAnswer(invocation -> database.getOrDefault(invocation.<Long>getArgument(0), 0L));
+        when(notificationRepository.countUnreadByUserIds(anyList())).thenAnswer(invocation -> rows(invocation.getArgument(0)));
+
+        counter = new UnreadNotificationCounter(clock);
+        ReflectionTestUtils.setField(counter, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(counter, "maxUsers", 1000L);
+        ReflectionTestUtils.setField(counter, "idleMinutes", 30L);
+        counter.init();
+    }
+
+    @Test
+    void countIsLoadedOnceThenServedFromMemory() {
+        database.put(1L, 4L);
+
+        assertThat(counter.get(1L)).isEqualTo(4);
+        database.put(1L, 9L);
+        assertThat(counter.get(1L)).isEqualTo(4);
+
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    void eventsMoveLoadedCountsOnly() {
+        counter.get(1L);
+
+        counter.onNotificationCreated(created(1L, false));
+        counter.onNotificationCreated(created(1L, true));
+        counter.onNotificationCreated(created(2L, false));
+
+        // A merged notification was already unread
+        assertThat(counter.get(1L)).isEqualTo(1);
+        // User 2 was not loaded: the event was ignored and the count comes from the database
+        database.put(2L, 7L);
+        assertThat(counter.get(2L)).isEqualTo(7);
+    }
+
+    @Test
+    void deltasNeverGoBelowZeroAndResetClears() {
+        database.put(1L, 3L);
+        counter.get(1L);
+
+        counter.onUnreadCountChanged(UnreadCountChangedEvent.by(1L, -5));
+        assertThat(counter.get(1L)).isZero();
+
+        counter.onUnreadCountChanged(UnreadCountChangedEvent.by(1L, 2));
+        counter.onUnreadCountChanged(UnreadCountChangedEvent.cleared(1L));
+        assertThat(counter.get(1L)).isZero();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        database.put(1L, 2L);
+        database.put(2L, 5L);
+        counter.get(1L);
+        counter.get(2L);
+
+        // Events that never arrived
+        database.put(1L, 6L);
+        database.remove(2L);
+        counter.reconcile();
+
+        assertThat(counter.get(1L)).isEqualTo(6);
+        assertThat(counter.get(2L)).isZero();
+    }
+
+    @Test
+    void reconcileKeepsAChangeThatArrivesWhileItQueries() {
+        database.put(1L, 2L);
+        counter.get(1L);
+
+        // A notification is announced while the query runs; the rows read do not include it yet
+        when(notificationRepository.countUnreadByUserIds(anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = rows(invocation.getArgument(0));
+            counter.onNotificationCreated(created(1L, false));
+            return rows;
+        });
+        database.put(1L, 1L);
+        counter.reconcile();
+
+        // Not overwritten with the stale 1; the next round, with a quiet counter, settles it
+        assertThat(counter.get(1L)).isEqualTo(3);
+        when(notificationRepository.countUnreadByUserIds(anyList())).thenAnswer(invocation -> rows(invocation.getArgument(0)));
+        database.put(1L, 2L);
+        counter.reconcile();
+        assertThat(counter.get(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void onlyReadsKeepAUserLoaded() {
+        counter.get(1L);
+
+        // Events and reconciliation keep arriving, but nobody reads the count
+        for (int i = 0; i < 4; i++) {
+            clock.advance(Duration.ofMinutes(10));
+            counter.onNotificationCreated(created(1L, false));
+            counter.reconcile();
+        }
+
+        database.put(1L, 8L);
+        assertThat(counter.get(1L)).isEqualTo(8);
+        verify(notificationRepository, times(2)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    void readUserStaysLoaded() {
+        counter.get(1L);
+        for (int i = 0; i < 4; i++) {
+            clock.advance(Duration.ofMinutes(10));
+            counter.get(1L);
+        }
+
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(1L);
+        verify(notificationRepository, never()).countUnreadByUserIds(anyList());
+    }
+
+    private List<Object[]> rows(List<Long> userIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long userId : userIds) {
+            Long unread = database.get(userId);
+            if (unread != null) {
+                rows.add(new Object[]{userId, unread});
+            }
+        }
+        return rows;
+    }
+
+    private static NotificationCreatedEvent created(Long userId, boolean merged) {
+        return new NotificationCreatedEvent(100L, userId, "APPLICATION", "New application", null,
+                LocalDateTime.now(), 1, merged);
+    }
+}
@@ -0,0 +1,177 @@
+package com.jobportal.jobportalapplication.storage;
+
+import com.jobportal.jobportalapplication.support.S3TestStorage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * S3BlobStore against a real S3 API (MinIO, or the endpoint in TEST_S3_ENDPOINT):
+ * single and multipart uploads, reads, deletes and presigned download URLs. The
+ * bucket is created for the run and emptied and removed afterwards.
+ */
+@EnabledIf("com.jobportal.jobportalapplication.support.S3TestStorage#available")
+class S3BlobStoreTest {
+
+    private static final long PART_SIZE = 5L * 1024 * 1024;
+    private static final String BUCKET = "blob-store-test-" + UUID.randomUUID().toString().substring(0, 8);
+    private static final String PREFIX = "uploads";
+
+    private static S3Client client;
+
+    @TempDir
+    Path tempDir;
+
+    private S3BlobStore store;
+
+    @BeforeAll
+    static void createBucket() {
+        client = S3TestStorage.client();
+        client.createBucket(b -> b.bucket(BUCKET));
+    }
+
+    @AfterAll
+    static void deleteBucket() {
+        for (S3Object object : client.listObjectsV2Paginator(b -> b.bucket(BUCKET)).contents()) {
+            client.deleteObject(b -> b.bucket(BUCKET).key(object.key()));
+        }
+        client.deleteBucket(b -> b.bucket(BUCKET));
+        client.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void smallFileIsOnePut() throws IOException {
+        store = start("");
+        byte[] content = bytes(1024);
+
+        store.put("ab/cd/small.pdf", file(content), "application/pdf");
+
+        assertThat(store.exists("ab/cd/small.pdf")).isTrue();
+        try (InputStream in = store.get("ab/cd/small.pdf")) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        HeadObjectResponse head = client.headObject(b -> b.bucket(BUCKET).key(PREFIX + "/ab/cd/small.pdf"));
+        assertThat(head.contentType()).isEqualTo("application/pdf");
+        assertThat(head.cacheControl()).isEqualTo("private, max-age=31536000, immutable");
+        assertThat(head.eTag()).doesNotContain("-");
+    }
+
+    @Test
+    void largeFileIsUploadedInParts() throws IOException {
+        store = start("");
+        // Two full parts and a short last one
+        byte[] content = bytes((int) (2 * PART_SIZE + 12345));
+
+        store.put("ab/cd/large.pdf", file(content), "application/pdf");
+
+        try (InputStream in = store.get("ab/cd/large.pdf")) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        HeadObjectResponse head = client.headObject(b -> b.bucket(BUCKET).key(PREFIX + "/ab/cd/large.pdf"));
+        // A multipart ETag ends with the number of parts
+        assertThat(head.eTag().replace("\"", "")).endsWith("-3");
+        assertThat(head.contentLength()).isEqualTo(content.length);
+        assertThat(head.contentType()).isEqualTo("application/pdf");
+        assertThat(client.listMultipartUploads(b -> b.bucket(BUCKET)).uploads()).isEmpty();
+    }
+
+    @Test
+    void missingBlobIsReportedAsNoSuchFile() throws IOException {
+        store = start("");
+
+        assertThat(store.exists("ab/cd/missing.pdf")).isFalse();
+        assertThatThrownBy(() -> store.get("ab/cd/missing.pdf")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void deletedBlobIsGone() throws IOException {
+        store = start("");
+        store.put("ab/cd/deleted.pdf", file(bytes(10)), "application/pdf");
+
+        store.delete("ab/cd/deleted.pdf");
+
+        assertThat(store.exists("ab/cd/deleted.pdf")).isFalse();
+    }
+
+    @Test
+    void presignedUrlServesTheBlobAndIsReused() throws Exception {
+        store = start("");
+        byte[] content = bytes(2048);
+        store.put("ab/cd/presigned.png", file(content), "image/png");
+
+        URI url = store.downloadUrl("ab/cd/presigned.png", Duration.ofMinutes(10)).orElseThrow();
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(url).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(content);
+        assertThat(url.getQuery()).contains("X-Amz-Expires=600");
+        // Within half its lifetime the same URL is handed out, so browsers can cache the download
+        assertThat(store.downloadUrl("ab/cd/presigned.png", Duration.ofMinutes(10))).contains(url);
+    }
+
+    @Test
+    void presignedUrlUsesThePublicEndpoint() {
+        store = start("https://files.example.com");
+
+        URI url = store.downloadUrl("ab/cd/public.png", Duration.ofMinutes(10)).orElseThrow();
+
+        assertThat(url.getHost()).isEqualTo("files.example.com");
+        assertThat(url.getPath()).isEqualTo("/" + BUCKET + "/" + PREFIX + "/ab/cd/public.png");
+    }
+
+    private S3BlobStore start(String publicEndpoint) {
+        S3BlobStore blobStore = new S3BlobStore();
+        ReflectionTestUtils.setField(blobStore, "bucket", BUCKET);
+        ReflectionTestUtils.setField(blobStore, "prefix", PREFIX + "/");
+        ReflectionTestUtils.setField(blobStore, "region", "us-east-1");
+        ReflectionTestUtils.setField(blobStore, "endpoint", S3TestStorage.endpoint());
+        ReflectionTestUtils.setField(blobStore, "pathStyle", true);
+        ReflectionTestUtils.setField(blobStore, "accessKey", S3TestStorage.accessKey());
+        ReflectionTestUtils.setField(blobStore, "secretKey", S3TestStorage.secretKey());
+        ReflectionTestUtils.setField(blobStore, "partSize", PART_SIZE);
+        ReflectionTestUtils.setField(blobStore, "publicEndpoint", publicEndpoint);
+        blobStore.init();
+        return blobStore;
+    }
+
+    private Path file(byte[] content) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "blob", ".bin"), content);
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,94 @@
+package com.jobportal.jobportalapplication.support;
+
+import com.jobportal.jobportalapplication.entity.Application;
+import com.jobportal.jobportalapplication.entity.ApplicationStatus;
+import com.jobportal.jobportalapplication.entity.Candidate;
+import com.jobportal.jobportalapplication.entity.Company;
+import com.jobportal.jobportalapplication.entity.Employer;
+import com.jobportal.jobportalapplication.entity.Job;
+import com.jobportal.jobportalapplication.entity.Role;
+import com.jobportal.jobportalapplication.entity.User;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Jobs, each with its own company and employer, and candidates who applied to
+ * every job. Names are numbered ("Company 0", "Job 0", "Candidate 0"); emails are
+ * random {@code @example.com} addresses. Persisted, flushed and detached, so what
+ * a test loads afterwards comes from the database.
+ */
+public class ApplicationFixture {
+
+    private final List<Job> jobs = new ArrayList<>();
+    private final List<Candidate> candidates = new ArrayList<>();
+    private final List<Application> applications = new ArrayList<>();
+
+    public static ApplicationFixture persist(EntityManager entityManager, int jobCount, int candidateCount) {
+        ApplicationFixture fixture = new ApplicationFixture();
+
+        for (int i = 0; i < jobCount; i++) {
+            Company company = new Company();
+            company.setName("Company " + i);
+            entityManager.persist(company);
+
+            Employer employer = new Employer();
+            employer.setUser(user(entityManager, Role.EMPLOYER));
+            employer.setCompany(company);
+            entityManager.persist(employer);
+
+            Job job = new Job();
+            job.setTitle("Job " + i);
+            job.setDescription("Description " + i);
+            job.setCompany(company);
+            job.setEmployer(employer);
+            entityManager.persist(job);
+            fixture.jobs.add(job);
+        }
+
+        for (int i = 0; i < candidateCount; i++) {
+            Candidate candidate = new Candidate();
+            candidate.setUser(user(entityManager, Role.CANDIDATE));
+            candidate.setFullName("Candidate " + i);
+            entityManager.persist(candidate);
+            fixture.candidates.add(candidate);
+
+            for (Job job : fixture.jobs) {
+                Application application = new Application();
+                application.setJob(job);
+                application.setCandidate(candidate);
+                application.setStatus(ApplicationStatus.PENDING);
+                entityManager.persist(application);
+                fixture.applications.add(application);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return fixture;
+    }
+
+    public static User user(EntityManager entityManager, Role role) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("x");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    public List<Job> jobs() {
+        return jobs;
+    }
+
+    public List<Candidate> candidates() {
+        return candidates;
+    }
+
+    /** Candidate by candidate, each candidate's applications in job order. */
+    public List<Application> applications() {
+        return applications;
+    }
+}
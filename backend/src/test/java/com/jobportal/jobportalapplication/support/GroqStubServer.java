@@ -0,0 +1,384 @@
+package com.jobportal.jobportalapplication.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local OpenAI-compatible stand-in for the Groq API.
+ *
+ * Serves {@code POST /chat/completions} with deterministic, correctly formatted
+ * completions for every prompt type GroqAIService sends (resume analysis, match
+ * score, job description, chat). Latency, 429 and 5xx responses can be injected
+ * so the AI endpoints can be load-tested offline. Point the app at it with
+ * {@code app.ai.groq.base-url=http://localhost:<port>}.
+ *
+ * Can also be started standalone:
+ * {@code java -cp target/test-classes:... GroqStubServer 8089 lognormal:300:0.4 0.02 0.01}
+ */
+public class GroqStubServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile LatencyModel latency = LatencyModel.none();
+    private volatile double rateLimitRate;
+    private volatile double serverErrorRate;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong totalRequests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+
+    public GroqStubServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "groq-stub");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/chat/completions", this::handleCompletion);
+        server.createContext("/models", this::handleModels);
+    }
+
+    public GroqStubServer start() {
+        server.start();
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public GroqStubServer withLatency(LatencyModel latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Fraction (0..1) of requests answered with 429 and a Retry-After header. */
+    public GroqStubServer withRateLimitRate(double rate) {
+        this.rateLimitRate = rate;
+        return this;
+    }
+
+    /** Fraction (0..1) of requests answered with a random 500/502/503. */
+    public GroqStubServer withServerErrorRate(double rate) {
+        this.serverErrorRate = rate;
+        return this;
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public long getTotalRequests() {
+        return totalRequests.get();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.get();
+    }
+
+    public void resetCounters() {
+        peakInFlight.set(0);
+        totalRequests.set(0);
+        rateLimited.set(0);
+        serverErrors.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ==================== HANDLERS ====================
+
+    private void handleModels(HttpExchange exchange) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("object", "list");
+        root.putArray("data").addObject().put("id", "stub-model").put("object", "model");
+        writeJson(exchange, 200, root.toString());
+    }
+
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+        totalRequests.incrementAndGet();
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                writeJson(exchange, 405, error("method_not_allowed", "Use POST"));
+                return;
+            }
+
+            JsonNode request;
+            try (InputStream in = exchange.getRequestBody()) {
+                request = objectMapper.readTree(in);
+            }
+
+            sleep(latency.nextMillis());
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < rateLimitRate) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                writeJson(exchange, 429, error("rate_limit_exceeded", "Rate limit reached for model"));
+                return;
+            }
+            if (roll < rateLimitRate + serverErrorRate) {
+                serverErrors.incrementAndGet();
+                int[] codes = {500, 502, 503};
+                writeJson(exchange, codes[ThreadLocalRandom.current().nextInt(codes.length)],
+                        error("server_error", "Injected upstream failure"));
+                return;
+            }
+
+            String prompt = lastUserMessage(request);
+            String model = request.path("model").asText("stub-model");
+            String content = completionFor(prompt);
+
+            if (request.path("stream").asBoolean(false)) {
+                writeStream(exchange, model, content);
+            } else {
+                writeJson(exchange, 200, completionBody(model, prompt, content));
+            }
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    // ==================== COMPLETIONS ====================
+
+    /**
+     * Picks a canned answer by looking at the section headers GroqAIService asks for,
+     * seeded from the prompt so the same input always yields the same output.
+     */
+    String completionFor(String prompt) {
+        Random random = new Random(prompt.hashCode());
+        int score = 40 + random.nextInt(56);
+
+        if (prompt.contains("SUGGESTED_JOB_TITLES:")) {
+            return """
+                    SKILLS:
+                    - Java
+                    - Spring Boot
+                    - PostgreSQL
+                    - REST APIs
+                    EXPERIENCE_SUMMARY:
+                    Backend developer with several years building web services. Has shipped production APIs.
+                    EDUCATION_SUMMARY:
+                    B.Sc. in Computer Science.
+                    SUGGESTED_JOB_TITLES:
+                    - Backend Engineer
+                    - Java Developer
+                    - Software Engineer
+                    - API Developer
+                    - Platform Engineer
+                    OVERALL_SUMMARY:
+                    Solid backend profile with relevant framework experience. A good fit for mid-level roles.
+                    """;
+        }
+        if (prompt.contains("STRENGTHS_SUMMARY:")) {
+            return "MATCH_SCORE: " + score + """
+
+                    MATCHING_SKILLS:
+                    - Java
+                    - Spring Boot
+                    MISSING_SKILLS:
+                    - Kubernetes
+                    STRENGTHS_SUMMARY:
+                    Strong fit on the core stack. Relevant project experience.
+                    RECOMMENDATION:
+                    Proceed to a technical interview.
+                    """;
+        }
+        if (prompt.contains("MATCH_SCORE:")) {
+            return "MATCH_SCORE: " + score + """
+
+                    MATCHING_SKILLS:
+                    - Java
+                    - SQL
+                    MISSING_SKILLS:
+                    - Kafka
+                    RECOMMENDATIONS:
+                    Highlight messaging experience and add a recent project using the missing tools.
+                    """;
+        }
+        if (prompt.contains("Generate job description")) {
+            return """
+                    DESCRIPTION:
+                    We are looking for an engineer to join our growing team and help build reliable services.
+
+                    You will work closely with product and design to deliver features end to end.
+                    REQUIREMENTS:
+                    - 3+ years of professional experience
+                    - Strong knowledge of the listed skills
+                    - Good communication skills
+                    """;
+        }
+        return "Thanks for your question. Focus on tailoring your resume to each role, "
+                + "quantify your achievements, and prepare concrete examples for interviews.";
+    }
+
+    private String completionBody(String model, String prompt, String content) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("id", "chatcmpl-stub-" + Integer.toHexString(prompt.hashCode()));
+        root.put("object", "chat.completion");
+        root.put("created", System.currentTimeMillis() / 1000);
+        root.put("model", model);
+        ArrayNode choices = root.putArray("choices");
+        ObjectNode choice = choices.addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = root.putObject("usage");
+        int promptTokens = prompt.length() / 4;
+        int completionTokens = content.length() / 4;
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        return root.toString();
+    }
+
+    private void writeStream(HttpExchange exchange, String model, String content) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        long perChunkDelay = Math.max(1, latency.nextMillis() / 20);
+        try (OutputStream out = exchange.getResponseBody()) {
+            String[] words = content.split("(?<= )");
+            for (String word : words) {
+                ObjectNode chunk = objectMapper.createObjectNode();
+                chunk.put("object", "chat.completion.chunk");
+                chunk.put("model", model);
+                ObjectNode choice = chunk.putArray("choices").addObject();
+                choice.put("index", 0);
+                choice.putObject("delta").put("content", word);
+                choice.putNull("finish_reason");
+                out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                sleep(perChunkDelay);
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String lastUserMessage(JsonNode request) {
+        JsonNode messages = request.path("messages");
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if ("user".equals(messages.get(i).path("role").asText())) {
+                return messages.get(i).path("content").asText("");
+            }
+        }
+        return "";
+    }
+
+    private String error(String code, String message) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.putObject("error").put("message", message).put("type", code).put("code", code);
+        return root.toString();
+    }
+
+    private void writeJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== LATENCY ====================
+
+    /**
+     * Latency distribution in milliseconds. Parsed from specs such as
+     * {@code fixed:200}, {@code uniform:100:400}, {@code normal:250:50} or
+     * {@code lognormal:300:0.4} (median, sigma).
+     */
+    public interface LatencyModel {
+
+        long nextMillis();
+
+        static LatencyModel none() {
+            return () -> 0;
+        }
+
+        static LatencyModel fixed(long millis) {
+            return () -> millis;
+        }
+
+        static LatencyModel uniform(long minMillis, long maxMillis) {
+            return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+        }
+
+        static LatencyModel normal(double meanMillis, double stdDevMillis) {
+            return () -> Math.max(0, Math.round(meanMillis
+                    + ThreadLocalRandom.current().nextGaussian() * stdDevMillis));
+        }
+
+        static LatencyModel logNormal(double medianMillis, double sigma) {
+            double mu = Math.log(medianMillis);
+            return () -> Math.round(Math.exp(mu + ThreadLocalRandom.current().nextGaussian() * sigma));
+        }
+
+        static LatencyModel parse(String spec) {
+            String[] parts = spec.split(":");
+            return switch (parts[0].toLowerCase()) {
+                case "none" -> none();
+                case "fixed" -> fixed(Long.parseLong(parts[1]));
+                case "uniform" -> uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "normal" -> normal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal" -> logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency model: " + spec);
+            };
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        GroqStubServer stub = new GroqStubServer(port)
+                .withLatency(args.length > 1 ? LatencyModel.parse(args[1]) : LatencyModel.none())
+                .withRateLimitRate(args.length > 2 ? Double.parseDouble(args[2]) : 0)
+                .withServerErrorRate(args.length > 3 ? Double.parseDouble(args[3]) : 0)
+                .start();
+        System.out.println("Groq stub listening on " + stub.getBaseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,101 @@
+package com.jobportal.jobportalapplication.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.util.Properties;
+
+/**
+ * Postgres for repository tests.
+ *
+ * Uses the database at {@code TEST_DATABASE_URL} (environment variable or system
+ * property, with {@code TEST_DATABASE_USERNAME} / {@code TEST_DATABASE_PASSWORD})
+ * when set, otherwise one Testcontainers container shared by every test class in
+ * the run. Tests guard themselves with
+ * {@code @EnabledIf("com.jobportal.jobportalapplication.support.PostgresTestDatabase#available")}
+ * so a machine with neither skips them instead of failing.
+ *
+ * Point the URL at a throwaway database: the schema is created in it.
+ */
+public final class PostgresTestDatabase {
+
+    private static final String IMAGE = "postgres:16-alpine";
+
+    private static PostgreSQLContainer<?> container;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static boolean available() {
+        return setting("TEST_DATABASE_URL") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    /** Point the Spring datasource at the test database. Use from a {@code @DynamicPropertySource} method. */
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PostgresTestDatabase::url);
+        registry.add("spring.datasource.username", PostgresTestDatabase::username);
+        registry.add("spring.datasource.password", PostgresTestDatabase::password);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    /** A plain DataSource on the test database, for tests that work below JPA. */
+    public static DataSource dataSource() {
+        return new DriverManagerDataSource(url(), username(), password());
+    }
+
+    /**
+     * A DataSource whose connections work in {@code schema}, created empty (dropped
+     * first if it exists), so a test can build tables without touching the JPA schema.
+     */
+    public static DataSource dataSource(String schema) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource());
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+
+        Properties properties = new Properties();
+        properties.setProperty("currentSchema", schema);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(), username(), password());
+        dataSource.setConnectionProperties(properties);
+        return dataSource;
+    }
+
+    public static String url() {
+        String url = setting("TEST_DATABASE_URL");
+        return url != null ? url : container().getJdbcUrl();
+    }
+
+    public static String username() {
+        return setting("TEST_DATABASE_URL") != null
+                ? orDefault(setting("TEST_DATABASE_USERNAME"), "postgres") : container().getUsername();
+    }
+
+    public static String password() {
+        return setting("TEST_DATABASE_URL") != null
+                ? orDefault(setting("TEST_DATABASE_PASSWORD"), "") : container().getPassword();
+    }
+
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (container == null) {
+            // Left running for the rest of the JVM; Testcontainers removes it on exit
+            container = new PostgreSQLContainer<>(IMAGE);
+            container.start();
+        }
+        return container;
+    }
+
+    private static String setting(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(name);
+        }
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+}
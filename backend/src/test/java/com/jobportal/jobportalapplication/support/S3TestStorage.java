@@ -0,0 +1,82 @@
+package com.jobportal.jobportalapplication.support;
+
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MinIOContainer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.net.URI;
+
+/**
+ * An S3-compatible endpoint for blob store tests.
+ *
+ * Uses the endpoint at {@code TEST_S3_ENDPOINT} (environment variable or system
+ * property, with {@code TEST_S3_ACCESS_KEY} / {@code TEST_S3_SECRET_KEY}) when
+ * set, otherwise one MinIO container shared by every test class in the run. Tests
+ * guard themselves with
+ * {@code @EnabledIf("com.jobportal.jobportalapplication.support.S3TestStorage#available")}.
+ *
+ * Buckets are created by the tests, so point the endpoint at a throwaway server.
+ */
+public final class S3TestStorage {
+
+    private static final String IMAGE = "minio/minio:RELEASE.2024-12-18T13-15-44Z";
+
+    private static MinIOContainer container;
+
+    private S3TestStorage() {
+    }
+
+    public static boolean available() {
+        return setting("TEST_S3_ENDPOINT") != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static String endpoint() {
+        String endpoint = setting("TEST_S3_ENDPOINT");
+        return endpoint != null ? endpoint : container().getS3URL();
+    }
+
+    public static String accessKey() {
+        return setting("TEST_S3_ENDPOINT") != null
+                ? orDefault(setting("TEST_S3_ACCESS_KEY"), "test") : container().getUserName();
+    }
+
+    public static String secretKey() {
+        return setting("TEST_S3_ENDPOINT") != null
+                ? orDefault(setting("TEST_S3_SECRET_KEY"), "test") : container().getPassword();
+    }
+
+    /** A path-style client on the test endpoint, for setting up and inspecting buckets. */
+    public static S3Client client() {
+        return S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(endpoint()))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(accessKey(), secretKey())))
+                .forcePathStyle(true)
+                .build();
+    }
+
+    private static synchronized MinIOContainer container() {
+        if (container == null) {
+            // Left running for the rest of the JVM; Testcontainers removes it on exit
+            container = new MinIOContainer(IMAGE);
+            container.start();
+        }
+        return container;
+    }
+
+    private static String setting(String name) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(name);
+        }
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,156 @@
+package com.jobportal.jobportalapplication.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for mail tests.
+ *
+ * Speaks just enough ESMTP for Jakarta Mail (EHLO, MAIL, RCPT, DATA, RSET, NOOP,
+ * QUIT), records every accepted message and counts connections, including the
+ * peak number open at once. Recipients added with {@link #reject} get a 550.
+ */
+public class SmtpStubServer implements AutoCloseable {
+
+    /** An accepted message: envelope recipients and the raw DATA section. */
+    public record Received(String from, List<String> recipients, String data) {
+    }
+
+    private final ServerSocket server;
+    private final ExecutorService executor;
+
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+    private final List<Received> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger peakOpen = new AtomicInteger();
+
+    public SmtpStubServer() throws IOException {
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "smtp-stub");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.execute(this::acceptLoop);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public void reject(String recipient) {
+        rejected.add(recipient.toLowerCase(Locale.ROOT));
+    }
+
+    public List<Received> messages() {
+        return messages;
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    public int peakOpenConnections() {
+        return peakOpen.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                peakOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+
+            reply(out, "220 localhost ESMTP stub");
+            String from = null;
+            List<String> recipients = new CopyOnWriteArrayList<>();
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost\r\n250 8BITMIME");
+                } else if (command.startsWith("HELO") || command.startsWith("NOOP")) {
+                    reply(out, "250 OK");
+                } else if (command.startsWith("MAIL FROM:")) {
+                    from = address(line);
+                    recipients = new CopyOnWriteArrayList<>();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    String recipient = address(line);
+                    if (rejected.contains(recipient.toLowerCase(Locale.ROOT))) {
+                        reply(out, "550 5.1.1 Mailbox unavailable");
+                    } else {
+                        recipients.add(recipient);
+                        reply(out, "250 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    String dataLine;
+                    while ((dataLine = in.readLine()) != null && !dataLine.equals(".")) {
+                        data.append(dataLine.startsWith("..") ? dataLine.substring(1) : dataLine).append("\r\n");
+                    }
+                    messages.add(new Received(from, List.copyOf(recipients), data.toString()));
+                    reply(out, "250 OK queued");
+                } else if (command.startsWith("RSET")) {
+                    from = null;
+                    recipients = new CopyOnWriteArrayList<>();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            open.decrementAndGet();
+        }
+    }
+
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>', start + 1);
+        return start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
@@ -24,13 +24,48 @@ const Header = () => {
     return () => window.removeEventListener('scroll', handleScroll);
   }, []);
 
-  // Fetch notifications when authenticated
+  // Load notifications, then follow the push stream; reconnect with backoff and
+  // reload on every (re)connect so nothing sent while disconnected is missed
   useEffect(() => {
-    if (isAuthenticated) {
-      fetchUnreadNotifications();
-      const interval = setInterval(fetchUnreadNotifications, 30000);
-      return () => clearInterval(interval);
-    }
+    if (!isAuthenticated) return;
+
+    let stopped = false;
+    let stream = null;
+    let retryTimer = null;
+    let delay = 1000;
+
+    const connect = () => {
+      stream = notificationService.subscribe(
+        (notification, updated) => {
+          setNotifications((prev) => [notification, ...prev.filter((n) => n.id !== notification.id)]);
+          if (!updated) setUnreadCount((prev) => prev + 1);
+        },
+        () => {
+          delay = 1000;
+          fetchUnreadNotifications();
+        },
+        fetchUnreadNotifications
+      );
+      stream.done
+        .catch(() => {
+          // Also lets the API client refresh an expired token before the retry
+          if (!stopped) fetchUnreadNotifications();
+        })
+        .finally(() => {
+          if (stopped) return;
+          retryTimer = setTimeout(connect, delay);
+          delay = Math.min(delay * 2, 60000);
+        });
+    };
+
+    fetchUnreadNotifications();
+    connect();
+
+    return () => {
+      stopped = true;
+      clearTimeout(retryTimer);
+      stream?.abort();
+    };
   }, [isAuthenticated]);
 
   // Close dropdown when clicking outside
@@ -2,6 +2,7 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import companyService from '../services/companyService';
+import fileService from '../services/fileService';
 import { useAuth } from '../context/AuthContext';
 
 const Companies = () => {
@@ -232,7 +233,7 @@ const Companies = () => {
                   <div className="w-16 h-16 rounded-xl bg-white p-2 flex items-center justify-center flex-shrink-0 shadow-lg">
                     {company.logoUrl ? (
                       <img
-                        src={company.logoUrl}
+                        src={fileService.getImageUrl(company.logoUrl, 'thumb')}
                         alt={company.name}
                         className="w-full h-full object-contain"
                         onError={(e) => {
@@ -18,6 +18,7 @@ const EmployerProfile = () => {
     position: '',
     companyId: '',
     companyName: '',
+    applicationAlertMode: 'IMMEDIATE',
   });
 
   const [passwordData, setPasswordData] = useState({
@@ -43,6 +44,7 @@ const EmployerProfile = () => {
         position: response.data.position || '',
         companyId: response.data.companyId || '',
         companyName: response.data.companyName || '',
+        applicationAlertMode: response.data.applicationAlertMode || 'IMMEDIATE',
       });
 
       console.log('✅ Profile loaded successfully'); // Debug log
@@ -81,6 +83,7 @@ const EmployerProfile = () => {
       const updateData = {
         phone: profileData.phone,
         position: profileData.position,
+        applicationAlertMode: profileData.applicationAlertMode,
       };
 
       if (profileData.companyId) {
@@ -260,6 +263,22 @@ const EmployerProfile = () => {
                 )}
               </div>
 
+              <div>
+                <label className="block text-gray-300 font-medium mb-2">
+                  New Application Emails
+                </label>
+                <select
+                  name="applicationAlertMode"
+                  value={profileData.applicationAlertMode}
+                  onChange={handleProfileChange}
+                  className="w-full px-4 py-3 bg-slate-800/50 border border-white/10 rounded-xl text-white placeholder-gray-500 focus:outline-none focus:ring-2 focus:ring-blue-500/50 focus:border-blue-500/50 transition-all"
+                >
+                  <option value="IMMEDIATE" className="bg-slate-800">One email per application</option>
+                  <option value="HOURLY" className="bg-slate-800">Hourly summary</option>
+                  <option value="DAILY" className="bg-slate-800">Daily summary</option>
+                </select>
+              </div>
+
               <div className="pt-4">
                 <button
                   type="submit"
@@ -28,12 +28,48 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
-// Response interceptor - Auto logout on 401/403
+let refreshPromise = null;
+
+// Exchange the stored refresh token once, shared by all requests failing at the same time
+const refreshTokens = () => {
+  if (!refreshPromise) {
+    const user = JSON.parse(localStorage.getItem('user') || 'null');
+    refreshPromise = axios
+      .post(`${API_URL}/auth/refresh`, { refreshToken: user?.refreshToken })
+      .then((response) => {
+        localStorage.setItem('user', JSON.stringify(response.data.data));
+        return response.data.data.token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
+// Response interceptor - refresh once on 401/403, then logout
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
     const status = error.response?.status;
-    
+    const original = error.config;
+    const user = JSON.parse(localStorage.getItem('user') || 'null');
+
+    if ((status === 401 || status === 403) && original && !original._retried
+        && !original.url?.startsWith('/auth/') && user?.refreshToken) {
+      original._retried = true;
+      const sentToken = original.headers?.Authorization?.replace('Bearer ', '');
+
+      try {
+        // Another tab may already have rotated the tokens
+        const token = user.token && user.token !== sentToken ? user.token : await refreshTokens();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch (refreshError) {
+        // Fall through to logout
+      }
+    }
+
     // Token expired or unauthorized
     if ((status === 401 || status === 403) && !isRedirecting) {
       isRedirecting = true;
@@ -22,10 +22,12 @@ const fileService = {
 
   /**
    * Upload resume and extract text for AI analysis
+   * The server queues extraction and returns a resume id; this polls the
+   * status endpoint until the text is ready.
    * @param {File} file - Resume file (PDF, DOC, DOCX, TXT)
    * @returns {Promise} - Response with fileUrl, fileName, fileType, extractedText
    */
-  uploadResumeWithExtraction: async (file) => {
+  uploadResumeWithExtraction: async (file, { intervalMs = 750, timeoutMs = 60000 } = {}) => {
     const formData = new FormData();
     formData.append('file', file);
 
@@ -34,6 +36,29 @@ const fileService = {
         'Content-Type': 'multipart/form-data',
       },
     });
+
+    let status = response.data;
+    const deadline = Date.now() + timeoutMs;
+    while (status.status !== 'COMPLETED' && status.status !== 'FAILED') {
+      if (Date.now() > deadline) {
+        throw new Error('Resume processing timed out');
+      }
+      await new Promise((resolve) => setTimeout(resolve, intervalMs));
+      status = await fileService.getResumeStatus(status.resumeId);
+    }
+
+    if (status.status === 'FAILED') {
+      throw new Error(status.errorMessage || 'Failed to process resume');
+    }
+    return { success: true, ...status };
+  },
+
+  /**
+   * Get processing status of an uploaded resume
+   * @param {number} resumeId - Id returned by uploadResumeWithExtraction
+   */
+  getResumeStatus: async (resumeId) => {
+    const response = await api.get(`/files/resume/${resumeId}/status`);
     return response.data;
   },
 
@@ -63,6 +88,19 @@ const fileService = {
     return `${baseUrl}/files/download/${type}/${filename}`;
   },
 
+  /**
+   * URL of a scaled-down copy of an uploaded image
+   * Only our own image/profile uploads have derivatives; other URLs are returned as-is.
+   * @param {string} url - Image URL (e.g. company.logoUrl)
+   * @param {string} size - 'thumb' (128px), 'card' (400px) or 'full' (1200px)
+   */
+  getImageUrl: (url, size = 'thumb') => {
+    if (!url || !/\/files\/download\/(image|profile)\/[^/?]+$/.test(url)) {
+      return url;
+    }
+    return `${url}?size=${size}`;
+  },
+
   /**
    * Delete a file
    * @param {string} type - File type
@@ -1,5 +1,7 @@
 import api from './api';
 
+const API_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
+
 const notificationService = {
   // Get all notifications (paginated)
   getNotifications: async (page = 0, size = 10) => {
@@ -41,6 +43,54 @@ const notificationService = {
   clearAllNotifications: async () => {
     const response = await api.delete('/notifications/clear-all');
     return response.data;
+  },
+
+  // Push stream of new notifications (server-sent events). Uses fetch rather than
+  // EventSource so the token goes in a header, not the URL. Resolves when the
+  // stream ends; call the returned abort() to close it. onResync is called when the
+  // server dropped a push and the list should be reloaded.
+  subscribe: (onNotification, onOpen, onResync) => {
+    const controller = new AbortController();
+    const user = JSON.parse(localStorage.getItem('user') || 'null');
+
+    const done = fetch(`${API_URL}/notifications/stream`, {
+      headers: {
+        Accept: 'text/event-stream',
+        Authorization: `Bearer ${user?.token}`,
+      },
+      signal: controller.signal,
+    }).then(async (response) => {
+      if (!response.ok || !response.body) {
+        throw new Error(`Notification stream failed: ${response.status}`);
+      }
+      onOpen?.();
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done: finished } = await reader.read();
+        if (finished) return;
+        buffer += value;
+
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          const block = buffer.slice(0, end);
+          buffer = buffer.slice(end + 2);
+
+          const lines = block.split('\n');
+          const event = lines.find((line) => line.startsWith('event:'))?.slice(6).trim();
+          const data = lines.filter((line) => line.startsWith('data:')).map((line) => line.slice(5)).join('\n');
+          if ((event === 'notification' || event === 'notification-updated') && data) {
+            // "notification-updated": an unread notification was coalesced with a new one
+            onNotification(JSON.parse(data), event === 'notification-updated');
+          } else if (event === 'resync') {
+            onResync?.();
+          }
+        }
+      }
+    });
+
+    return { done, abort: () => controller.abort() };
   }
 };
 